@@ -10,6 +10,7 @@ import android.location.Location;
 import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.RequiresPermission;
+import androidx.core.location.LocationRequestCompat;
 import app.organicmaps.sdk.util.LocationUtils;
 import app.organicmaps.sdk.util.log.Logger;
 import com.google.android.gms.common.api.ApiException;
@@ -65,13 +66,16 @@ class GoogleFusedLocationProvider extends BaseLocationProvider
 
   @Override
   @RequiresPermission(anyOf = {ACCESS_COARSE_LOCATION, ACCESS_FINE_LOCATION})
-  public void start(long interval)
+  public void start(long interval, int quality)
   {
     Logger.d(TAG);
 
+    final int priority = quality == LocationRequestCompat.QUALITY_HIGH_ACCURACY
+                           ? Priority.PRIORITY_HIGH_ACCURACY
+                           : Priority.PRIORITY_BALANCED_POWER_ACCURACY;
     final LocationRequest locationRequest =
         new LocationRequest
-            .Builder(Priority.PRIORITY_HIGH_ACCURACY, interval)
+            .Builder(priority, interval)
             // Wait a few seconds for accurate locations initially, when accurate locations could not be computed on the
             // device immediately. https://github.com/organicmaps/organicmaps/issues/2149
             .setWaitForAccurateLocation(true)
@@ -3,6 +3,7 @@ package app.organicmaps;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Color;
+import android.view.MotionEvent;
 import android.view.View;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
@@ -13,6 +14,7 @@ import app.organicmaps.sdk.bookmarks.data.ElevationInfo;
 import app.organicmaps.util.ThemeUtils;
 import app.organicmaps.util.Utils;
 import app.organicmaps.widget.placepage.AxisValueFormatter;
+import app.organicmaps.widget.placepage.ChartDownsampler;
 import app.organicmaps.widget.placepage.CurrentLocationMarkerView;
 import app.organicmaps.widget.placepage.FloatingMarkerView;
 import com.github.mikephil.charting.charts.LineChart;
@@ -25,6 +27,8 @@ import com.github.mikephil.charting.data.LineData;
 import com.github.mikephil.charting.data.LineDataSet;
 import com.github.mikephil.charting.formatter.ValueFormatter;
 import com.github.mikephil.charting.highlight.Highlight;
+import com.github.mikephil.charting.listener.ChartTouchListener;
+import com.github.mikephil.charting.listener.OnChartGestureListener;
 import com.github.mikephil.charting.listener.OnChartValueSelectedListener;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -32,6 +36,7 @@ import java.util.Collections;
 import java.util.List;
 
 public class ChartController implements OnChartValueSelectedListener,
+                                        OnChartGestureListener,
                                         BookmarkManager.OnElevationActivePointChangedListener,
                                         BookmarkManager.OnElevationCurrentPositionChangedListener
 {
@@ -42,6 +47,8 @@ public class ChartController implements OnChartValueSelectedListener,
   private static final int CHART_AXIS_GRANULARITY = 100;
   private static final float CUBIC_INTENSITY = 0.2f;
   private static final int CURRENT_POSITION_OUT_OF_TRACK = -1;
+  // Used before the chart is laid out.
+  private static final int DEFAULT_CHART_WIDTH_PX = 1000;
 
   @SuppressWarnings("NullableProblems")
   @NonNull
@@ -62,6 +69,14 @@ public class ChartController implements OnChartValueSelectedListener,
   private final Context mContext;
   private long mTrackId = Utils.INVALID_ID;
   private boolean mCurrentPositionOutOfTrack = true;
+  // All points of the track, the chart shows only a downsampled part of them.
+  @NonNull
+  private float[] mDistances = new float[0];
+  @NonNull
+  private float[] mAltitudes = new float[0];
+  // The distance range of the chart data.
+  private float mDataFrom;
+  private float mDataTo;
 
   public ChartController(@NonNull Context context)
   {
@@ -86,6 +101,7 @@ public class ChartController implements OnChartValueSelectedListener,
     mChart.setBackgroundColor(ThemeUtils.getColor(mContext, R.attr.cardBackground));
     mChart.setTouchEnabled(true);
     mChart.setOnChartValueSelectedListener(this);
+    mChart.setOnChartGestureListener(this);
     mChart.setDrawGridBackground(false);
     mChart.setScaleXEnabled(true);
     mChart.setScaleYEnabled(false);
@@ -145,12 +161,15 @@ public class ChartController implements OnChartValueSelectedListener,
   public void setData(@NonNull ElevationInfo info)
   {
     mTrackId = info.getId();
-    List<Entry> values = new ArrayList<>();
-
-    for (ElevationInfo.Point point : info.getPoints())
-      values.add(new Entry((float) point.getDistance(), point.getAltitude()));
-
-    LineDataSet set = new LineDataSet(values, "Elevation_profile_points");
+    mDistances = info.getDistances();
+    mAltitudes = info.getAltitudes();
+    // The chart data covers only a part of the track when zoomed, but the axis covers the whole track.
+    final XAxis x = mChart.getXAxis();
+    x.setAxisMinimum(mDistances[0]);
+    x.setAxisMaximum(mDistances[mDistances.length - 1]);
+
+    LineDataSet set = new LineDataSet(getVisibleValues(mDistances[0], mDistances[mDistances.length - 1]),
+                                      "Elevation_profile_points");
     set.setMode(LineDataSet.Mode.CUBIC_BEZIER);
     set.setCubicIntensity(CUBIC_INTENSITY);
     set.setDrawFilled(true);
@@ -179,6 +198,77 @@ public class ChartController implements OnChartValueSelectedListener,
     highlightActivePointManually();
   }
 
+  /**
+   * Downsamples the points to the chart width. The range is extended by its length on both sides,
+   * so the line doesn't end at the chart edges while the chart is dragged.
+   */
+  @NonNull
+  private List<Entry> getVisibleValues(float from, float to)
+  {
+    final float length = to - from;
+    int start = Arrays.binarySearch(mDistances, from - length);
+    start = start < 0 ? Math.max(0, -start - 2) : start;
+    int end = Arrays.binarySearch(mDistances, to + length);
+    end = end < 0 ? Math.min(mDistances.length, -end) : end + 1;
+    mDataFrom = mDistances[start];
+    mDataTo = mDistances[end - 1];
+
+    final int chartWidth = (int) mChart.getViewPortHandler().contentWidth();
+    // Points out of the visible range get the same density.
+    final int threshold = 3 * (chartWidth > 0 ? chartWidth : DEFAULT_CHART_WIDTH_PX);
+    final List<Entry> values = new ArrayList<>(Math.min(end - start, threshold));
+    ChartDownsampler.downsample(mDistances, mAltitudes, start, end, threshold, values);
+    return values;
+  }
+
+  private void updateVisibleValues()
+  {
+    final LineData data = mChart.getLineData();
+    if (data == null || mDistances.length == 0)
+      return;
+
+    final float from = mChart.getLowestVisibleX();
+    final float to = mChart.getHighestVisibleX();
+    final float length = to - from;
+    // Skip updates if the visible range is covered and is not downsampled too much.
+    final float dataLength = mDataTo - mDataFrom;
+    if (from >= mDataFrom && to <= mDataTo && dataLength <= 4 * length)
+      return;
+
+    final LineDataSet set = (LineDataSet) data.getDataSetByIndex(0);
+    set.setValues(getVisibleValues(from, to));
+    data.notifyDataChanged();
+    mChart.notifyDataSetChanged();
+    mChart.invalidate();
+  }
+
+  @Override
+  public void onChartGestureStart(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture) {}
+
+  @Override
+  public void onChartGestureEnd(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture)
+  {
+    updateVisibleValues();
+  }
+
+  @Override
+  public void onChartLongPressed(MotionEvent me) {}
+
+  @Override
+  public void onChartDoubleTapped(MotionEvent me) {}
+
+  @Override
+  public void onChartSingleTapped(MotionEvent me) {}
+
+  @Override
+  public void onChartFling(MotionEvent me1, MotionEvent me2, float velocityX, float velocityY) {}
+
+  @Override
+  public void onChartScale(MotionEvent me, float scaleX, float scaleY) {}
+
+  @Override
+  public void onChartTranslate(MotionEvent me, float dX, float dY) {}
+
   @Override
   public void onValueSelected(Entry e, Highlight h)
   {
@@ -248,5 +338,7 @@ public class ChartController implements OnChartValueSelectedListener,
   {
     mChart.fitScreen();
     mTrackId = Utils.INVALID_ID;
+    mDistances = new float[0];
+    mAltitudes = new float[0];
   }
 }
@@ -81,6 +81,7 @@ import app.organicmaps.maplayer.ToggleMapLayerFragment;
 import app.organicmaps.routing.ManageRouteBottomSheet;
 import app.organicmaps.routing.NavigationController;
 import app.organicmaps.routing.NavigationService;
+import app.organicmaps.routing.RouteProgressPublisher;
 import app.organicmaps.routing.RoutingBottomMenuListener;
 import app.organicmaps.routing.RoutingController;
 import app.organicmaps.routing.RoutingErrorDialogFragment;
@@ -108,6 +109,7 @@ import app.organicmaps.sdk.location.SensorListener;
 import app.organicmaps.sdk.location.TrackRecorder;
 import app.organicmaps.sdk.maplayer.isolines.IsolinesState;
 import app.organicmaps.sdk.routing.RouteMarkType;
+import app.organicmaps.sdk.routing.RoutingInfo;
 import app.organicmaps.sdk.routing.RoutingOptions;
 import app.organicmaps.sdk.search.SearchEngine;
 import app.organicmaps.sdk.settings.RoadType;
@@ -146,7 +148,7 @@ public class MwmActivity extends BaseMwmFragmentActivity
                BookmarkManager.BookmarksLoadingListener, FloatingSearchToolbarController.SearchToolbarListener,
                MenuBottomSheetFragment.MenuBottomSheetInterfaceWithHeader,
                PlacePageController.PlacePageRouteSettingsListener, MapButtonsController.MapButtonClickListener,
-               DisplayChangedListener
+               DisplayChangedListener, RouteProgressPublisher.Listener
 {
   private static final String TAG = MwmActivity.class.getSimpleName();
 
@@ -273,6 +275,7 @@ public class MwmActivity extends BaseMwmFragmentActivity
   @Keep
   public void onRenderingInitializationFinished()
   {
+    MwmApplication.from(this).getOrganicMaps().onMapShown();
     ThemeSwitcher.INSTANCE.restart(true);
 
     if (RoutingController.get().isPlanning())
@@ -1320,6 +1323,7 @@ public class MwmActivity extends BaseMwmFragmentActivity
     MwmApplication.from(getApplicationContext()).getIsolinesManager().attach(this::onIsolinesStateChanged);
     LocationState.nativeSetListener(this);
     MwmApplication.from(this).getLocationHelper().addListener(this);
+    RouteProgressPublisher.INSTANCE.addListener(this);
     mSearchController.attach(this);
     Utils.keepScreenOn(Config.isKeepScreenOnEnabled() || RoutingController.get().isNavigating(), getWindow());
   }
@@ -1331,6 +1335,7 @@ public class MwmActivity extends BaseMwmFragmentActivity
     Framework.nativeRemovePlacePageActivationListener(this);
     BookmarkManager.INSTANCE.removeLoadingListener(this);
     MwmApplication.from(this).getLocationHelper().removeListener(this);
+    RouteProgressPublisher.INSTANCE.removeListener(this);
     if (mDisplayManager.isDeviceDisplayUsed() && !RoutingController.get().isNavigating())
     {
       LocationState.nativeRemoveListener();
@@ -2018,12 +2023,13 @@ public class MwmActivity extends BaseMwmFragmentActivity
   public void onLocationUpdated(@NonNull Location location)
   {
     dismissLocationErrorDialog();
+  }
 
-    final RoutingController routing = RoutingController.get();
-    if (!routing.isNavigating())
-      return;
-
-    mNavigationController.update(Framework.nativeGetRouteFollowingInfo());
+  @Override
+  @UiThread
+  public void onRouteProgress(@NonNull RoutingInfo info)
+  {
+    mNavigationController.update(info);
   }
 
   @Override
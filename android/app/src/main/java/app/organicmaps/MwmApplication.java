@@ -31,6 +31,7 @@ import app.organicmaps.sdk.maplayer.subway.SubwayManager;
 import app.organicmaps.sdk.util.Config;
 import app.organicmaps.sdk.util.ConnectionState;
 import app.organicmaps.sdk.util.log.Logger;
+import app.organicmaps.settings.StoragePathManager;
 import app.organicmaps.util.Utils;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
@@ -134,6 +135,7 @@ public class MwmApplication extends Application implements Application.ActivityL
   {
     return mOrganicMaps.init(() -> {
       ProcessLifecycleOwner.get().getLifecycle().addObserver(mProcessLifecycleObserver);
+      StoragePathManager.resumeMoveStorage(this);
       onComplete.run();
     });
   }
@@ -203,6 +205,8 @@ public class MwmApplication extends Application implements Application.ActivityL
   {
     Logger.d(TAG);
 
+    // The process may be killed in the background before the pending settings are written.
+    Config.flush();
     OsmUploadWork.startActionUploadOsmChanges(this);
 
     if (!mDisplayManager.isDeviceDisplayUsed())
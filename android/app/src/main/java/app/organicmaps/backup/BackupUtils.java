@@ -27,6 +27,7 @@ public class BackupUtils
 {
   private static final String BACKUP_PREFIX = "backup_";
   private static final String BACKUP_EXTENSION = ".kmz";
+  private static final String MANIFEST_EXTENSION = ".manifest";
   private static final DateTimeFormatter DATE_FORMATTER =
       DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss").withLocale(Locale.US);
   private static final String TAG = BackupUtils.class.getSimpleName();
@@ -92,6 +93,26 @@ public class BackupUtils
     return BACKUP_PREFIX + formattedBackupTime + BACKUP_EXTENSION;
   }
 
+  public static String getManifestName(LocalDateTime backupTime)
+  {
+    return BACKUP_PREFIX + backupTime.format(DATE_FORMATTER) + MANIFEST_EXTENSION;
+  }
+
+  /**
+   * @return manifests of incremental backups, see {@link IncrementalBackup}.
+   */
+  public static DocumentFile[] getBackupManifests(DocumentFile parentDir)
+  {
+    List<DocumentFile> manifests = new ArrayList<>();
+    for (DocumentFile file : parentDir.listFiles())
+    {
+      final String name = file.getName();
+      if (file.isFile() && name != null && name.startsWith(BACKUP_PREFIX) && name.endsWith(MANIFEST_EXTENSION))
+        manifests.add(file);
+    }
+    return manifests.toArray(new DocumentFile[0]);
+  }
+
   public static DocumentFile[] getBackupFolders(DocumentFile parentDir)
   {
     List<DocumentFile> backupFolders = new ArrayList<>();
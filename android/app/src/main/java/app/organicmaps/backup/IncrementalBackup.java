@@ -0,0 +1,301 @@
+package app.organicmaps.backup;
+
+import static app.organicmaps.sdk.util.StorageUtils.copyFileToDocumentFile;
+
+import android.app.Activity;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.documentfile.provider.DocumentFile;
+import app.organicmaps.sdk.util.log.Logger;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental backup of the files where the core saves bookmark categories.
+ * <p>
+ * Every file is stored once in the blobs folder under the SHA-256 of its contents, so unchanged categories
+ * are neither exported nor copied again. A backup is a small manifest which lists blobs of all categories.
+ * Manifests also keep sizes and modification times of the files, so unchanged files aren't even read.
+ * Blobs keep the extension of the category file and can be imported into the app as is.
+ */
+final class IncrementalBackup
+{
+  private static final String TAG = IncrementalBackup.class.getSimpleName();
+
+  private static final String BLOBS_FOLDER = "blobs";
+  // Other types make some document providers append an extension to the name.
+  private static final String MIME_TYPE = "application/octet-stream";
+  private static final String HEADER = "#bookmarks-backup 1";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * A bookmark category to back up.
+   */
+  record Source(@NonNull String name, @NonNull String path) {}
+
+  private record Entry(@NonNull String blob, long size, long modified, @NonNull String path, @NonNull String name)
+  {}
+
+  private IncrementalBackup() {}
+
+  /**
+   * @return false if the backup can't be saved, true if it is saved or nothing has changed since the last one.
+   */
+  static boolean save(@NonNull Activity activity, @NonNull DocumentFile parentFolder, @NonNull List<Source> sources,
+                      @NonNull LocalDateTime backupTime)
+  {
+    DocumentFile blobsFolder = parentFolder.findFile(BLOBS_FOLDER);
+    if (blobsFolder == null)
+      blobsFolder = parentFolder.createDirectory(BLOBS_FOLDER);
+    if (blobsFolder == null || !blobsFolder.isDirectory())
+    {
+      Logger.e(TAG, "Failed to create blobs folder");
+      return false;
+    }
+    final Set<String> blobs = new HashSet<>();
+    for (DocumentFile file : blobsFolder.listFiles())
+      blobs.add(file.getName());
+
+    final DocumentFile[] manifests = BackupUtils.getBackupManifests(parentFolder);
+    List<Entry> previous = null;
+    if (manifests.length > 0)
+      previous = readManifest(activity, Arrays.stream(manifests).max(getManifestComparator()).get());
+    final Map<String, Entry> previousByPath = new HashMap<>();
+    if (previous != null)
+    {
+      for (Entry entry : previous)
+        previousByPath.put(entry.path(), entry);
+    }
+
+    final List<Entry> entries = new ArrayList<>(sources.size());
+    int copied = 0;
+    for (Source source : sources)
+    {
+      final File file = new File(source.path());
+      // A manifest without the category would be reported as a good backup, and retention would delete
+      // the last manifest with it eventually.
+      if (!file.isFile())
+      {
+        Logger.e(TAG, "Category " + source.name() + " has no file " + source.path());
+        return false;
+      }
+
+      final long size = file.length();
+      final long modified = file.lastModified();
+      final Entry old = previousByPath.get(source.path());
+      String blob;
+      if (old != null && old.size() == size && old.modified() == modified && blobs.contains(old.blob()))
+      {
+        blob = old.blob();
+      }
+      else
+      {
+        final String hash = getHash(file);
+        if (hash == null)
+          return false;
+        blob = hash + getExtension(file.getName());
+        if (!blobs.contains(blob))
+        {
+          if (!copyBlob(activity, blobsFolder, file, blob))
+            return false;
+          blobs.add(blob);
+          ++copied;
+        }
+        // The core may save the category meanwhile, the hash must match the copied contents.
+        if (file.length() != size || file.lastModified() != modified)
+        {
+          Logger.w(TAG, "Category file " + file + " has changed during the backup");
+          return false;
+        }
+      }
+      // The name is the last field of a manifest line.
+      entries.add(new Entry(blob, size, modified, source.path(), source.name().replaceAll("[\t\r\n]", " ")));
+    }
+
+    if (entries.equals(previous))
+    {
+      Logger.i(TAG, "Nothing has changed since the last backup");
+      return true;
+    }
+
+    final DocumentFile manifest = parentFolder.createFile(MIME_TYPE, BackupUtils.getManifestName(backupTime));
+    if (manifest == null || !writeManifest(activity, manifest, entries))
+    {
+      Logger.e(TAG, "Failed to write backup manifest");
+      if (manifest != null)
+        manifest.delete();
+      return false;
+    }
+    Logger.i(TAG, "Backup saved to " + manifest.getUri() + ", new blobs: " + copied + " of " + entries.size());
+    return true;
+  }
+
+  /**
+   * Deletes the oldest manifests above the limit and blobs which aren't used by remaining ones.
+   */
+  static void cleanOldBackups(@NonNull Activity activity, @NonNull DocumentFile parentFolder, int maxBackups)
+  {
+    final DocumentFile[] manifests = BackupUtils.getBackupManifests(parentFolder);
+    if (manifests.length <= maxBackups)
+      return;
+
+    Arrays.sort(manifests, getManifestComparator());
+    final int removed = manifests.length - maxBackups;
+    for (int i = 0; i < removed; i++)
+    {
+      Logger.i(TAG, "Delete old backup " + manifests[i].getUri());
+      manifests[i].delete();
+    }
+
+    final DocumentFile blobsFolder = parentFolder.findFile(BLOBS_FOLDER);
+    if (blobsFolder == null)
+      return;
+    final Set<String> used = new HashSet<>();
+    for (int i = removed; i < manifests.length; i++)
+    {
+      final List<Entry> entries = readManifest(activity, manifests[i]);
+      // Blobs of an unreadable manifest can't be told apart, keep all of them.
+      if (entries == null)
+        return;
+      for (Entry entry : entries)
+        used.add(entry.blob());
+    }
+    for (DocumentFile blob : blobsFolder.listFiles())
+    {
+      if (!used.contains(blob.getName()))
+      {
+        Logger.i(TAG, "Delete unused blob " + blob.getName());
+        blob.delete();
+      }
+    }
+  }
+
+  @NonNull
+  private static Comparator<DocumentFile> getManifestComparator()
+  {
+    // Names contain the backup time.
+    return Comparator.comparing(DocumentFile::getName);
+  }
+
+  @Nullable
+  private static List<Entry> readManifest(@NonNull Activity activity, @NonNull DocumentFile manifest)
+  {
+    try (InputStream in = activity.getContentResolver().openInputStream(manifest.getUri()))
+    {
+      if (in == null)
+        throw new IOException("Failed to open " + manifest.getUri());
+      final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      if (!HEADER.equals(reader.readLine()))
+        throw new IOException("Unsupported manifest " + manifest.getUri());
+      final List<Entry> entries = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null)
+      {
+        if (line.isEmpty())
+          continue;
+        final String[] fields = line.split("\t", 5);
+        if (fields.length != 5)
+          throw new IOException("Malformed line " + line + " in " + manifest.getUri());
+        entries.add(new Entry(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3], fields[4]));
+      }
+      return entries;
+    }
+    catch (IOException | RuntimeException e)
+    {
+      Logger.e(TAG, "Failed to read backup manifest", e);
+      return null;
+    }
+  }
+
+  private static boolean writeManifest(@NonNull Activity activity, @NonNull DocumentFile manifest,
+                                       @NonNull List<Entry> entries)
+  {
+    try (OutputStream out = activity.getContentResolver().openOutputStream(manifest.getUri()))
+    {
+      if (out == null)
+        return false;
+      final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+      writer.write(HEADER);
+      writer.write('\n');
+      for (Entry entry : entries)
+      {
+        writer.write(entry.blob() + '\t' + entry.size() + '\t' + entry.modified() + '\t' + entry.path() + '\t'
+                     + entry.name() + '\n');
+      }
+      writer.flush();
+      return true;
+    }
+    catch (IOException e)
+    {
+      Logger.e(TAG, "Failed to write backup manifest", e);
+      return false;
+    }
+  }
+
+  private static boolean copyBlob(@NonNull Activity activity, @NonNull DocumentFile blobsFolder, @NonNull File file,
+                                  @NonNull String blob)
+  {
+    final DocumentFile target = blobsFolder.createFile(MIME_TYPE, blob);
+    if (target == null)
+    {
+      Logger.e(TAG, "Failed to create blob " + blob);
+      return false;
+    }
+    if (!copyFileToDocumentFile(activity, file, target))
+    {
+      // A partial blob would be taken as a complete one by the next backup.
+      target.delete();
+      return false;
+    }
+    return true;
+  }
+
+  @Nullable
+  private static String getHash(@NonNull File file)
+  {
+    try (InputStream in = new FileInputStream(file))
+    {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) > 0)
+        digest.update(buffer, 0, read);
+
+      final StringBuilder sb = new StringBuilder(64);
+      for (byte b : digest.digest())
+        sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      return sb.toString();
+    }
+    catch (IOException | NoSuchAlgorithmException e)
+    {
+      Logger.e(TAG, "Failed to hash " + file, e);
+      return null;
+    }
+  }
+
+  @NonNull
+  private static String getExtension(@NonNull String fileName)
+  {
+    final int dot = fileName.lastIndexOf('.');
+    return dot < 0 ? "" : fileName.substring(dot);
+  }
+}
@@ -8,38 +8,66 @@ import static app.organicmaps.sdk.util.StorageUtils.deleteDirectoryRecursive;
 import android.app.Activity;
 import android.net.Uri;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.documentfile.provider.DocumentFile;
 import app.organicmaps.sdk.bookmarks.data.BookmarkCategory;
 import app.organicmaps.sdk.bookmarks.data.BookmarkManager;
 import app.organicmaps.sdk.bookmarks.data.BookmarkSharingResult;
 import app.organicmaps.sdk.bookmarks.data.KmlFileType;
+import app.organicmaps.sdk.util.concurrency.Priority;
+import app.organicmaps.sdk.util.concurrency.SerialExecutor;
 import app.organicmaps.sdk.util.concurrency.ThreadPool;
 import app.organicmaps.sdk.util.concurrency.UiThread;
 import app.organicmaps.sdk.util.log.Logger;
 import java.io.File;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 public class LocalBackupManager implements BookmarkManager.BookmarksSharingListener
 {
   public static final String TAG = LocalBackupManager.class.getSimpleName();
 
+  // Periodic and manual backups write and clean the same folder, so they never run at once.
+  // Nobody waits for a backup, it must not delay interactive file operations.
+  private static final ExecutorService sBackupExecutor =
+      new SerialExecutor(ThreadPool.getStorage(Priority.BACKGROUND));
+
   private final Activity activity;
   private final String backupFolderPath;
   private final int maxBackups;
+  private final boolean incremental;
   private Listener listener;
 
   public LocalBackupManager(@NonNull Activity activity, @NonNull String backupFolderPath, int maxBackups)
+  {
+    this(activity, backupFolderPath, maxBackups, false);
+  }
+
+  /**
+   * @param incremental save only changed categories instead of exporting all of them into a new archive,
+   *                    see {@link IncrementalBackup}.
+   */
+  public LocalBackupManager(@NonNull Activity activity, @NonNull String backupFolderPath, int maxBackups,
+                            boolean incremental)
   {
     this.activity = activity;
     this.backupFolderPath = backupFolderPath;
     this.maxBackups = maxBackups;
+    this.incremental = incremental;
   }
 
   public void doBackup()
   {
+    if (incremental)
+    {
+      doIncrementalBackup();
+      return;
+    }
+
     BookmarkManager.INSTANCE.addSharingListener(this);
 
     prepareBookmarkCategoriesForSharing();
@@ -58,7 +86,7 @@ public class LocalBackupManager implements BookmarkManager.BookmarksSharingListe
   {
     BookmarkManager.INSTANCE.removeSharingListener(this);
 
-    ThreadPool.getWorker().execute(() -> {
+    sBackupExecutor.execute(() -> {
       ErrorCode errorCode = null;
       switch (result.getCode())
       {
@@ -96,19 +124,74 @@ public class LocalBackupManager implements BookmarkManager.BookmarksSharingListe
         }
       }
 
-      ErrorCode finalErrorCode = errorCode;
-      UiThread.run(() -> {
-        if (listener != null)
-        {
-          if (finalErrorCode == null)
-            listener.onBackupFinished();
-          else
-            listener.onBackupFailed(finalErrorCode);
-        }
-      });
+      notifyFinished(errorCode);
     });
   }
 
+  private void doIncrementalBackup()
+  {
+    final List<IncrementalBackup.Source> sources = new ArrayList<>();
+    for (BookmarkCategory category : BookmarkManager.INSTANCE.getCategories())
+    {
+      sources.add(new IncrementalBackup.Source(category.getName(),
+                                               BookmarkManager.INSTANCE.getCategoryFilePath(category.getId())));
+    }
+
+    if (listener != null)
+      listener.onBackupStarted();
+
+    if (sources.isEmpty())
+    {
+      Logger.e(TAG, "Failed to create backup. There are no categories");
+      notifyFinished(ErrorCode.EMPTY_CATEGORY);
+      return;
+    }
+
+    sBackupExecutor.execute(() -> {
+      if (saveIncrementalBackup(sources))
+      {
+        Logger.i(TAG, "Incremental backup was saved successfully");
+        notifyFinished(null);
+      }
+      else
+      {
+        Logger.e(TAG, "Failed to save incremental backup. See system log above");
+        notifyFinished(ErrorCode.FILE_ERROR);
+      }
+    });
+  }
+
+  private void notifyFinished(@Nullable ErrorCode errorCode)
+  {
+    UiThread.run(() -> {
+      if (listener != null)
+      {
+        if (errorCode == null)
+          listener.onBackupFinished();
+        else
+          listener.onBackupFailed(errorCode);
+      }
+    });
+  }
+
+  private boolean saveIncrementalBackup(@NonNull List<IncrementalBackup.Source> sources)
+  {
+    try
+    {
+      DocumentFile parentFolder = DocumentFile.fromTreeUri(activity, Uri.parse(backupFolderPath));
+      if (parentFolder == null || !parentFolder.canWrite())
+        return false;
+      final boolean isSuccess = IncrementalBackup.save(activity, parentFolder, sources, LocalDateTime.now());
+      IncrementalBackup.cleanOldBackups(activity, parentFolder, maxBackups);
+      return isSuccess;
+    }
+    catch (Exception e)
+    {
+      Logger.e(TAG, "Failed to save incremental backup", e);
+      return false;
+    }
+  }
+
   private boolean saveBackup(@NonNull BookmarkSharingResult result)
   {
     boolean isSuccess = false;
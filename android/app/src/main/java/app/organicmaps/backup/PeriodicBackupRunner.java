@@ -74,7 +74,8 @@ public class PeriodicBackupRunner
 
   private void performBackup(String backupFolderPath, int maxBackups)
   {
-    LocalBackupManager backupManager = new LocalBackupManager(activity, backupFolderPath, maxBackups);
+    // Periodic backups mostly find nothing or a few categories changed.
+    LocalBackupManager backupManager = new LocalBackupManager(activity, backupFolderPath, maxBackups, true);
     backupManager.setListener(new LocalBackupManager.Listener() {
       @Override
       public void onBackupStarted()
@@ -1,7 +1,6 @@
 package app.organicmaps.bookmarks;
 
 import android.app.Activity;
-import android.app.ProgressDialog;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
@@ -11,7 +10,6 @@ import android.os.Build;
 import android.os.Bundle;
 import android.provider.DocumentsContract;
 import android.view.View;
-import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.CallSuper;
@@ -43,7 +41,6 @@ import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class BookmarkCategoriesFragment extends BaseMwmRecyclerFragment<BookmarkCategoriesAdapter>
     implements BookmarkManager.BookmarksLoadingListener, CategoryListCallback, OnItemClickListener<BookmarkCategory>,
@@ -313,30 +310,15 @@ public class BookmarkCategoriesFragment extends BaseMwmRecyclerFragment<Bookmark
 
     final Context context = requireActivity();
     final Uri rootUri = data.getData();
-    final ProgressDialog dialog = new ProgressDialog(context, R.style.MwmTheme_ProgressDialog);
-    dialog.setMessage(getString(R.string.wait_several_minutes));
-    dialog.setProgressStyle(ProgressDialog.STYLE_SPINNER);
-    dialog.setIndeterminate(true);
-    dialog.setCancelable(false);
-    dialog.show();
+    final BookmarksImportDialog dialog = new BookmarksImportDialog(context);
     Logger.d(TAG, "Importing bookmarks from " + rootUri);
     MwmApplication app = MwmApplication.from(context);
     final File tempDir = new File(StorageUtils.getTempPath(app));
     final ContentResolver resolver = context.getContentResolver();
     ThreadPool.getStorage().execute(() -> {
-      AtomicInteger found = new AtomicInteger(0);
-      StorageUtils.listContentProviderFilesRecursively(resolver, rootUri, uri -> {
-        if (BookmarkManager.INSTANCE.importBookmarksFile(resolver, uri, tempDir))
-          found.incrementAndGet();
-      });
-      UiThread.run(() -> {
-        if (dialog.isShowing())
-          dialog.dismiss();
-        int found_val = found.get();
-        String message =
-            context.getResources().getQuantityString(R.plurals.bookmarks_detect_message, found_val, found_val);
-        Toast.makeText(requireContext(), message, Toast.LENGTH_LONG).show();
-      });
+      final List<Uri> uris = new ArrayList<>();
+      StorageUtils.listContentProviderFilesRecursively(resolver, rootUri, uris::add);
+      UiThread.run(() -> dialog.start(resolver, uris, tempDir));
     });
   }
 
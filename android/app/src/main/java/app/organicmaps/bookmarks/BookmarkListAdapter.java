@@ -41,6 +41,9 @@ public class BookmarkListAdapter extends RecyclerView.Adapter<Holders.BaseBookma
   @NonNull
   private SectionsDataSource mSectionsDataSource;
 
+  @NonNull
+  private final BookmarkRowCache mRowCache = new BookmarkRowCache();
+
   @Nullable
   private RecyclerClickListener mClickListener;
   @Nullable
@@ -81,6 +84,16 @@ public class BookmarkListAdapter extends RecyclerView.Adapter<Holders.BaseBookma
     public abstract int getItemsCount(int sectionIndex);
     public abstract int getItemsType(int sectionIndex);
     public abstract long getBookmarkId(@NonNull SectionPosition pos);
+
+    @NonNull
+    public long[] getBookmarkIds(int sectionIndex, int fromItem, int count)
+    {
+      final long[] ids = new long[count];
+      for (int i = 0; i < count; ++i)
+        ids[i] = getBookmarkId(new SectionPosition(sectionIndex, fromItem + i));
+      return ids;
+    }
+
     public abstract long getTrackId(@NonNull SectionPosition pos);
     public abstract void onDelete(@NonNull SectionPosition pos);
   }
@@ -179,6 +192,13 @@ public class BookmarkListAdapter extends RecyclerView.Adapter<Holders.BaseBookma
       return BookmarkManager.INSTANCE.getBookmarkIdByPosition(getCategory().getId(), pos.getItemIndex());
     }
 
+    @NonNull
+    @Override
+    public long[] getBookmarkIds(int sectionIndex, int fromItem, int count)
+    {
+      return BookmarkManager.INSTANCE.getBookmarkIdsByPosition(getCategory().getId(), fromItem, count);
+    }
+
     @Override
     public long getTrackId(@NonNull SectionPosition pos)
     {
@@ -360,6 +380,38 @@ public class BookmarkListAdapter extends RecyclerView.Adapter<Holders.BaseBookma
   {
     mDataSource = dataSource;
     refreshSections();
+    // Every change of the list is followed by a notification, cached rows are dropped on it.
+    registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+      @Override
+      public void onChanged()
+      {
+        mRowCache.invalidate();
+      }
+
+      @Override
+      public void onItemRangeChanged(int positionStart, int itemCount)
+      {
+        mRowCache.invalidate();
+      }
+
+      @Override
+      public void onItemRangeInserted(int positionStart, int itemCount)
+      {
+        mRowCache.invalidate();
+      }
+
+      @Override
+      public void onItemRangeRemoved(int positionStart, int itemCount)
+      {
+        mRowCache.invalidate();
+      }
+
+      @Override
+      public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount)
+      {
+        mRowCache.invalidate();
+      }
+    });
   }
 
   private void refreshSections()
@@ -370,6 +422,7 @@ public class BookmarkListAdapter extends RecyclerView.Adapter<Holders.BaseBookma
       mSectionsDataSource = new SortedSectionsDataSource(mDataSource, mSortedResults);
     else
       mSectionsDataSource = new CategorySectionsDataSource(mDataSource);
+    mRowCache.invalidate();
   }
 
   private SectionPosition getSectionPosition(int position)
@@ -453,7 +506,7 @@ public class BookmarkListAdapter extends RecyclerView.Adapter<Holders.BaseBookma
         break;
       case TYPE_BOOKMARK:
         Holders.BookmarkViewHolder bookmarkHolder =
-            new Holders.BookmarkViewHolder(inflater.inflate(R.layout.item_bookmark, parent, false));
+            new Holders.BookmarkViewHolder(inflater.inflate(R.layout.item_bookmark, parent, false), mRowCache);
         bookmarkHolder.setOnClickListener(mClickListener);
         bookmarkHolder.setOnLongClickListener(mLongClickListener);
         holder = bookmarkHolder;
@@ -526,6 +579,7 @@ public class BookmarkListAdapter extends RecyclerView.Adapter<Holders.BaseBookma
   {
     SectionPosition sp = getSectionPosition(position);
     mSectionsDataSource.onDelete(sp);
+    mRowCache.invalidate();
     // In case of the search results editing reset cached sorted blocks.
     if (isSearchResults())
       mSortedResults = null;
@@ -0,0 +1,67 @@
+package app.organicmaps.bookmarks;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import app.organicmaps.R;
+import app.organicmaps.sdk.bookmarks.data.BookmarkManager;
+import app.organicmaps.sdk.bookmarks.data.BookmarkRows;
+import app.organicmaps.sdk.bookmarks.data.Icon;
+import app.organicmaps.util.Graphics;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pages of bookmark rows for {@link BookmarkListAdapter}. Rows are fetched from the core a page at a time
+ * instead of a bunch of JNI calls for every bound row, and rendered icons are shared by all rows with
+ * the same color and icon.
+ */
+class BookmarkRowCache
+{
+  private static final int PAGE_SIZE = 64;
+  // Enough for a few screens of rows in both scrolling directions.
+  private static final int MAX_PAGES = 8;
+
+  record Row(@NonNull BookmarkRows rows, int index) {}
+
+  private final LruCache<Long, BookmarkRows> mPages = new LruCache<>(MAX_PAGES);
+  // Rendered icons by color and icon resource.
+  private final Map<Long, Drawable.ConstantState> mIcons = new HashMap<>();
+
+  @NonNull
+  Row getRow(@NonNull SectionPosition pos, @NonNull BookmarkListAdapter.SectionsDataSource dataSource)
+  {
+    final int section = pos.getSectionIndex();
+    final int page = pos.getItemIndex() / PAGE_SIZE;
+    final long key = ((long) section << 32) | page;
+    BookmarkRows rows = mPages.get(key);
+    if (rows == null)
+    {
+      final int from = page * PAGE_SIZE;
+      final int count = Math.min(PAGE_SIZE, dataSource.getItemsCount(section) - from);
+      rows = BookmarkManager.INSTANCE.getBookmarkRows(dataSource.getBookmarkIds(section, from, count));
+      mPages.put(key, rows);
+    }
+    return new Row(rows, pos.getItemIndex() - page * PAGE_SIZE);
+  }
+
+  @NonNull
+  Drawable getIcon(@NonNull Context context, @NonNull Icon icon)
+  {
+    final long key = ((long) icon.getColor() << 32) | icon.getResId();
+    final Drawable.ConstantState state = mIcons.get(key);
+    if (state != null)
+      return state.newDrawable(context.getResources());
+
+    final Drawable drawable = Graphics.drawCircleAndImage(icon.argb(), R.dimen.track_circle_size, icon.getResId(),
+                                                          R.dimen.bookmark_icon_size, context);
+    mIcons.put(key, drawable.getConstantState());
+    return drawable;
+  }
+
+  void invalidate()
+  {
+    mPages.evictAll();
+  }
+}
@@ -0,0 +1,88 @@
+package app.organicmaps.bookmarks;
+
+import android.app.ProgressDialog;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.DialogInterface;
+import android.net.Uri;
+import android.text.format.Formatter;
+import android.widget.Toast;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import app.organicmaps.R;
+import app.organicmaps.sdk.bookmarks.data.BookmarkManager;
+import app.organicmaps.sdk.bookmarks.data.BookmarksImport;
+import java.io.File;
+import java.util.List;
+
+/**
+ * Shows the progress of a bookmarks import and lets the user cancel it.
+ */
+@MainThread
+@SuppressWarnings("deprecation") // https://github.com/organicmaps/organicmaps/issues/3629
+public class BookmarksImportDialog implements BookmarksImport.Listener
+{
+  @NonNull
+  private final Context mContext;
+  @NonNull
+  private final ProgressDialog mDialog;
+  @Nullable
+  private BookmarksImport mImport;
+  private boolean mCancelled;
+
+  /**
+   * Shows the dialog at once, files can be listed while it is shown.
+   */
+  public BookmarksImportDialog(@NonNull Context context)
+  {
+    mContext = context;
+    mDialog = new ProgressDialog(context, R.style.MwmTheme_ProgressDialog);
+    mDialog.setMessage(context.getString(R.string.wait_several_minutes));
+    mDialog.setProgressStyle(ProgressDialog.STYLE_HORIZONTAL);
+    // Until files are listed.
+    mDialog.setIndeterminate(true);
+    mDialog.setCancelable(false);
+    mDialog.setButton(DialogInterface.BUTTON_NEGATIVE, context.getString(R.string.cancel), (dlg, which) -> cancel());
+    mDialog.show();
+  }
+
+  public void start(@NonNull ContentResolver resolver, @NonNull List<Uri> uris, @NonNull File tempDir)
+  {
+    if (mCancelled)
+    {
+      onImportFinished(0, uris.size(), true);
+      return;
+    }
+    mDialog.setIndeterminate(false);
+    mDialog.setMax(uris.size());
+    mImport = BookmarkManager.INSTANCE.importBookmarksFiles(resolver, uris, tempDir, this);
+  }
+
+  private void cancel()
+  {
+    mCancelled = true;
+    if (mImport != null)
+      mImport.cancel();
+  }
+
+  @Override
+  public void onImportProgress(int processedFiles, int totalFiles, long bytesPerSecond)
+  {
+    if (!mDialog.isShowing())
+      return;
+    mDialog.setProgress(processedFiles);
+    mDialog.setMessage(mContext.getString(R.string.wait_several_minutes) + "\n"
+                       + Formatter.formatShortFileSize(mContext, bytesPerSecond) + "/s");
+  }
+
+  @Override
+  public void onImportFinished(int importedFiles, int totalFiles, boolean cancelled)
+  {
+    if (mDialog.isShowing())
+      mDialog.dismiss();
+    final String message =
+        mContext.getResources().getQuantityString(R.plurals.bookmarks_detect_message, importedFiles, importedFiles);
+    Toast.makeText(mContext, message, Toast.LENGTH_LONG).show();
+  }
+}
@@ -14,8 +14,8 @@ import app.organicmaps.MwmApplication;
 import app.organicmaps.R;
 import app.organicmaps.adapter.OnItemClickListener;
 import app.organicmaps.sdk.bookmarks.data.BookmarkCategory;
-import app.organicmaps.sdk.bookmarks.data.BookmarkInfo;
 import app.organicmaps.sdk.bookmarks.data.BookmarkManager;
+import app.organicmaps.sdk.bookmarks.data.BookmarkRows;
 import app.organicmaps.sdk.bookmarks.data.IconClickListener;
 import app.organicmaps.sdk.bookmarks.data.Track;
 import app.organicmaps.sdk.util.UiUtils;
@@ -331,39 +331,40 @@ public class Holders
     private final MaterialTextView mName;
     @NonNull
     private final MaterialTextView mDistance;
+    @NonNull
+    private final BookmarkRowCache mRowCache;
 
-    BookmarkViewHolder(@NonNull View itemView)
+    BookmarkViewHolder(@NonNull View itemView, @NonNull BookmarkRowCache rowCache)
     {
       super(itemView);
       mIcon = itemView.findViewById(R.id.iv__bookmark_color);
       mName = itemView.findViewById(R.id.tv__bookmark_name);
       mDistance = itemView.findViewById(R.id.tv__bookmark_distance);
+      mRowCache = rowCache;
     }
 
     @Override
     void bind(@NonNull SectionPosition position, @NonNull BookmarkListAdapter.SectionsDataSource sectionsDataSource)
     {
-      final long bookmarkId = sectionsDataSource.getBookmarkId(position);
-      BookmarkInfo bookmark = new BookmarkInfo(sectionsDataSource.getCategory().getId(), bookmarkId);
-      mName.setText(bookmark.getName());
+      final BookmarkRowCache.Row row = mRowCache.getRow(position, sectionsDataSource);
+      final BookmarkRows rows = row.rows();
+      final int index = row.index();
+      mName.setText(rows.getName(index));
       final Location loc = MwmApplication.from(mIcon.getContext()).getLocationHelper().getSavedLocation();
 
-      String distanceValue =
-          loc == null
-              ? ""
-              : bookmark.getDistance(loc.getLatitude(), loc.getLongitude(), 0.0).toString(mDistance.getContext());
+      String distanceValue = loc == null || !rows.exists(index)
+                               ? ""
+                               : rows.getDistance(index, loc.getLatitude(), loc.getLongitude())
+                                     .toString(mDistance.getContext());
+      final String featureType = rows.getFeatureType(index);
       String separator = "";
-      if (!distanceValue.isEmpty() && !bookmark.getFeatureType().isEmpty())
+      if (!distanceValue.isEmpty() && !featureType.isEmpty())
         separator = " • ";
-      String subtitleValue = distanceValue.concat(separator).concat(bookmark.getFeatureType());
+      String subtitleValue = distanceValue.concat(separator).concat(featureType);
       mDistance.setText(subtitleValue);
       UiUtils.hideIf(TextUtils.isEmpty(subtitleValue), mDistance);
 
-      mIcon.setImageResource(bookmark.getIcon().getResId());
-      Drawable circle =
-          Graphics.drawCircleAndImage(bookmark.getIcon().argb(), R.dimen.track_circle_size,
-                                      bookmark.getIcon().getResId(), R.dimen.bookmark_icon_size, mIcon.getContext());
-      mIcon.setImageDrawable(circle);
+      mIcon.setImageDrawable(mRowCache.getIcon(mIcon.getContext(), rows.getIcon(index)));
     }
   }
 
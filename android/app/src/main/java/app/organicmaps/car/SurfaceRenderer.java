@@ -236,5 +236,6 @@ public class SurfaceRenderer implements DefaultLifecycleObserver, SurfaceCallbac
   public void onRenderingCreated()
   {
     UnitLocale.initializeCurrentUnits();
+    MwmApplication.from(mCarContext).getOrganicMaps().onMapShown();
   }
 }
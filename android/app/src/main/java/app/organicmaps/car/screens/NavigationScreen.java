@@ -28,10 +28,10 @@ import app.organicmaps.car.util.RoutingUtils;
 import app.organicmaps.car.util.ThemeUtils;
 import app.organicmaps.car.util.UiHelpers;
 import app.organicmaps.routing.NavigationService;
+import app.organicmaps.routing.RouteProgressPublisher;
 import app.organicmaps.routing.RoutingController;
 import app.organicmaps.sdk.Framework;
 import app.organicmaps.sdk.location.LocationHelper;
-import app.organicmaps.sdk.location.LocationListener;
 import app.organicmaps.sdk.routing.JunctionInfo;
 import app.organicmaps.sdk.routing.RoutingInfo;
 import app.organicmaps.sdk.sound.TtsPlayer;
@@ -51,7 +51,7 @@ public class NavigationScreen extends BaseMapScreen implements RoutingController
   @NonNull
   private final NavigationManager mNavigationManager;
   @NonNull
-  private final LocationListener mLocationListener = (unused) -> updateTrip();
+  private final RouteProgressPublisher.Listener mRouteProgressListener = this::updateTrip;
 
   @NonNull
   private Trip mTrip = new Trip.Builder().setLoading(true).build();
@@ -89,7 +89,7 @@ public class NavigationScreen extends BaseMapScreen implements RoutingController
   @Override
   public void onStopNavigation()
   {
-    MwmApplication.from(getCarContext()).getLocationHelper().removeListener(mLocationListener);
+    RouteProgressPublisher.INSTANCE.removeListener(mRouteProgressListener);
     mNavigationCancelled = true;
     mRoutingController.cancel();
   }
@@ -135,11 +135,11 @@ public class NavigationScreen extends BaseMapScreen implements RoutingController
     mNavigationManager.setNavigationManagerCallback(this);
     mNavigationManager.navigationStarted();
 
-    MwmApplication.from(getCarContext()).getLocationHelper().addListener(mLocationListener);
+    RouteProgressPublisher.INSTANCE.addListener(mRouteProgressListener);
     if (LocationUtils.checkFineLocationPermission(getCarContext()))
       NavigationService.startForegroundService(getCarContext(),
                                                CarAppService.getCarNotificationExtender(getCarContext()));
-    updateTrip();
+    updateTrip(RouteProgressPublisher.INSTANCE.getLast());
   }
 
   @Override
@@ -153,7 +153,7 @@ public class NavigationScreen extends BaseMapScreen implements RoutingController
   public void onDestroy(@NonNull LifecycleOwner owner)
   {
     NavigationService.stopService(getCarContext());
-    MwmApplication.from(getCarContext()).getLocationHelper().removeListener(mLocationListener);
+    RouteProgressPublisher.INSTANCE.removeListener(mRouteProgressListener);
 
     if (mRoutingController.isNavigating())
       mRoutingController.onSaveState();
@@ -242,9 +242,8 @@ public class NavigationScreen extends BaseMapScreen implements RoutingController
     return ttsActionBuilder.build();
   }
 
-  private void updateTrip()
+  private void updateTrip(@Nullable RoutingInfo info)
   {
-    final RoutingInfo info = Framework.nativeGetRouteFollowingInfo();
     mTrip = RoutingUtils.createTrip(getCarContext(), info, RoutingController.get().getEndPoint());
     mNavigationManager.updateTrip(mTrip);
     invalidate();
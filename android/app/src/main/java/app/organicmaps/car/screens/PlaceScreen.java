@@ -35,6 +35,7 @@ import app.organicmaps.car.util.OnBackPressedCallback;
 import app.organicmaps.car.util.RoutingHelpers;
 import app.organicmaps.car.util.UiHelpers;
 import app.organicmaps.routing.ResultCodesHelper;
+import app.organicmaps.routing.RouteProgressPublisher;
 import app.organicmaps.routing.RoutingController;
 import app.organicmaps.sdk.Framework;
 import app.organicmaps.sdk.Router;
@@ -146,7 +147,7 @@ public class PlaceScreen extends BaseMapScreen implements OnBackPressedCallback.
   private Pane createPane()
   {
     final Pane.Builder builder = new Pane.Builder();
-    final RoutingInfo routingInfo = Framework.nativeGetRouteFollowingInfo();
+    final RoutingInfo routingInfo = RouteProgressPublisher.INSTANCE.getLast();
 
     if (routingInfo == null && !mIsBuildError)
     {
@@ -1,13 +1,14 @@
 package app.organicmaps.car.screens.bookmarks;
 
-import android.graphics.drawable.Drawable;
 import android.location.Location;
+import android.os.Parcel;
 import android.text.SpannableStringBuilder;
 import android.text.Spanned;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.car.app.CarContext;
 import androidx.car.app.constraints.ConstraintManager;
+import androidx.car.app.model.CarColor;
 import androidx.car.app.model.CarIcon;
 import androidx.car.app.model.DistanceSpan;
 import androidx.car.app.model.ForegroundCarColorSpan;
@@ -26,14 +27,21 @@ import app.organicmaps.sdk.bookmarks.data.SortedBlock;
 import app.organicmaps.sdk.util.Distance;
 import app.organicmaps.sdk.util.concurrency.ThreadPool;
 import app.organicmaps.sdk.util.concurrency.UiThread;
-import app.organicmaps.util.Graphics;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
+/**
+ * Loads bookmarks of a category page by page.
+ * <p>
+ * A page is limited by the host list size and by the size of the parcel sent to the host, which must not exceed
+ * the binder transaction buffer. Rows use shared resource icons, which are serialized as a resource id and a tint,
+ * so the parcel size mostly depends on the texts and is measured while the page is built.
+ */
 class BookmarksLoader implements BookmarkManager.BookmarksSortingListener
 {
   public interface OnBookmarksLoaded
@@ -41,12 +49,15 @@ class BookmarksLoader implements BookmarkManager.BookmarksSortingListener
     void onBookmarksLoaded(@NonNull ItemList bookmarks);
   }
 
-  // The maximum size should be equal to ConstraintManager.CONTENT_LIMIT_TYPE_LIST.
-  // However, having more than 50 items results in android.os.TransactionTooLargeException.
-  // This exception occurs because the data parcel size is too large to be transferred between services.
-  // The primary cause of this issue is the icons. Even though we have the maximum Icon.TYPE_ICONS.length icons,
-  // each row contains a unique icon, resulting in serialization of each icon.
-  private static final int MAX_BOOKMARKS_SIZE = 50;
+  // The binder transaction buffer is 1 MB and is shared by all transactions of the process.
+  private static final int MAX_PARCEL_SIZE = 256 * 1024;
+  // Class names, the click listener binder and the icon of a row.
+  private static final int ROW_PARCEL_OVERHEAD = 1024;
+  // Rows to go to the previous and to the next page.
+  private static final int NAVIGATION_ROWS = 2;
+
+  // Icons don't depend on a category, so they are shared by all lists.
+  private static final Map<Icon, CarIcon> sIcons = new ConcurrentHashMap<>();
 
   @Nullable
   private Future<?> mBookmarkLoaderTask = null;
@@ -58,32 +69,42 @@ class BookmarksLoader implements BookmarkManager.BookmarksSortingListener
   private final OnBookmarksLoaded mOnBookmarksLoaded;
 
   private final long mBookmarkCategoryId;
-  private final int mBookmarksListSize;
+  private final int mMaxPageSize;
+
+  // Sorted bookmarks, null if the category order is used.
+  @Nullable
+  private List<Long> mSortedBookmarkIds = null;
+  private int mBookmarksCount;
+  // Starts of the pages before the current one.
+  private final Deque<Integer> mPreviousPages = new ArrayDeque<>();
+  private int mPageStart = 0;
 
   public BookmarksLoader(@NonNull CarContext carContext, @NonNull BookmarkCategory bookmarkCategory,
                          @NonNull OnBookmarksLoaded onBookmarksLoaded)
   {
     final ConstraintManager constraintManager = carContext.getCarService(ConstraintManager.class);
-    final int maxCategoriesSize = constraintManager.getContentLimit(ConstraintManager.CONTENT_LIMIT_TYPE_LIST);
+    final int maxListSize = constraintManager.getContentLimit(ConstraintManager.CONTENT_LIMIT_TYPE_LIST);
 
     mCarContext = carContext;
     mOnBookmarksLoaded = onBookmarksLoaded;
     mBookmarkCategoryId = bookmarkCategory.getId();
-    mBookmarksListSize =
-        Math.min(bookmarkCategory.getBookmarksCount(), Math.min(maxCategoriesSize, MAX_BOOKMARKS_SIZE));
+    mBookmarksCount = bookmarkCategory.getBookmarksCount();
+    mMaxPageSize = Math.max(1, maxListSize - NAVIGATION_ROWS);
   }
 
+  /**
+   * Loads the first page.
+   */
   public void load()
   {
     UiThread.runLater(() -> {
+      mPreviousPages.clear();
+      mSortedBookmarkIds = null;
       BookmarkManager.INSTANCE.addSortingListener(this);
       if (sortBookmarks())
         return;
 
-      final List<Long> bookmarkIds = new ArrayList<>();
-      for (int i = 0; i < mBookmarksListSize; ++i)
-        bookmarkIds.add(BookmarkManager.INSTANCE.getBookmarkIdByPosition(mBookmarkCategoryId, i));
-      loadBookmarks(bookmarkIds);
+      loadPage(0);
     });
   }
 
@@ -124,17 +145,39 @@ class BookmarksLoader implements BookmarkManager.BookmarksSortingListener
     return true;
   }
 
-  private void loadBookmarks(@NonNull List<Long> bookmarksIds)
+  private void loadNextPage(int nextPageStart)
+  {
+    mPreviousPages.push(mPageStart);
+    loadPage(nextPageStart);
+  }
+
+  private void loadPreviousPage()
   {
-    final BookmarkInfo[] bookmarks = new BookmarkInfo[mBookmarksListSize];
-    for (int i = 0; i < mBookmarksListSize && i < bookmarksIds.size(); ++i)
+    if (!mPreviousPages.isEmpty())
+      loadPage(mPreviousPages.pop());
+  }
+
+  private void loadPage(int start)
+  {
+    cancel();
+    mPageStart = start;
+
+    // The core bookmarks are accessible from the UI thread only, so only the bookmarks which can fit
+    // into the page are fetched here. Rows are built on the worker thread.
+    final int end = Math.min(start + mMaxPageSize, mBookmarksCount);
+    final List<BookmarkInfo> bookmarks = new ArrayList<>(Math.max(0, end - start));
+    for (int i = start; i < end; ++i)
     {
-      final long id = bookmarksIds.get(i);
-      bookmarks[i] = new BookmarkInfo(mBookmarkCategoryId, id);
+      final long id = mSortedBookmarkIds != null
+                        ? mSortedBookmarkIds.get(i)
+                        : BookmarkManager.INSTANCE.getBookmarkIdByPosition(mBookmarkCategoryId, i);
+      bookmarks.add(new BookmarkInfo(mBookmarkCategoryId, id));
     }
+    final Location location = MwmApplication.from(mCarContext).getLocationHelper().getSavedLocation();
+    final boolean hasPreviousPage = !mPreviousPages.isEmpty();
 
     mBookmarkLoaderTask = ThreadPool.getWorker().submit(() -> {
-      final ItemList bookmarksList = createBookmarksList(bookmarks);
+      final ItemList bookmarksList = createBookmarksList(bookmarks, start, location, hasPreviousPage);
       UiThread.run(() -> {
         cancel();
         mOnBookmarksLoaded.onBookmarksLoaded(bookmarksList);
@@ -143,36 +186,67 @@ class BookmarksLoader implements BookmarkManager.BookmarksSortingListener
   }
 
   @NonNull
-  private ItemList createBookmarksList(@NonNull BookmarkInfo[] bookmarks)
+  private ItemList createBookmarksList(@NonNull List<BookmarkInfo> bookmarks, int start, @Nullable Location location,
+                                       boolean hasPreviousPage)
   {
-    final Location location = MwmApplication.from(mCarContext).getLocationHelper().getSavedLocation();
     final ItemList.Builder builder = new ItemList.Builder();
-    final Map<Icon, CarIcon> iconsCache = new HashMap<>();
-    for (final BookmarkInfo bookmarkInfo : bookmarks)
+    if (hasPreviousPage)
+      builder.addItem(createNavigationRow(R.string.back, this::loadPreviousPage));
+
+    int count = 0;
+    final Parcel parcel = Parcel.obtain();
+    try
     {
-      final Row.Builder itemBuilder = new Row.Builder();
-      itemBuilder.setTitle(bookmarkInfo.getName());
-      if (!bookmarkInfo.getAddress().isEmpty())
-        itemBuilder.addText(bookmarkInfo.getAddress());
-      final CharSequence description = getDescription(bookmarkInfo, location);
-      if (description.length() != 0)
-        itemBuilder.addText(description);
-      final Icon icon = bookmarkInfo.getIcon();
-      if (!iconsCache.containsKey(icon))
+      for (final BookmarkInfo bookmarkInfo : bookmarks)
       {
-        final Drawable drawable = Graphics.drawCircleAndImage(icon.argb(), R.dimen.track_circle_size, icon.getResId(),
-                                                              R.dimen.bookmark_icon_size, mCarContext);
-        final CarIcon carIcon =
-            new CarIcon.Builder(IconCompat.createWithBitmap(Graphics.drawableToBitmap(drawable))).build();
-        iconsCache.put(icon, carIcon);
+        final CharSequence description = getDescription(bookmarkInfo, location);
+        parcel.writeString(bookmarkInfo.getName());
+        parcel.writeString(bookmarkInfo.getAddress());
+        parcel.writeString(description.toString());
+        if (count > 0 && parcel.dataSize() + (count + 1) * ROW_PARCEL_OVERHEAD > MAX_PARCEL_SIZE)
+          break;
+
+        final Row.Builder itemBuilder = new Row.Builder();
+        itemBuilder.setTitle(bookmarkInfo.getName());
+        if (!bookmarkInfo.getAddress().isEmpty())
+          itemBuilder.addText(bookmarkInfo.getAddress());
+        if (description.length() != 0)
+          itemBuilder.addText(description);
+        itemBuilder.setImage(getIcon(bookmarkInfo.getIcon()));
+        itemBuilder.setOnClickListener(() -> BookmarkManager.INSTANCE.showBookmarkOnMap(bookmarkInfo.getBookmarkId()));
+        builder.addItem(itemBuilder.build());
+        ++count;
       }
-      itemBuilder.setImage(Objects.requireNonNull(iconsCache.get(icon)));
-      itemBuilder.setOnClickListener(() -> BookmarkManager.INSTANCE.showBookmarkOnMap(bookmarkInfo.getBookmarkId()));
-      builder.addItem(itemBuilder.build());
     }
+    finally
+    {
+      parcel.recycle();
+    }
+
+    final int nextPageStart = start + count;
+    if (nextPageStart < mBookmarksCount)
+      builder.addItem(createNavigationRow(R.string.next_button, () -> loadNextPage(nextPageStart)));
+    return builder.build();
+  }
+
+  @NonNull
+  private Row createNavigationRow(int titleRes, @NonNull Runnable onClick)
+  {
+    final Row.Builder builder = new Row.Builder();
+    builder.setTitle(mCarContext.getString(titleRes));
+    builder.setOnClickListener(onClick::run);
     return builder.build();
   }
 
+  @NonNull
+  private CarIcon getIcon(@NonNull Icon icon)
+  {
+    return sIcons.computeIfAbsent(icon, key -> {
+      final CarColor tint = CarColor.createCustom(key.argb(), key.argb());
+      return new CarIcon.Builder(IconCompat.createWithResource(mCarContext, key.getResId())).setTint(tint).build();
+    });
+  }
+
   @NonNull
   private static CharSequence getDescription(@NonNull BookmarkInfo bookmark, @Nullable Location location)
   {
@@ -202,6 +276,8 @@ class BookmarksLoader implements BookmarkManager.BookmarksSortingListener
     final List<Long> bookmarkIds = new ArrayList<>();
     for (final SortedBlock block : sortedBlocks)
       bookmarkIds.addAll(block.getBookmarkIds());
-    loadBookmarks(bookmarkIds);
+    mSortedBookmarkIds = bookmarkIds;
+    mBookmarksCount = bookmarkIds.size();
+    loadPage(0);
   }
 }
@@ -85,14 +85,14 @@ public class SearchOnMapScreen extends BaseMapScreen implements SearchListener
     builder.setNoItemsMessage(getCarContext().getString(R.string.search_not_found));
     final int resultsSize = Math.min(results.length, MAX_RESULTS_SIZE);
     for (int i = 0; i < resultsSize; i++)
-      builder.addItem(createResultItem(results[i], i));
+      builder.addItem(createResultItem(results[i], i, timestamp));
     mResults = builder.build();
 
     invalidate();
   }
 
   @NonNull
-  private Row createResultItem(@NonNull SearchResult result, int resultIndex)
+  private Row createResultItem(@NonNull SearchResult result, int resultIndex, long timestamp)
   {
     final Row.Builder builder = new Row.Builder();
     if (result.type == SearchResult.TYPE_RESULT)
@@ -116,7 +116,7 @@ public class SearchOnMapScreen extends BaseMapScreen implements SearchListener
         if (Config.isSearchHistoryEnabled())
           SearchRecents.add(title, getCarContext());
         SearchEngine.INSTANCE.cancel();
-        SearchEngine.INSTANCE.showResult(resultIndex);
+        SearchEngine.INSTANCE.showResult(resultIndex, timestamp);
       });
     }
     else
@@ -9,6 +9,7 @@ import androidx.annotation.NonNull;
 import androidx.core.content.IntentCompat;
 import app.organicmaps.MwmActivity;
 import app.organicmaps.MwmApplication;
+import app.organicmaps.bookmarks.BookmarksImportDialog;
 import app.organicmaps.editor.OsmLoginActivity;
 import app.organicmaps.routing.RoutingController;
 import app.organicmaps.sdk.Framework;
@@ -22,7 +23,6 @@ import app.organicmaps.sdk.bookmarks.data.FeatureId;
 import app.organicmaps.sdk.bookmarks.data.MapObject;
 import app.organicmaps.sdk.search.SearchEngine;
 import app.organicmaps.sdk.util.StorageUtils;
-import app.organicmaps.sdk.util.concurrency.ThreadPool;
 import app.organicmaps.search.SearchActivity;
 import java.io.File;
 import java.util.Collections;
@@ -60,7 +60,11 @@ public class Factory
       MwmApplication app = MwmApplication.from(activity);
       final File tempDir = new File(StorageUtils.getTempPath(app));
       final ContentResolver resolver = activity.getContentResolver();
-      ThreadPool.getStorage().execute(() -> BookmarkManager.INSTANCE.importBookmarksFiles(resolver, uris, tempDir));
+      // A single file is reported by the core when it is loaded.
+      if (uris.size() > 1)
+        new BookmarksImportDialog(activity).start(resolver, uris, tempDir);
+      else
+        BookmarkManager.INSTANCE.importBookmarksFiles(resolver, uris, tempDir, null);
       return false;
     }
   }
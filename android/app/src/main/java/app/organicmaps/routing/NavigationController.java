@@ -15,7 +15,6 @@ import androidx.lifecycle.ViewModelProvider;
 import app.organicmaps.MwmApplication;
 import app.organicmaps.R;
 import app.organicmaps.maplayer.MapButtonsViewModel;
-import app.organicmaps.sdk.Framework;
 import app.organicmaps.sdk.Router;
 import app.organicmaps.sdk.maplayer.traffic.TrafficManager;
 import app.organicmaps.sdk.routing.CarDirection;
@@ -139,7 +138,7 @@ public class NavigationController implements TrafficManager.TrafficCallback, Nav
     if (!RoutingController.get().isNavigating())
       return;
 
-    update(Framework.nativeGetRouteFollowingInfo());
+    update(RouteProgressPublisher.INSTANCE.getLast());
   }
 
   public void update(@Nullable RoutingInfo info)
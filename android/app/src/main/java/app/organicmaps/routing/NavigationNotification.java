@@ -0,0 +1,134 @@
+package app.organicmaps.routing;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.LruCache;
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.content.res.AppCompatResources;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import app.organicmaps.sdk.routing.CarDirection;
+import app.organicmaps.sdk.routing.RoutingInfo;
+import app.organicmaps.util.Graphics;
+import java.util.Objects;
+
+/**
+ * Updates the navigation notification only when its visible content changes.
+ * <p>
+ * The distance is shown already rounded, so most location updates change nothing on the screen.
+ * Changes of the distance or the street are posted at most once per second, which is as often as
+ * the shade can usefully redraw, a new turn is posted immediately. Turn icons are rendered once.
+ */
+class NavigationNotification
+{
+  private static final long MIN_UPDATE_INTERVAL_MS = 1000;
+  // Turns of a few consecutive maneuvers, in both tints.
+  private static final int MAX_CACHED_ICONS = 8;
+
+  @NonNull
+  private final Context mContext;
+  private final int mNotificationId;
+  private final boolean mColorized;
+  @ColorInt
+  private final int mTint;
+  private final Handler mHandler = new Handler(Looper.getMainLooper());
+  // Keyed by the turn and the tint.
+  private final LruCache<Long, Bitmap> mTurnIcons = new LruCache<>(MAX_CACHED_ICONS);
+  private final Runnable mPendingUpdate = this::post;
+
+  @Nullable
+  private NotificationCompat.Builder mBuilder;
+  @Nullable
+  private String mTitle;
+  @Nullable
+  private String mText;
+  @Nullable
+  private CarDirection mDirection;
+  private long mLastPostTime;
+
+  /**
+   * @param colorized whether the notification background is colorized, turn icons are tinted otherwise.
+   */
+  NavigationNotification(@NonNull Context context, int notificationId, boolean colorized, @ColorInt int tint)
+  {
+    mContext = context;
+    mNotificationId = notificationId;
+    mColorized = colorized;
+    mTint = tint;
+  }
+
+  void update(@NonNull NotificationCompat.Builder builder, @NonNull RoutingInfo info)
+  {
+    final String title = info.distToTurn.toString(mContext);
+    final String text = info.nextStreet;
+    final CarDirection direction = info.carDirection;
+    if (title.equals(mTitle) && Objects.equals(text, mText) && direction == mDirection)
+      return;
+
+    final boolean isNewTurn = direction != mDirection;
+    mBuilder = builder;
+    mTitle = title;
+    mText = text;
+    mDirection = direction;
+
+    mHandler.removeCallbacks(mPendingUpdate);
+    final long sinceLastPost = SystemClock.elapsedRealtime() - mLastPostTime;
+    if (isNewTurn || sinceLastPost >= MIN_UPDATE_INTERVAL_MS)
+      post();
+    else
+      mHandler.postDelayed(mPendingUpdate, MIN_UPDATE_INTERVAL_MS - sinceLastPost);
+  }
+
+  /**
+   * Drops the pending update and cached icons.
+   */
+  void release()
+  {
+    mHandler.removeCallbacks(mPendingUpdate);
+    mTurnIcons.evictAll();
+    mBuilder = null;
+  }
+
+  // Callers check POST_NOTIFICATIONS permission.
+  @SuppressLint("MissingPermission")
+  private void post()
+  {
+    if (mBuilder == null || mDirection == null)
+      return;
+
+    mBuilder.setContentTitle(mTitle).setContentText(mText);
+    final Bitmap icon = getTurnIcon(mDirection);
+    if (icon != null)
+      mBuilder.setLargeIcon(icon);
+
+    // The notification object must be re-created for every update.
+    NotificationManagerCompat.from(mContext).notify(mNotificationId, mBuilder.build());
+    mLastPostTime = SystemClock.elapsedRealtime();
+  }
+
+  @Nullable
+  private Bitmap getTurnIcon(@NonNull CarDirection direction)
+  {
+    final int tint = mColorized ? 0 : mTint;
+    final long key = ((long) direction.ordinal() << 32) | (tint & 0xFFFFFFFFL);
+    Bitmap bitmap = mTurnIcons.get(key);
+    if (bitmap != null)
+      return bitmap;
+
+    final Drawable drawable = AppCompatResources.getDrawable(mContext, direction.getTurnRes());
+    if (drawable == null)
+      return null;
+    // The tint is applied to a mutated copy, shared drawables of the turn are not affected.
+    bitmap = mColorized ? Graphics.drawableToBitmap(drawable)
+                        : Graphics.drawableToBitmapWithTint(drawable.mutate(), tint);
+    mTurnIcons.put(key, bitmap);
+    return bitmap;
+  }
+}
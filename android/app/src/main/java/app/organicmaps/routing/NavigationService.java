@@ -1,6 +1,5 @@
 package app.organicmaps.routing;
 
-import static android.Manifest.permission.ACCESS_COARSE_LOCATION;
 import static android.Manifest.permission.ACCESS_FINE_LOCATION;
 import static android.Manifest.permission.POST_NOTIFICATIONS;
 import static android.content.pm.PackageManager.PERMISSION_GRANTED;
@@ -14,15 +13,11 @@ import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.ServiceInfo;
-import android.graphics.Bitmap;
-import android.graphics.drawable.Drawable;
-import android.location.Location;
 import android.os.Build;
 import android.os.IBinder;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresPermission;
-import androidx.appcompat.content.res.AppCompatResources;
 import androidx.core.app.ActivityCompat;
 import androidx.core.app.NotificationChannelCompat;
 import androidx.core.app.NotificationCompat;
@@ -34,16 +29,14 @@ import app.organicmaps.MwmApplication;
 import app.organicmaps.R;
 import app.organicmaps.sdk.Framework;
 import app.organicmaps.sdk.location.LocationHelper;
-import app.organicmaps.sdk.location.LocationListener;
 import app.organicmaps.sdk.routing.RoutingInfo;
-import app.organicmaps.sdk.sound.MediaPlayerWrapper;
+import app.organicmaps.sdk.sound.SoundEffectPlayer;
 import app.organicmaps.sdk.sound.TtsPlayer;
 import app.organicmaps.sdk.util.Config;
 import app.organicmaps.sdk.util.LocationUtils;
 import app.organicmaps.sdk.util.log.Logger;
-import app.organicmaps.util.Graphics;
 
-public class NavigationService extends Service implements LocationListener
+public class NavigationService extends Service implements RouteProgressPublisher.Listener
 {
   private static final String TAG = NavigationService.class.getSimpleName();
   private static final String STOP_NAVIGATION = "STOP_NAVIGATION";
@@ -53,7 +46,11 @@ public class NavigationService extends Service implements LocationListener
 
   @SuppressWarnings("NotNullFieldNotInitialized")
   @NonNull
-  private MediaPlayerWrapper mPlayer;
+  private SoundEffectPlayer mPlayer;
+
+  @SuppressWarnings("NotNullFieldNotInitialized")
+  @NonNull
+  private NavigationNotification mNotification;
 
   // Destroyed in onDestroy()
   @SuppressLint("StaticFieldLeak")
@@ -168,7 +165,10 @@ public class NavigationService extends Service implements LocationListener
   {
     Logger.i(TAG);
 
-    mPlayer = new MediaPlayerWrapper(getApplicationContext());
+    // Cues are decoded in advance to be played without a delay.
+    mPlayer = new SoundEffectPlayer(getApplicationContext(), R.raw.speed_cams_beep);
+    mNotification = new NavigationNotification(this, NOTIFICATION_ID, isColorizedSupported(),
+                                               ContextCompat.getColor(this, R.color.base_accent));
   }
 
   @Override
@@ -178,7 +178,8 @@ public class NavigationService extends Service implements LocationListener
 
     mNotificationBuilder = null;
     mCarNotificationExtender = null;
-    MwmApplication.from(this).getLocationHelper().removeListener(this);
+    RouteProgressPublisher.INSTANCE.removeListener(this);
+    mNotification.release();
     TtsPlayer.INSTANCE.stop();
 
     // The notification is cancelled automatically by the system.
@@ -248,8 +249,8 @@ public class NavigationService extends Service implements LocationListener
 
     final LocationHelper locationHelper = MwmApplication.from(this).getLocationHelper();
 
-    // Subscribe to location updates. This call is idempotent.
-    locationHelper.addListener(this);
+    // Subscribe to route progress updates. This call is idempotent.
+    RouteProgressPublisher.INSTANCE.addListener(this);
 
     // Restart the location with more frequent refresh interval for navigation.
     locationHelper.restartWithNewMode();
@@ -265,62 +266,46 @@ public class NavigationService extends Service implements LocationListener
     return null;
   }
 
-  @Override
-  @RequiresPermission(anyOf = {ACCESS_COARSE_LOCATION, ACCESS_FINE_LOCATION})
-  public void onLocationUpdated(@NonNull Location location)
+  private static void playTurnNotifications()
   {
-    // Ignore any pending notifications when service is being stopping.
-    final RoutingController routingController = RoutingController.get();
-    if (!routingController.isNavigating())
-      return;
-
-    // Voice the turn notification first.
     final String[] turnNotifications = Framework.nativeGenerateNotifications(Config.TTS.getAnnounceStreets());
     if (turnNotifications != null)
       TtsPlayer.INSTANCE.playTurnNotifications(turnNotifications);
+  }
 
-    // TODO: consider to create callback mechanism to transfer 'ROUTE_IS_FINISHED' event from
-    // the core to the platform code (https://github.com/organicmaps/organicmaps/issues/3589),
-    // because calling the native method 'nativeIsRouteFinished'
-    // too often can result in poor UI performance.
-    // This check should be done after playTurnNotifications() to play the last turn notification.
-    if (Framework.nativeIsRouteFinished())
-    {
-      routingController.cancel();
-      MwmApplication.from(this).getLocationHelper().restartWithNewMode();
-      stopSelf();
+  @Override
+  public void onRouteFinished()
+  {
+    // Ignore any pending notifications when service is being stopping.
+    final RoutingController routingController = RoutingController.get();
+    if (!routingController.isNavigating())
       return;
-    }
 
-    final RoutingInfo routingInfo = Framework.nativeGetRouteFollowingInfo();
-    if (routingInfo == null)
-      return;
+    // Play the last turn notification before the route is closed.
+    playTurnNotifications();
+    routingController.cancel();
+    MwmApplication.from(this).getLocationHelper().restartWithNewMode();
+    stopSelf();
+  }
 
+  @Override
+  public void onRouteProgress(@NonNull RoutingInfo routingInfo)
+  {
+    // The warning is time critical, the turn notification is voiced after it.
     if (routingInfo.shouldPlayWarningSignal())
-      mPlayer.playback(R.raw.speed_cams_beep);
+      mPlayer.play(R.raw.speed_cams_beep);
+
+    playTurnNotifications();
 
     // Don't spend time on updating RemoteView if notifications are not allowed.
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
         && ActivityCompat.checkSelfPermission(this, POST_NOTIFICATIONS) != PERMISSION_GRANTED)
       return;
 
-    final NotificationCompat.Builder notificationBuilder = getNotificationBuilder(this)
-                                                               .setContentTitle(routingInfo.distToTurn.toString(this))
-                                                               .setContentText(routingInfo.nextStreet);
-
-    final Drawable drawable = AppCompatResources.getDrawable(this, routingInfo.carDirection.getTurnRes());
-    if (drawable != null)
-    {
-      final Bitmap bitmap = isColorizedSupported() ? Graphics.drawableToBitmap(drawable)
-                                                   : Graphics.drawableToBitmapWithTint(
-                                                         drawable, ContextCompat.getColor(this, R.color.base_accent));
-      notificationBuilder.setLargeIcon(bitmap);
-    }
-
+    final NotificationCompat.Builder notificationBuilder = getNotificationBuilder(this);
     if (mCarNotificationExtender != null)
       notificationBuilder.extend(mCarNotificationExtender);
 
-    // The notification object must be re-created for every update.
-    NotificationManagerCompat.from(this).notify(NOTIFICATION_ID, notificationBuilder.build());
+    mNotification.update(notificationBuilder, routingInfo);
   }
 }
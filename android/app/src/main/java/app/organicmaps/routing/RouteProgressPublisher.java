@@ -0,0 +1,116 @@
+package app.organicmaps.routing;
+
+import androidx.annotation.Keep;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import app.organicmaps.sdk.Framework;
+import app.organicmaps.sdk.routing.RouteFinishedListener;
+import app.organicmaps.sdk.routing.RoutingInfo;
+import org.chromium.base.ObserverList;
+
+/**
+ * Fetches route following info once per location update during navigation and shares it with all subscribers.
+ * {@link RoutingInfo} is immutable, so the same snapshot is safe to keep and pass around.
+ * The route finished event is pushed by the core instead of polling it on every location update.
+ */
+@MainThread
+public enum RouteProgressPublisher implements RouteFinishedListener
+{
+  INSTANCE;
+
+  public interface Listener
+  {
+    /**
+     * Called after the core has processed a location update.
+     */
+    void onRouteProgress(@NonNull RoutingInfo info);
+
+    /**
+     * Called once the destination is reached.
+     */
+    default void onRouteFinished() {}
+  }
+
+  private final ObserverList<Listener> mListeners = new ObserverList<>();
+  private final ObserverList.RewindableIterator<Listener> mListenersIterator = mListeners.rewindableIterator();
+
+  @Nullable
+  private RoutingInfo mLast;
+  private boolean mHasLast;
+
+  public void initialize()
+  {
+    Framework.nativeSetRouteFinishedListener(this);
+  }
+
+  /**
+   * The call is idempotent.
+   */
+  public void addListener(@NonNull Listener listener)
+  {
+    mListeners.addObserver(listener);
+  }
+
+  public void removeListener(@NonNull Listener listener)
+  {
+    mListeners.removeObserver(listener);
+  }
+
+  /**
+   * @return the snapshot of the latest location update, or the current one if nothing has been published yet.
+   */
+  @Nullable
+  public RoutingInfo getLast()
+  {
+    return mHasLast ? mLast : refresh();
+  }
+
+  /**
+   * Fetches a new snapshot without notifying subscribers, e.g. when a route is rebuilt.
+   */
+  @Nullable
+  public RoutingInfo refresh()
+  {
+    mLast = Framework.nativeGetRouteFollowingInfo();
+    mHasLast = true;
+    return mLast;
+  }
+
+  /**
+   * Drops the cached snapshot, e.g. when the route is removed.
+   */
+  public void invalidate()
+  {
+    mLast = null;
+    mHasLast = false;
+  }
+
+  /**
+   * Must be called after every location update has been passed to the core.
+   */
+  public void publish()
+  {
+    if (mListeners.isEmpty() || !RoutingController.get().isNavigating())
+      return;
+
+    final RoutingInfo info = refresh();
+    if (info == null)
+      return;
+
+    mListenersIterator.rewind();
+    while (mListenersIterator.hasNext())
+      mListenersIterator.next().onRouteProgress(info);
+  }
+
+  // Called from JNI.
+  @Keep
+  @SuppressWarnings("unused")
+  @Override
+  public void onRouteFinished()
+  {
+    mListenersIterator.rewind();
+    while (mListenersIterator.hasNext())
+      mListenersIterator.next().onRouteFinished();
+  }
+}
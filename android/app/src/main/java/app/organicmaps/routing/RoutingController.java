@@ -131,7 +131,7 @@ public class RoutingController
 
   private void onBuiltRoute()
   {
-    mCachedRoutingInfo = Framework.nativeGetRouteFollowingInfo();
+    mCachedRoutingInfo = RouteProgressPublisher.INSTANCE.refresh();
     if (mLastRouterType == Router.Transit)
       mCachedTransitRouteInfo = Framework.nativeGetTransitRouteInfo();
     setBuildState(BuildState.BUILT);
@@ -258,6 +258,7 @@ public class RoutingController
 
     Framework.nativeSetRoutingListener(mRoutingListener);
     Framework.nativeSetRouteProgressListener(mRoutingProgressListener);
+    RouteProgressPublisher.INSTANCE.initialize();
     Framework.nativeSetRoutingRecommendationListener(recommendation -> UiThread.run(() -> {
       if (recommendation == RouteRecommendationType.RebuildAfterPointsLoading)
         setStartPoint(MwmApplication.from(context).getLocationHelper().getMyPosition());
@@ -466,6 +467,7 @@ public class RoutingController
     applyRemovingIntermediatePointsTransaction();
     Framework.nativeDeleteSavedRoutePoints();
     Framework.nativeCloseRouting();
+    RouteProgressPublisher.INSTANCE.invalidate();
   }
 
   public boolean cancel()
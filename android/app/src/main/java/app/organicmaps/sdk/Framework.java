@@ -12,6 +12,7 @@ import app.organicmaps.sdk.bookmarks.data.DistanceAndAzimut;
 import app.organicmaps.sdk.bookmarks.data.FeatureId;
 import app.organicmaps.sdk.bookmarks.data.MapObject;
 import app.organicmaps.sdk.routing.JunctionInfo;
+import app.organicmaps.sdk.routing.RouteFinishedListener;
 import app.organicmaps.sdk.routing.RouteMarkData;
 import app.organicmaps.sdk.routing.RouteMarkType;
 import app.organicmaps.sdk.routing.RoutingInfo;
@@ -221,6 +222,8 @@ public class Framework
 
   public static native void nativeSetRouteProgressListener(@NonNull RoutingProgressListener listener);
 
+  public static native void nativeSetRouteFinishedListener(@NonNull RouteFinishedListener listener);
+
   public static native void nativeSetRoutingRecommendationListener(@NonNull RoutingRecommendationListener listener);
 
   public static native void nativeSetRoutingLoadPointsListener(@NonNull RoutingLoadPointsListener listener);
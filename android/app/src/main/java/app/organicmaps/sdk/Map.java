@@ -2,6 +2,7 @@ package app.organicmaps.sdk;
 
 import android.content.Context;
 import android.graphics.Rect;
+import android.os.SystemClock;
 import android.view.MotionEvent;
 import android.view.Surface;
 import androidx.annotation.Nullable;
@@ -53,6 +54,11 @@ public final class Map
   public static final int INVALID_POINTER_MASK = 0xFF;
   public static final int INVALID_TOUCH_ID = -1;
 
+  // A touch sample is its age in milliseconds and coordinates of two pointers.
+  private static final int TOUCH_SAMPLE_SIZE = 5;
+  // Reused by all touch events, they come on the UI thread only.
+  private static float[] sTouchSamples = new float[TOUCH_SAMPLE_SIZE * 8];
+
   private final DisplayType mDisplayType;
 
   private int mCurrentCompassOffsetX;
@@ -295,23 +301,43 @@ public final class Map
     nativeOnScale(factor, focusX, focusY, isAnim);
   }
 
+  /**
+   * Passes the event with all its historical samples, which Android batches into ACTION_MOVE events,
+   * to the core in one call. The core tracks two pointers at most.
+   */
   public static void onTouch(int actionType, MotionEvent event, int pointerIndex)
   {
-    if (event.getPointerCount() == 1)
-    {
-      nativeOnTouch(actionType, event.getPointerId(0), event.getX(), event.getY(), Map.INVALID_TOUCH_ID, 0, 0, 0);
-    }
-    else
+    final boolean hasSecond = event.getPointerCount() > 1;
+    final int historySize = event.getHistorySize();
+    final int sampleCount = historySize + 1;
+    if (sTouchSamples.length < sampleCount * TOUCH_SAMPLE_SIZE)
+      sTouchSamples = new float[sampleCount * TOUCH_SAMPLE_SIZE];
+
+    final long now = SystemClock.uptimeMillis();
+    int offset = 0;
+    for (int i = 0; i < historySize; ++i)
     {
-      nativeOnTouch(actionType, event.getPointerId(0), event.getX(0), event.getY(0), event.getPointerId(1),
-                    event.getX(1), event.getY(1), pointerIndex);
+      sTouchSamples[offset++] = now - event.getHistoricalEventTime(i);
+      sTouchSamples[offset++] = event.getHistoricalX(0, i);
+      sTouchSamples[offset++] = event.getHistoricalY(0, i);
+      sTouchSamples[offset++] = hasSecond ? event.getHistoricalX(1, i) : 0;
+      sTouchSamples[offset++] = hasSecond ? event.getHistoricalY(1, i) : 0;
     }
+    sTouchSamples[offset++] = now - event.getEventTime();
+    sTouchSamples[offset++] = event.getX(0);
+    sTouchSamples[offset++] = event.getY(0);
+    sTouchSamples[offset++] = hasSecond ? event.getX(1) : 0;
+    sTouchSamples[offset] = hasSecond ? event.getY(1) : 0;
+
+    nativeOnTouch(actionType, event.getPointerId(0), hasSecond ? event.getPointerId(1) : Map.INVALID_TOUCH_ID,
+                  sTouchSamples, sampleCount, hasSecond ? pointerIndex : 0);
   }
 
   public static void onClick(float x, float y)
   {
-    nativeOnTouch(NATIVE_ACTION_DOWN, 0, x, y, Map.INVALID_TOUCH_ID, 0, 0, 0);
-    nativeOnTouch(NATIVE_ACTION_UP, 0, x, y, Map.INVALID_TOUCH_ID, 0, 0, 0);
+    final float[] sample = {0, x, y, 0, 0};
+    nativeOnTouch(NATIVE_ACTION_DOWN, 0, Map.INVALID_TOUCH_ID, sample, 1, 0);
+    nativeOnTouch(NATIVE_ACTION_UP, 0, Map.INVALID_TOUCH_ID, sample, 1, 0);
   }
 
   public static boolean isEngineCreated()
@@ -411,6 +437,6 @@ public final class Map
 
   private static native void nativeOnScale(double factor, double focusX, double focusY, boolean isAnim);
 
-  private static native void nativeOnTouch(int actionType, int id1, float x1, float y1, int id2, float x2, float y2,
+  private static native void nativeOnTouch(int actionType, int id1, int id2, float[] samples, int sampleCount,
                                            int maskedPointer);
 }
@@ -3,6 +3,7 @@ package app.organicmaps.sdk;
 import android.content.Context;
 import android.content.SharedPreferences;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.DefaultLifecycleObserver;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.ProcessLifecycleOwner;
@@ -19,18 +20,23 @@ import app.organicmaps.sdk.maplayer.traffic.TrafficManager;
 import app.organicmaps.sdk.search.SearchEngine;
 import app.organicmaps.sdk.sound.TtsPlayer;
 import app.organicmaps.sdk.util.Config;
+import app.organicmaps.sdk.util.HttpTransport;
 import app.organicmaps.sdk.util.SharedPropertiesUtils;
 import app.organicmaps.sdk.util.StorageUtils;
 import app.organicmaps.sdk.util.ThemeSwitcher;
 import app.organicmaps.sdk.util.UiUtils;
+import app.organicmaps.sdk.util.concurrency.UiThread;
 import app.organicmaps.sdk.util.log.Logger;
 import app.organicmaps.sdk.util.log.LogsManager;
 import app.organicmaps.settings.StoragePathManager;
 import java.io.IOException;
+import java.util.List;
 
 public final class OrganicMaps implements DefaultLifecycleObserver
 {
   private static final String TAG = OrganicMaps.class.getSimpleName();
+  // Deferred stages run anyway if the map isn't shown, e.g. for the navigation started from a car.
+  private static final long DEFERRED_STAGES_TIMEOUT_MS = 5000;
 
   @NonNull
   private final Context mContext;
@@ -51,6 +57,12 @@ public final class OrganicMaps implements DefaultLifecycleObserver
   private volatile boolean mFrameworkInitialized;
   private volatile boolean mPlatformInitialized;
 
+  @NonNull
+  private final StartupGraph mStartup = new StartupGraph();
+  // Found in the background while the UI starts, used once by the platform initialization.
+  @Nullable
+  private volatile String mFoundMapsStorage;
+
   @NonNull
   public LocationHelper getLocationHelper()
   {
@@ -81,20 +93,31 @@ public final class OrganicMaps implements DefaultLifecycleObserver
     mPreferences = mContext.getSharedPreferences(context.getString(app.organicmaps.sdk.R.string.pref_file_name),
                                                  Context.MODE_PRIVATE);
 
-    // Set configuration directory as early as possible.
-    // Other methods may explicitly use Config, which requires settingsDir to be set.
-    final String settingsPath = StorageUtils.getSettingsPath(mContext);
-    if (!StorageUtils.createDirectory(settingsPath))
-      throw new AssertionError("Can't create settingsDir " + settingsPath);
-    Logger.d(TAG, "Settings path = " + settingsPath);
-    nativeSetSettingsDir(settingsPath);
+    HttpTransport.initialize();
 
-    Config.init(mContext, mPreferences);
-    OsmOAuth.init(mPreferences);
-    SharedPropertiesUtils.init(mPreferences);
-    LogsManager.INSTANCE.initFileLogging(mContext, mPreferences);
+    // Independent of the core.
+    mStartup.submit("logs", () -> LogsManager.INSTANCE.initFileLogging(mContext, mPreferences));
+    mStartup.submit("certificates", () -> Android7RootCertificateWorkaround.initializeIfNeeded(mContext));
 
-    Android7RootCertificateWorkaround.initializeIfNeeded(mContext);
+    // Set configuration directory as early as possible.
+    // Other methods may explicitly use Config, which requires settingsDir to be set.
+    mStartup.run("settings_dir", () -> {
+      final String settingsPath = StorageUtils.getSettingsPath(mContext);
+      if (!StorageUtils.createDirectory(settingsPath))
+        throw new AssertionError("Can't create settingsDir " + settingsPath);
+      Logger.d(TAG, "Settings path = " + settingsPath);
+      nativeSetSettingsDir(settingsPath);
+    });
+
+    mStartup.run("config", () -> {
+      Config.init(mContext, mPreferences);
+      OsmOAuth.init(mPreferences);
+      SharedPropertiesUtils.init(mPreferences);
+    }, "settings_dir");
+
+    // Scanning storages takes a while, it is done until the platform is initialized.
+    // Note: StoragePathManager uses Config, which requires SettingsDir to be set.
+    mStartup.submit("maps_storage", () -> mFoundMapsStorage = StoragePathManager.findMapsStorage(mContext), "config");
 
     mSensorHelper = new SensorHelper(mContext);
     mLocationHelper = new LocationHelper(mContext, mSensorHelper);
@@ -102,6 +125,23 @@ public final class OrganicMaps implements DefaultLifecycleObserver
     mSubwayManager = new SubwayManager(mContext);
   }
 
+  /**
+   * @return timings of the startup stages which are done.
+   */
+  @NonNull
+  public List<StartupGraph.Timing> getStartupTimings()
+  {
+    return mStartup.getTimings();
+  }
+
+  /**
+   * Runs the startup stages which are not needed to show the map. Should be called when the map is shown.
+   */
+  public void onMapShown()
+  {
+    mStartup.runDeferred();
+  }
+
   /**
    * Initialize native core of application: platform and framework.
    *
@@ -144,8 +184,12 @@ public final class OrganicMaps implements DefaultLifecycleObserver
 
     final String apkPath = StorageUtils.getApkPath(mContext);
     Logger.d(TAG, "Apk path = " + apkPath);
-    // Note: StoragePathManager uses Config, which requires SettingsDir to be set.
-    final String writablePath = StoragePathManager.findMapsStorage(mContext);
+    mStartup.await("maps_storage");
+    String writablePath = mFoundMapsStorage;
+    mFoundMapsStorage = null;
+    // Storages may have changed if the previous attempt has failed.
+    if (writablePath == null)
+      writablePath = StoragePathManager.findMapsStorage(mContext);
     Logger.d(TAG, "Writable path = " + writablePath);
     final String privatePath = StorageUtils.getPrivatePath(mContext);
     Logger.d(TAG, "Private path = " + privatePath);
@@ -171,19 +215,24 @@ public final class OrganicMaps implements DefaultLifecycleObserver
     if (mFrameworkInitialized)
       return false;
 
-    nativeInitFramework(onComplete);
-
-    initNativeStrings();
-    ThemeSwitcher.INSTANCE.initialize(mContext);
-    SearchEngine.INSTANCE.initialize();
-    BookmarkManager.loadBookmarks();
-    TtsPlayer.INSTANCE.initialize(mContext);
-    ThemeSwitcher.INSTANCE.restart(false);
-    RoutingController.get().initialize(mContext);
-    TrafficManager.INSTANCE.initialize();
-    mSubwayManager.initialize();
-    mIsolinesManager.initialize();
+    // The core may download files right after its creation.
+    mStartup.run("framework", () -> nativeInitFramework(onComplete), "certificates");
+
+    // These stages use the core, which works on the UI thread.
+    mStartup.run("strings", this::initNativeStrings);
+    mStartup.run("theme", () -> ThemeSwitcher.INSTANCE.initialize(mContext));
+    mStartup.run("search", SearchEngine.INSTANCE::initialize);
+    mStartup.run("bookmarks", BookmarkManager::loadBookmarks);
+    // Voices are enumerated by the TTS engine, they aren't needed until the map is shown.
+    mStartup.defer("tts", () -> TtsPlayer.INSTANCE.initialize(mContext));
+    mStartup.run("theme_restart", () -> ThemeSwitcher.INSTANCE.restart(false));
+    mStartup.run("routing", () -> RoutingController.get().initialize(mContext));
+    // Not deferred: traffic UI is attached to the manager at once.
+    mStartup.run("traffic", TrafficManager.INSTANCE::initialize);
+    mStartup.run("subway", mSubwayManager::initialize);
+    mStartup.run("isolines", mIsolinesManager::initialize);
     ProcessLifecycleOwner.get().getLifecycle().addObserver(this);
+    UiThread.runLater(this::onMapShown, DEFERRED_STAGES_TIMEOUT_MS);
 
     Logger.i(TAG, "Framework initialized");
     mFrameworkInitialized = true;
@@ -0,0 +1,248 @@
+package app.organicmaps.sdk;
+
+import android.os.SystemClock;
+import android.os.Trace;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import app.organicmaps.sdk.util.concurrency.Priority;
+import app.organicmaps.sdk.util.concurrency.ThreadPool;
+import app.organicmaps.sdk.util.concurrency.UiThread;
+import app.organicmaps.sdk.util.log.Logger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Startup stages with dependencies between them.
+ * <p>
+ * Stages which touch the core or the UI run on the calling thread in the order of the calls. Independent ones run on
+ * the worker pool as soon as their dependencies are done. Non-critical stages are deferred until the map is shown.
+ * Every stage is a systrace section, and its timing is available via {@link #getTimings()}.
+ */
+@ThreadSafe
+public final class StartupGraph
+{
+  /**
+   * @param startMs the stage start since the graph creation.
+   */
+  public record Timing(@NonNull String stage, @NonNull String thread, long startMs, long durationMs) {}
+
+  private static final String TAG = StartupGraph.class.getSimpleName();
+  private static final String TRACE_PREFIX = "Startup.";
+
+  private static final class Stage
+  {
+    @NonNull
+    final String mName;
+    final CountDownLatch mDone = new CountDownLatch(1);
+    // Background stages waiting for this one.
+    final List<Stage> mDependents = new ArrayList<>();
+    int mPendingDependencies;
+    boolean mRegistered;
+    @Nullable
+    Runnable mTask;
+    @Nullable
+    volatile RuntimeException mError;
+
+    Stage(@NonNull String name)
+    {
+      mName = name;
+    }
+  }
+
+  private final long mStartTime = SystemClock.elapsedRealtime();
+  private final Map<String, Stage> mStages = new HashMap<>();
+  private final Map<String, Runnable> mDeferred = new LinkedHashMap<>();
+  private final List<Timing> mTimings = new ArrayList<>();
+
+  /**
+   * Runs the stage on the calling thread after its dependencies are done.
+   */
+  void run(@NonNull String name, @NonNull Runnable task, @NonNull String... dependencies)
+  {
+    final Stage stage;
+    synchronized (this)
+    {
+      stage = register(name);
+    }
+    for (String dependency : dependencies)
+      await(dependency);
+    execute(stage, task, true);
+  }
+
+  /**
+   * Runs the stage on the worker pool when its dependencies are done.
+   */
+  void submit(@NonNull String name, @NonNull Runnable task, @NonNull String... dependencies)
+  {
+    final Stage stage;
+    synchronized (this)
+    {
+      stage = register(name);
+      for (String dependency : dependencies)
+      {
+        final Stage other = getStage(dependency);
+        if (other.mDone.getCount() > 0)
+        {
+          other.mDependents.add(stage);
+          ++stage.mPendingDependencies;
+        }
+      }
+      if (stage.mPendingDependencies > 0)
+      {
+        stage.mTask = task;
+        return;
+      }
+    }
+    schedule(stage, task);
+  }
+
+  /**
+   * Postpones the stage until {@link #runDeferred()}.
+   */
+  synchronized void defer(@NonNull String name, @NonNull Runnable task)
+  {
+    mDeferred.put(name, task);
+  }
+
+  /**
+   * Runs deferred stages on the UI thread after the pending UI work, e.g. drawing of the first frame.
+   * Does nothing if they have already been run.
+   */
+  void runDeferred()
+  {
+    UiThread.runLater(() -> {
+      final List<Map.Entry<String, Runnable>> stages;
+      synchronized (this)
+      {
+        stages = new ArrayList<>(mDeferred.entrySet());
+        mDeferred.clear();
+      }
+      for (Map.Entry<String, Runnable> stage : stages)
+        run(stage.getKey(), stage.getValue());
+    });
+  }
+
+  /**
+   * Waits for the stage which was run or submitted before.
+   *
+   * @throws RuntimeException the exception which the stage has thrown.
+   */
+  void await(@NonNull String name)
+  {
+    final Stage stage;
+    synchronized (this)
+    {
+      stage = mStages.get(name);
+      if (stage == null || !stage.mRegistered)
+        throw new IllegalStateException("Stage " + name + " is not started");
+    }
+
+    boolean interrupted = false;
+    while (true)
+    {
+      try
+      {
+        stage.mDone.await();
+        break;
+      }
+      catch (InterruptedException e)
+      {
+        interrupted = true;
+      }
+    }
+    if (interrupted)
+      Thread.currentThread().interrupt();
+
+    final RuntimeException error = stage.mError;
+    if (error != null)
+      throw error;
+  }
+
+  @NonNull
+  public synchronized List<Timing> getTimings()
+  {
+    return Collections.unmodifiableList(new ArrayList<>(mTimings));
+  }
+
+  @NonNull
+  private Stage getStage(@NonNull String name)
+  {
+    Stage stage = mStages.get(name);
+    if (stage == null)
+    {
+      stage = new Stage(name);
+      mStages.put(name, stage);
+    }
+    return stage;
+  }
+
+  @NonNull
+  private Stage register(@NonNull String name)
+  {
+    final Stage stage = getStage(name);
+    if (stage.mRegistered)
+      throw new IllegalStateException("Stage " + name + " is already started");
+    stage.mRegistered = true;
+    return stage;
+  }
+
+  private void schedule(@NonNull Stage stage, @NonNull Runnable task)
+  {
+    // Stages are scheduled only when their dependencies are done, so they may run in parallel.
+    ThreadPool.getWorker(Priority.INTERACTIVE).execute(() -> execute(stage, task, false));
+  }
+
+  private void execute(@NonNull Stage stage, @NonNull Runnable task, boolean rethrow)
+  {
+    final long start = SystemClock.elapsedRealtime();
+    Trace.beginSection(TRACE_PREFIX + stage.mName);
+    try
+    {
+      task.run();
+    }
+    catch (RuntimeException e)
+    {
+      stage.mError = e;
+      if (rethrow)
+        throw e;
+      Logger.e(TAG, "Stage " + stage.mName + " failed", e);
+    }
+    finally
+    {
+      Trace.endSection();
+      finish(stage, start);
+    }
+  }
+
+  private void finish(@NonNull Stage stage, long start)
+  {
+    final long end = SystemClock.elapsedRealtime();
+    final Timing timing =
+        new Timing(stage.mName, Thread.currentThread().getName(), start - mStartTime, end - start);
+    Logger.i(TAG, timing.toString());
+
+    final Map<Stage, Runnable> ready = new LinkedHashMap<>();
+    synchronized (this)
+    {
+      mTimings.add(timing);
+      stage.mDone.countDown();
+      for (Stage dependent : stage.mDependents)
+      {
+        if (--dependent.mPendingDependencies == 0 && dependent.mTask != null)
+        {
+          ready.put(dependent, dependent.mTask);
+          dependent.mTask = null;
+        }
+      }
+      stage.mDependents.clear();
+    }
+    for (Map.Entry<Stage, Runnable> dependent : ready.entrySet())
+      schedule(dependent.getKey(), dependent.getValue());
+  }
+}
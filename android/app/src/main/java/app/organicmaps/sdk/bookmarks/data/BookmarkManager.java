@@ -13,7 +13,6 @@ import androidx.annotation.Nullable;
 import androidx.annotation.WorkerThread;
 import app.organicmaps.sdk.Framework;
 import app.organicmaps.sdk.util.KeyValue;
-import app.organicmaps.sdk.util.StorageUtils;
 import app.organicmaps.sdk.util.concurrency.UiThread;
 import app.organicmaps.sdk.util.log.Logger;
 import java.io.File;
@@ -21,6 +20,7 @@ import java.io.IOException;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -264,6 +264,15 @@ public enum BookmarkManager {
     return nativeIsVisible(catId);
   }
 
+  /**
+   * @return path of the file where the category is saved by the core.
+   */
+  @NonNull
+  public String getCategoryFilePath(long catId)
+  {
+    return nativeGetCategoryFilePath(catId);
+  }
+
   public void setVisibility(long catId, boolean visible)
   {
     nativeSetVisibility(catId, visible);
@@ -296,6 +305,29 @@ public enum BookmarkManager {
     return nativeGetBookmarkIdByPosition(catId, positionInCategory);
   }
 
+  /**
+   * @return ids of up to count bookmarks of the category starting from the position.
+   */
+  @NonNull
+  public long[] getBookmarkIdsByPosition(long catId, int fromPosition, int count)
+  {
+    final long[] ids = new long[count];
+    final int size = nativeGetBookmarkIdsByPosition(catId, fromPosition, ids);
+    return size == count ? ids : Arrays.copyOf(ids, size);
+  }
+
+  /**
+   * Fetches list rows of the bookmarks in one call, which is much cheaper than separate getters for every row.
+   */
+  @NonNull
+  public BookmarkRows getBookmarkRows(@NonNull long[] bookmarkIds)
+  {
+    final BookmarkRows rows = new BookmarkRows(bookmarkIds);
+    nativeGetBookmarkRows(bookmarkIds, bookmarkIds.length, rows.mNames, rows.mFeatureTypes, rows.mColors, rows.mIcons,
+                          rows.mMercator);
+    return rows;
+  }
+
   @NonNull
   public Track getTrack(long trackId)
   {
@@ -423,46 +455,78 @@ public enum BookmarkManager {
     return null;
   }
 
+  /**
+   * Imports files in parallel, see {@link BookmarksImport}.
+   *
+   * @param listener is notified about the progress on the UI thread.
+   * @return the started import, which can be cancelled.
+   */
+  @NonNull
+  public BookmarksImport importBookmarksFiles(@NonNull ContentResolver resolver, @NonNull List<Uri> uris,
+                                             @NonNull File tempDir, @Nullable BookmarksImport.Listener listener)
+  {
+    final BookmarksImport bookmarksImport = new BookmarksImport(resolver, uris, tempDir, listener);
+    bookmarksImport.start();
+    return bookmarksImport;
+  }
+
+  /**
+   * Reserves a file in the temporary directory for the bookmarks file from the uri.
+   * Files with the same name, which are imported at once, get different names.
+   *
+   * @return null if the uri doesn't contain a supported file.
+   */
   @WorkerThread
-  public boolean importBookmarksFile(@NonNull ContentResolver resolver, @NonNull Uri uri, @NonNull File tempDir)
+  @Nullable
+  File createTempBookmarksFile(@NonNull ContentResolver resolver, @NonNull Uri uri, @NonNull File tempDir)
   {
     Logger.w(TAG, "Importing bookmarks from " + uri);
+    final String filename;
     try
     {
-      String filename = getBookmarksFilenameFromUri(resolver, uri);
-      if (filename == null)
-      {
-        Logger.w(TAG, "Could not find a supported file type in " + uri);
-        UiThread.run(() -> {
-          for (BookmarksLoadingListener listener : mListeners)
-            listener.onBookmarksFileUnsupported(uri);
-        });
-        return false;
-      }
-
-      Logger.d(TAG, "Downloading bookmarks file from " + uri + " into " + filename);
-      final File tempFile = new File(tempDir, filename);
-      StorageUtils.copyFile(resolver, uri, tempFile);
-      Logger.d(TAG, "Downloaded bookmarks file from " + uri + " into " + filename);
-      UiThread.run(() -> loadBookmarksFile(tempFile.getAbsolutePath(), true));
-      return true;
+      filename = getBookmarksFilenameFromUri(resolver, uri);
+    }
+    catch (SecurityException e)
+    {
+      Logger.e(TAG, "Could not read bookmarks file name from " + uri, e);
+      notifyBookmarksFileDownloadFailed(uri, e.toString());
+      return null;
     }
-    catch (IOException | SecurityException e)
+    if (filename == null)
     {
-      Logger.e(TAG, "Could not download bookmarks file from " + uri, e);
+      Logger.w(TAG, "Could not find a supported file type in " + uri);
       UiThread.run(() -> {
         for (BookmarksLoadingListener listener : mListeners)
-          listener.onBookmarksFileDownloadFailed(uri, e.toString());
+          listener.onBookmarksFileUnsupported(uri);
       });
-      return false;
+      return null;
     }
+
+    final int dot = filename.lastIndexOf('.');
+    final String name = dot > 0 ? filename.substring(0, dot) : filename;
+    final String ext = dot > 0 ? filename.substring(dot) : "";
+    File tempFile = new File(tempDir, filename);
+    try
+    {
+      // The core deletes the file after loading, so an existing one is being copied or loaded right now.
+      for (int i = 1; !tempFile.createNewFile(); ++i)
+        tempFile = new File(tempDir, name + " (" + i + ")" + ext);
+    }
+    catch (IOException e)
+    {
+      Logger.e(TAG, "Could not create " + tempFile, e);
+      notifyBookmarksFileDownloadFailed(uri, e.toString());
+      return null;
+    }
+    return tempFile;
   }
 
-  @WorkerThread
-  public void importBookmarksFiles(@NonNull ContentResolver resolver, @NonNull List<Uri> uris, @NonNull File tempDir)
+  void notifyBookmarksFileDownloadFailed(@NonNull Uri uri, @NonNull String error)
   {
-    for (Uri uri : uris)
-      importBookmarksFile(resolver, uri, tempDir);
+    UiThread.run(() -> {
+      for (BookmarksLoadingListener listener : mListeners)
+        listener.onBookmarksFileDownloadFailed(uri, error);
+    });
   }
 
   public boolean isAsyncBookmarksLoadingInProgress()
@@ -769,6 +833,12 @@ public enum BookmarkManager {
 
   private native long nativeGetBookmarkIdByPosition(long catId, int position);
 
+  private static native int nativeGetBookmarkIdsByPosition(long catId, int fromPosition, @NonNull long[] ids);
+
+  private static native void nativeGetBookmarkRows(@NonNull long[] ids, int count, @NonNull String[] names,
+                                                   @NonNull String[] featureTypes, @NonNull int[] colors,
+                                                   @NonNull int[] icons, @NonNull double[] mercator);
+
   @NonNull
   private native Track nativeGetTrack(long trackId, Class<Track> trackClazz);
 
@@ -776,6 +846,9 @@ public enum BookmarkManager {
 
   private native boolean nativeIsVisible(long catId);
 
+  @NonNull
+  private native String nativeGetCategoryFilePath(long catId);
+
   private native void nativeSetVisibility(long catId, boolean visible);
 
   private native void nativeSetCategoryName(long catId, @NonNull String n);
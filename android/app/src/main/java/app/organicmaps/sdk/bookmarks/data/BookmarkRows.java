@@ -0,0 +1,77 @@
+package app.organicmaps.sdk.bookmarks.data;
+
+import androidx.annotation.NonNull;
+import app.organicmaps.sdk.Framework;
+import app.organicmaps.sdk.util.Distance;
+
+/**
+ * Data needed to show a window of bookmark list rows, fetched from the core in one call.
+ * Rows of bookmarks deleted in the meantime have a null name.
+ */
+public final class BookmarkRows
+{
+  @NonNull
+  final long[] mIds;
+  @NonNull
+  final String[] mNames;
+  @NonNull
+  final String[] mFeatureTypes;
+  @NonNull
+  final int[] mColors;
+  @NonNull
+  final int[] mIcons;
+  // Mercator x and y of every row.
+  @NonNull
+  final double[] mMercator;
+
+  BookmarkRows(@NonNull long[] ids)
+  {
+    final int size = ids.length;
+    mIds = ids;
+    mNames = new String[size];
+    mFeatureTypes = new String[size];
+    mColors = new int[size];
+    mIcons = new int[size];
+    mMercator = new double[2 * size];
+  }
+
+  public int size()
+  {
+    return mIds.length;
+  }
+
+  public long getId(int row)
+  {
+    return mIds[row];
+  }
+
+  public boolean exists(int row)
+  {
+    return mNames[row] != null;
+  }
+
+  @NonNull
+  public String getName(int row)
+  {
+    return mNames[row] == null ? "" : mNames[row];
+  }
+
+  @NonNull
+  public String getFeatureType(int row)
+  {
+    return mFeatureTypes[row] == null ? "" : mFeatureTypes[row];
+  }
+
+  @NonNull
+  public Icon getIcon(int row)
+  {
+    return new Icon(mColors[row], mIcons[row]);
+  }
+
+  @NonNull
+  public Distance getDistance(int row, double latitude, double longitude)
+  {
+    return Framework.nativeGetDistanceAndAzimuth(mMercator[2 * row], mMercator[2 * row + 1], latitude, longitude, 0.0)
+        .getDistance();
+  }
+}
@@ -0,0 +1,235 @@
+package app.organicmaps.sdk.bookmarks.data;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import app.organicmaps.sdk.util.concurrency.Priority;
+import app.organicmaps.sdk.util.concurrency.ThreadPool;
+import app.organicmaps.sdk.util.concurrency.UiThread;
+import app.organicmaps.sdk.util.log.Logger;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports bookmark files from content URIs.
+ * <p>
+ * Several files are copied to the temporary directory at once, and every file is passed to the core as soon as its
+ * copy is done, so parsing of the first files overlaps with copying of the next ones. Each file is a separate task
+ * in the background lane of the storage pool, so other file operations are not blocked by a big import.
+ */
+public final class BookmarksImport
+{
+  public interface Listener
+  {
+    // Called on the UI thread.
+    void onImportProgress(int processedFiles, int totalFiles, long bytesPerSecond);
+
+    // Called on the UI thread.
+    void onImportFinished(int importedFiles, int totalFiles, boolean cancelled);
+  }
+
+  private static final String TAG = BookmarksImport.class.getSimpleName();
+
+  // Flash storages and content providers don't get faster with more parallel streams.
+  private static final int PARALLEL_COPIES = 3;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final long TRANSFER_CHUNK = 1024 * 1024;
+  private static final long PROGRESS_INTERVAL_MS = 250;
+
+  @NonNull
+  private final ContentResolver mResolver;
+  @NonNull
+  private final List<Uri> mUris;
+  @NonNull
+  private final File mTempDir;
+  @Nullable
+  private final Listener mListener;
+  private final AtomicInteger mNextFile = new AtomicInteger();
+  private final AtomicInteger mProcessedFiles = new AtomicInteger();
+  private final AtomicInteger mImportedFiles = new AtomicInteger();
+  private final AtomicInteger mRunningTasks = new AtomicInteger();
+  private final AtomicLong mCopiedBytes = new AtomicLong();
+  private long mStartTime;
+  private volatile long mLastProgressTime;
+  private volatile boolean mCancelled;
+
+  BookmarksImport(@NonNull ContentResolver resolver, @NonNull List<Uri> uris, @NonNull File tempDir,
+                  @Nullable Listener listener)
+  {
+    mResolver = resolver;
+    mUris = new ArrayList<>(uris);
+    mTempDir = tempDir;
+    mListener = listener;
+  }
+
+  void start()
+  {
+    Logger.i(TAG, "Importing " + mUris.size() + " files");
+    mStartTime = SystemClock.elapsedRealtime();
+    final int tasks = Math.min(PARALLEL_COPIES, mUris.size());
+    if (tasks == 0)
+    {
+      notifyFinished();
+      return;
+    }
+    mRunningTasks.set(tasks);
+    for (int i = 0; i < tasks; ++i)
+      schedule();
+  }
+
+  /**
+   * Stops the import. Files which are already copied are still loaded by the core.
+   */
+  public void cancel()
+  {
+    mCancelled = true;
+  }
+
+  public boolean isCancelled()
+  {
+    return mCancelled;
+  }
+
+  private void schedule()
+  {
+    ThreadPool.getStorage(Priority.BACKGROUND).execute(this::importNext);
+  }
+
+  private void importNext()
+  {
+    final int index = mNextFile.getAndIncrement();
+    if (mCancelled || index >= mUris.size())
+    {
+      if (mRunningTasks.decrementAndGet() == 0)
+        notifyFinished();
+      return;
+    }
+
+    if (importFile(mUris.get(index)))
+      mImportedFiles.incrementAndGet();
+    final int processed = mProcessedFiles.incrementAndGet();
+    notifyProgress(processed, processed == mUris.size());
+    // The next file is queued behind the tasks which are already waiting for the pool.
+    schedule();
+  }
+
+  private boolean importFile(@NonNull Uri uri)
+  {
+    final BookmarkManager manager = BookmarkManager.INSTANCE;
+    final File tempFile = manager.createTempBookmarksFile(mResolver, uri, mTempDir);
+    if (tempFile == null)
+      return false;
+    try
+    {
+      copyFile(uri, tempFile);
+      Logger.d(TAG, "Copied " + uri + " into " + tempFile.getName());
+    }
+    catch (IOException | SecurityException e)
+    {
+      deleteFile(tempFile);
+      if (mCancelled)
+        return false;
+      Logger.e(TAG, "Could not copy bookmarks file from " + uri, e);
+      manager.notifyBookmarksFileDownloadFailed(uri, e.toString());
+      return false;
+    }
+    UiThread.run(() -> manager.loadBookmarksFile(tempFile.getAbsolutePath(), true));
+    return true;
+  }
+
+  /**
+   * Transfers files with a known size between the channels in the kernel, and streams the other ones with a big
+   * buffer. Checks for the cancellation between the chunks.
+   */
+  private void copyFile(@NonNull Uri from, @NonNull File to) throws IOException
+  {
+    try (ParcelFileDescriptor pfd = mResolver.openFileDescriptor(from, "r"))
+    {
+      if (pfd == null)
+        throw new IOException("Provider returned null for " + from);
+      final long size = pfd.getStatSize();
+      if (size >= 0)
+      {
+        try (FileChannel in = new FileInputStream(pfd.getFileDescriptor()).getChannel();
+             FileOutputStream outStream = new FileOutputStream(to);
+             FileChannel out = outStream.getChannel())
+        {
+          long position = 0;
+          while (position < size)
+          {
+            checkCancelled();
+            final long transferred = in.transferTo(position, Math.min(TRANSFER_CHUNK, size - position), out);
+            if (transferred <= 0)
+              throw new IOException("Unexpected end of " + from);
+            position += transferred;
+            mCopiedBytes.addAndGet(transferred);
+          }
+        }
+        return;
+      }
+    }
+
+    // Pipes and virtual files have no size and can't be mapped.
+    try (InputStream in = mResolver.openInputStream(from); FileOutputStream out = new FileOutputStream(to))
+    {
+      if (in == null)
+        throw new IOException("Provider returned null for " + from);
+      final byte[] buf = new byte[BUFFER_SIZE];
+      int len;
+      while ((len = in.read(buf)) > 0)
+      {
+        checkCancelled();
+        out.write(buf, 0, len);
+        mCopiedBytes.addAndGet(len);
+      }
+    }
+  }
+
+  private void checkCancelled() throws IOException
+  {
+    if (mCancelled)
+      throw new InterruptedIOException("Import is cancelled");
+  }
+
+  private void notifyProgress(int processed, boolean force)
+  {
+    if (mListener == null)
+      return;
+    final long now = SystemClock.elapsedRealtime();
+    if (!force && now - mLastProgressTime < PROGRESS_INTERVAL_MS)
+      return;
+    mLastProgressTime = now;
+    final long bytesPerSecond = mCopiedBytes.get() * 1000 / Math.max(1, now - mStartTime);
+    final int total = mUris.size();
+    UiThread.run(() -> mListener.onImportProgress(processed, total, bytesPerSecond));
+  }
+
+  private void notifyFinished()
+  {
+    final int imported = mImportedFiles.get();
+    final int total = mUris.size();
+    final boolean cancelled = mCancelled;
+    Logger.i(TAG, "Imported " + imported + " of " + total + " files, " + mCopiedBytes.get() + " bytes in "
+                      + (SystemClock.elapsedRealtime() - mStartTime) + " ms" + (cancelled ? ", cancelled" : ""));
+    if (mListener != null)
+      UiThread.run(() -> mListener.onImportFinished(imported, total, cancelled));
+  }
+
+  private static void deleteFile(@NonNull File file)
+  {
+    if (file.exists() && !file.delete())
+      Logger.w(TAG, "Failed to delete " + file);
+  }
+}
@@ -1,14 +1,9 @@
 package app.organicmaps.sdk.bookmarks.data;
 
 import android.os.Parcel;
-import android.os.Parcelable;
 import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import app.organicmaps.sdk.widget.placepage.PlacePageData;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
 // Used by JNI.
 @Keep
@@ -18,8 +13,12 @@ public class ElevationInfo implements PlacePageData
   private final long mId;
   @NonNull
   private final String mName;
+  // Distances from the track start and altitudes of the points, both in meters.
+  // Primitive arrays keep long tracks compact in memory and in parcels.
   @NonNull
-  private final List<Point> mPoints;
+  private final float[] mDistances;
+  @NonNull
+  private final float[] mAltitudes;
   private final int mAscent;
   private final int mDescent;
   private final int mMinAltitude;
@@ -27,12 +26,15 @@ public class ElevationInfo implements PlacePageData
   private final int mDifficulty;
   private final long mDuration;
 
-  public ElevationInfo(long trackId, @NonNull String name, @NonNull Point[] points, int ascent, int descent,
-                       int minAltitude, int maxAltitude, int difficulty, long duration)
+  public ElevationInfo(long trackId, @NonNull String name, @NonNull float[] distances, @NonNull float[] altitudes,
+                       int ascent, int descent, int minAltitude, int maxAltitude, int difficulty, long duration)
   {
+    if (distances.length != altitudes.length)
+      throw new IllegalArgumentException("Distances and altitudes must have the same size");
     mId = trackId;
     mName = name;
-    mPoints = Arrays.asList(points);
+    mDistances = distances;
+    mAltitudes = altitudes;
     mAscent = ascent;
     mDescent = descent;
     mMinAltitude = minAltitude;
@@ -51,15 +53,8 @@ public class ElevationInfo implements PlacePageData
     mMaxAltitude = in.readInt();
     mDifficulty = in.readInt();
     mDuration = in.readLong();
-    mPoints = readPoints(in);
-  }
-
-  @NonNull
-  private static List<Point> readPoints(@NonNull Parcel in)
-  {
-    List<Point> points = new ArrayList<>();
-    in.readTypedList(points, Point.CREATOR);
-    return points;
+    mDistances = in.createFloatArray();
+    mAltitudes = in.createFloatArray();
   }
 
   public long getId()
@@ -73,10 +68,27 @@ public class ElevationInfo implements PlacePageData
     return mName;
   }
 
+  public int getPointsCount()
+  {
+    return mDistances.length;
+  }
+
+  /**
+   * @return sorted distances of the points from the track start. The array must not be modified.
+   */
+  @NonNull
+  public float[] getDistances()
+  {
+    return mDistances;
+  }
+
+  /**
+   * @return altitudes of the points. The array must not be modified.
+   */
   @NonNull
-  public List<Point> getPoints()
+  public float[] getAltitudes()
   {
-    return Collections.unmodifiableList(mPoints);
+    return mAltitudes;
   }
 
   public int getAscent()
@@ -126,67 +138,8 @@ public class ElevationInfo implements PlacePageData
     dest.writeInt(mMaxAltitude);
     dest.writeInt(mDifficulty);
     dest.writeLong(mDuration);
-    // All collections are deserialized AFTER non-collection and primitive type objects,
-    // so collections must be always serialized at the end.
-    dest.writeTypedList(mPoints);
-  }
-
-  // Called from JNI.
-  @Keep
-  @SuppressWarnings("unused")
-  public static class Point implements Parcelable
-  {
-    private final double mDistance;
-    private final int mAltitude;
-
-    public Point(double distance, int altitude)
-    {
-      mDistance = distance;
-      mAltitude = altitude;
-    }
-
-    protected Point(Parcel in)
-    {
-      mDistance = in.readDouble();
-      mAltitude = in.readInt();
-    }
-
-    public static final Creator<Point> CREATOR = new Creator<>() {
-      @Override
-      public Point createFromParcel(Parcel in)
-      {
-        return new Point(in);
-      }
-
-      @Override
-      public Point[] newArray(int size)
-      {
-        return new Point[size];
-      }
-    };
-
-    public double getDistance()
-    {
-      return mDistance;
-    }
-
-    public int getAltitude()
-    {
-      return mAltitude;
-    }
-
-    @Override
-    public int describeContents()
-    {
-      return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags)
-    {
-      dest.writeDouble(mDistance);
-      dest.writeInt(mAltitude);
-    }
+    dest.writeFloatArray(mDistances);
+    dest.writeFloatArray(mAltitudes);
   }
 
   public static final Creator<ElevationInfo> CREATOR = new Creator<>() {
@@ -0,0 +1,60 @@
+package app.organicmaps.sdk.downloader;
+
+import androidx.annotation.NonNull;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of direct buffers shared by all {@link ChunkTask}s.
+ * Direct memory is passed to the core without copying, and reusing the buffers keeps
+ * multi-gigabyte downloads from producing a short-lived array per read.
+ */
+final class ChunkBufferPool
+{
+  private final int mBufferSize;
+  private final int mCapacity;
+  private final BlockingQueue<ByteBuffer> mFree;
+  private int mAllocated;
+
+  ChunkBufferPool(int capacity, int bufferSize)
+  {
+    mCapacity = capacity;
+    mBufferSize = bufferSize;
+    mFree = new ArrayBlockingQueue<>(capacity);
+  }
+
+  int getBufferSize()
+  {
+    return mBufferSize;
+  }
+
+  /**
+   * Returns a cleared buffer, allocating a new one until the pool capacity is reached.
+   * Blocks when all buffers are in use.
+   */
+  @NonNull
+  ByteBuffer acquire() throws InterruptedException
+  {
+    ByteBuffer buffer = mFree.poll();
+    if (buffer == null)
+    {
+      synchronized (this)
+      {
+        if (mAllocated < mCapacity)
+        {
+          ++mAllocated;
+          return ByteBuffer.allocateDirect(mBufferSize);
+        }
+      }
+      buffer = mFree.take();
+    }
+    buffer.clear();
+    return buffer;
+  }
+
+  void release(@NonNull ByteBuffer buffer)
+  {
+    mFree.offer(buffer);
+  }
+}
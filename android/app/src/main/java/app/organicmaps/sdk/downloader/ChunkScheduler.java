@@ -0,0 +1,168 @@
+package app.organicmaps.sdk.downloader;
+
+import androidx.annotation.NonNull;
+import app.organicmaps.sdk.util.Constants;
+import app.organicmaps.sdk.util.log.Logger;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link ChunkTask}s with a per-host concurrency limit adapted to the measured link quality.
+ * <p>
+ * For every mirror host it keeps smoothed throughput and response time. The number of in-flight
+ * range requests grows while the per-request throughput holds up and halves on failures
+ * (additive increase, multiplicative decrease). The read size and timeouts follow the same
+ * statistics, so a slow link gets smaller reads with longer timeouts, and a fast one gets big reads.
+ * Ranges themselves are still assigned by the core downloader strategy.
+ */
+final class ChunkScheduler
+{
+  private static final String TAG = ChunkScheduler.class.getSimpleName();
+
+  static final int MAX_THREADS = 8;
+  private static final int MAX_PER_HOST = 4;
+  private static final int INITIAL_PER_HOST = 2;
+
+  static final int MIN_READ_SIZE = Constants.KB;
+  static final int MAX_READ_SIZE = 128 * Constants.KB;
+
+  private static final int MIN_TIMEOUT_MS = 10000;
+  private static final int MAX_TIMEOUT_MS = 30000;
+  // Multiplier for the smoothed response time to get a timeout which doesn't fire on a slow link.
+  private static final int TIMEOUT_RTT_FACTOR = 8;
+
+  // Weight of a new sample in exponentially weighted moving averages.
+  private static final double EWMA_ALPHA = 0.3;
+
+  private static final class Host
+  {
+    final ArrayDeque<Runnable> mPending = new ArrayDeque<>();
+    int mRunning;
+    int mLimit = INITIAL_PER_HOST;
+    int mReadSize = MAX_READ_SIZE;
+    // Bytes per second of a single range request.
+    double mThroughput;
+    double mRttMs;
+  }
+
+  private final ThreadPoolExecutor mExecutor;
+  private final Map<String, Host> mHosts = new HashMap<>();
+
+  ChunkScheduler()
+  {
+    mExecutor =
+        new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    mExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * @return executor which queues tasks until the concurrency limit of the host allows them to run.
+   */
+  @NonNull
+  Executor forHost(@NonNull String host)
+  {
+    return command -> submit(host, command);
+  }
+
+  synchronized int getReadSize(@NonNull String host)
+  {
+    return getHost(host).mReadSize;
+  }
+
+  synchronized int getTimeoutMs(@NonNull String host)
+  {
+    final long timeout = Math.round(getHost(host).mRttMs * TIMEOUT_RTT_FACTOR);
+    return (int) Math.max(MIN_TIMEOUT_MS, Math.min(MAX_TIMEOUT_MS, timeout));
+  }
+
+  synchronized void onResponse(@NonNull String host, long rttMs)
+  {
+    final Host h = getHost(host);
+    h.mRttMs = h.mRttMs == 0 ? rttMs : h.mRttMs + EWMA_ALPHA * (rttMs - h.mRttMs);
+  }
+
+  /**
+   * Updates host statistics with the result of a finished range request.
+   * @param readSize read size which was reached by the end of the request.
+   */
+  synchronized void onChunkFinished(@NonNull String host, long bytes, long durationMs, int readSize, boolean success)
+  {
+    final Host h = getHost(host);
+    if (!success)
+    {
+      h.mLimit = Math.max(1, h.mLimit / 2);
+      h.mReadSize = Math.max(MIN_READ_SIZE, readSize / 4);
+      Logger.d(TAG, "Host " + host + " failed, limit " + h.mLimit + ", read size " + h.mReadSize);
+      return;
+    }
+
+    h.mReadSize = Math.min(MAX_READ_SIZE, Math.max(readSize, h.mReadSize));
+    if (bytes == 0 || durationMs <= 0)
+      return;
+
+    final double sample = bytes * 1000.0 / durationMs;
+    if (h.mThroughput == 0)
+      h.mThroughput = sample;
+    else
+    {
+      // Another connection pays off while it doesn't take a noticeable part of the others' bandwidth.
+      if (sample >= 0.8 * h.mThroughput && h.mRunning >= h.mLimit)
+        h.mLimit = Math.min(MAX_PER_HOST, h.mLimit + 1);
+      else if (sample < 0.5 * h.mThroughput)
+        h.mLimit = Math.max(1, h.mLimit - 1);
+      h.mThroughput += EWMA_ALPHA * (sample - h.mThroughput);
+    }
+    Logger.d(TAG, "Host " + host + ": " + Math.round(h.mThroughput / Constants.KB) + " KB/s, rtt "
+                      + Math.round(h.mRttMs) + " ms, limit " + h.mLimit);
+  }
+
+  @NonNull
+  private Host getHost(@NonNull String host)
+  {
+    Host h = mHosts.get(host);
+    if (h == null)
+    {
+      h = new Host();
+      mHosts.put(host, h);
+    }
+    return h;
+  }
+
+  private synchronized void submit(@NonNull String host, @NonNull Runnable command)
+  {
+    final Host h = getHost(host);
+    h.mPending.add(command);
+    dispatch(host, h);
+  }
+
+  private synchronized void onTaskDone(@NonNull String host)
+  {
+    final Host h = getHost(host);
+    --h.mRunning;
+    dispatch(host, h);
+  }
+
+  private void dispatch(@NonNull String host, @NonNull Host h)
+  {
+    while (h.mRunning < h.mLimit && !h.mPending.isEmpty())
+    {
+      final Runnable command = h.mPending.poll();
+      ++h.mRunning;
+      mExecutor.execute(() -> {
+        try
+        {
+          command.run();
+        }
+        finally
+        {
+          onTaskDone(host);
+        }
+      });
+    }
+  }
+}
@@ -1,9 +1,12 @@
 package app.organicmaps.sdk.downloader;
 
+import android.net.Uri;
 import android.os.AsyncTask;
+import android.os.SystemClock;
 import android.util.Base64;
 import androidx.annotation.Keep;
 import app.organicmaps.sdk.util.Constants;
+import app.organicmaps.sdk.util.HttpTransport;
 import app.organicmaps.sdk.util.StringUtils;
 import app.organicmaps.sdk.util.Utils;
 import app.organicmaps.sdk.util.log.Logger;
@@ -14,21 +17,26 @@ import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Map;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 // Used from JNI.
 @Keep
 @SuppressWarnings({"unused", "deprecation"}) // https://github.com/organicmaps/organicmaps/issues/3632
-class ChunkTask extends AsyncTask<Void, byte[], Integer>
+class ChunkTask extends AsyncTask<Void, Void, Integer>
 {
   private static final String TAG = ChunkTask.class.getSimpleName();
 
-  private static final int TIMEOUT_IN_SECONDS = 10;
+  // Read attempts with a decreasing read size after IOException.
+  private static final int MAX_READ_ATTEMPTS = 3;
+  // Number of consecutive full reads after which the read size is doubled.
+  private static final int READS_TO_GROW = 16;
 
   private final long mHttpCallbackID;
   private final String mUrl;
+  private final String mHost;
   private final long mBeg;
   private final long mEnd;
   private final long mExpectedFileSize;
@@ -42,13 +50,21 @@ class ChunkTask extends AsyncTask<Void, byte[], Integer>
   private static final int CANCELLED = -6;
 
   private long mDownloadedBytes;
+  private int mReadSize;
 
-  private static final Executor sExecutors = Executors.newFixedThreadPool(4);
+  private static final ChunkScheduler sScheduler = new ChunkScheduler();
+  private static final ChunkBufferPool sBufferPool =
+      new ChunkBufferPool(ChunkScheduler.MAX_THREADS, ChunkScheduler.MAX_READ_SIZE);
+  // Serializes chunk writes of all tasks with finish and cancel notifications from the core:
+  // the native callback must never be touched after the task was released.
+  private static final Object sWriteLock = new Object();
 
   public ChunkTask(long httpCallbackID, String url, long beg, long end, long expectedFileSize, byte[] postBody)
   {
     mHttpCallbackID = httpCallbackID;
     mUrl = url;
+    final String host = Uri.parse(url).getHost();
+    mHost = host == null ? "" : host;
     mBeg = beg;
     mEnd = end;
     mExpectedFileSize = expectedFileSize;
@@ -67,30 +83,25 @@ class ChunkTask extends AsyncTask<Void, byte[], Integer>
     // Reproduced by Samsung testers: touch Try Again for many times from
     // start activity when no connection is present.
 
-    if (!isCancelled())
-      nativeOnFinish(mHttpCallbackID, httpOrErrorCode, mBeg, mEnd);
-  }
-
-  @Override
-  protected void onProgressUpdate(byte[]... data)
-  {
-    if (!isCancelled())
+    synchronized (sWriteLock)
     {
-      // Use progress event to save downloaded bytes.
-      if (nativeOnWrite(mHttpCallbackID, mBeg + mDownloadedBytes, data[0], data[0].length))
-        mDownloadedBytes += data[0].length;
-      else
-      {
-        // Cancel downloading and notify about error.
-        cancel(false);
-        nativeOnFinish(mHttpCallbackID, WRITE_EXCEPTION, mBeg, mEnd);
-      }
+      if (!isCancelled())
+        nativeOnFinish(mHttpCallbackID, httpOrErrorCode, mBeg, mEnd);
     }
   }
 
   void start()
   {
-    executeOnExecutor(sExecutors, (Void[]) null);
+    executeOnExecutor(sScheduler.forHost(mHost), (Void[]) null);
+  }
+
+  // Called from the HttpThread destructor. After it returns no more writes reach the native callback.
+  void release()
+  {
+    synchronized (sWriteLock)
+    {
+      cancel(false);
+    }
   }
 
   private static long parseContentRange(String contentRangeValue)
@@ -115,6 +126,19 @@ class ChunkTask extends AsyncTask<Void, byte[], Integer>
 
   @Override
   protected Integer doInBackground(Void... p)
+  {
+    final long startTime = SystemClock.elapsedRealtime();
+    final int result = download();
+    // Only completed and broken transfers tell something about the link.
+    if (result == HttpURLConnection.HTTP_OK || result == IO_EXCEPTION)
+    {
+      sScheduler.onChunkFinished(mHost, mDownloadedBytes, SystemClock.elapsedRealtime() - startTime, mReadSize,
+                                 result == HttpURLConnection.HTTP_OK);
+    }
+    return result;
+  }
+
+  private int download()
   {
     HttpURLConnection urlConnection = null;
     /*
@@ -125,16 +149,15 @@ class ChunkTask extends AsyncTask<Void, byte[], Integer>
     try
     {
       final URL url = new URL(mUrl);
-      urlConnection = (HttpURLConnection) url.openConnection();
+      urlConnection = HttpTransport.open(url);
 
       if (isCancelled())
         return CANCELLED;
 
-      Android7RootCertificateWorkaround.applyFixIfNeeded(urlConnection);
-
       urlConnection.setUseCaches(false);
-      urlConnection.setConnectTimeout(TIMEOUT_IN_SECONDS * 1000);
-      urlConnection.setReadTimeout(TIMEOUT_IN_SECONDS * 1000);
+      final int timeoutMs = sScheduler.getTimeoutMs(mHost);
+      urlConnection.setConnectTimeout(timeoutMs);
+      urlConnection.setReadTimeout(timeoutMs);
 
       // Provide authorization credentials
       String creds = url.getUserInfo();
@@ -170,7 +193,9 @@ class ChunkTask extends AsyncTask<Void, byte[], Integer>
       if (isCancelled())
         return CANCELLED;
 
+      final long requestTime = SystemClock.elapsedRealtime();
       final int err = urlConnection.getResponseCode();
+      sScheduler.onResponse(mHost, SystemClock.elapsedRealtime() - requestTime);
       if (err == HttpURLConnection.HTTP_NOT_FOUND)
         return err;
 
@@ -205,7 +230,15 @@ class ChunkTask extends AsyncTask<Void, byte[], Integer>
         // @TODO Else display received web page to user - router is redirecting us to some page
       }
 
-      return downloadFromStream(new BufferedInputStream(urlConnection.getInputStream(), 128 * Constants.KB));
+      final int result =
+          downloadFromStream(new BufferedInputStream(urlConnection.getInputStream(), 128 * Constants.KB));
+      // The response is read to the end, keep the connection alive for the next chunk.
+      if (result == HttpURLConnection.HTTP_OK)
+      {
+        HttpTransport.release(urlConnection, mDownloadedBytes);
+        urlConnection = null;
+      }
+      return result;
     }
     catch (final MalformedURLException ex)
     {
@@ -220,57 +253,115 @@ class ChunkTask extends AsyncTask<Void, byte[], Integer>
     finally
     {
       if (urlConnection != null)
-        urlConnection.disconnect();
+        HttpTransport.abort(urlConnection, mDownloadedBytes);
     }
   }
 
-  private Integer downloadFromStream(InputStream stream)
+  private int downloadFromStream(InputStream stream)
   {
+    final ByteBuffer buffer;
+    try
+    {
+      buffer = sBufferPool.acquire();
+    }
+    catch (InterruptedException ex)
+    {
+      Utils.closeSafely(stream);
+      return CANCELLED;
+    }
+
     // Because of timeouts in InputStream.read (for bad connection),
-    // try to introduce dynamic buffer size to read in one query.
-    final int[] arrSize = {128, 32, 1};
+    // the read size is decreased after errors and grows back while reads succeed.
+    mReadSize = sScheduler.getReadSize(mHost);
+    final ReadableByteChannel channel = Channels.newChannel(stream);
     int ret = IO_EXCEPTION;
 
-    for (int size : arrSize)
+    for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; ++attempt)
     {
       try
       {
-        ret = downloadFromStreamImpl(stream, size * Constants.KB);
+        ret = downloadFromStreamImpl(channel, buffer);
         break;
       }
       catch (final IOException ex)
       {
-        Logger.e(TAG, "IOException in downloadFromStream for buffer size: " + size, ex);
+        Logger.e(TAG, "IOException in downloadFromStream for read size: " + mReadSize, ex);
+        mReadSize = Math.max(ChunkScheduler.MIN_READ_SIZE, mReadSize / 4);
+        // Keep the bytes received before the failure, the next attempt continues right after them.
+        if (!writeBuffer(buffer))
+        {
+          ret = WRITE_EXCEPTION;
+          break;
+        }
       }
     }
 
+    sBufferPool.release(buffer);
     Utils.closeSafely(stream);
     return ret;
   }
 
   /**
+   * Reads the stream into the pooled buffer and writes it to the core each time the buffer is full.
    * @throws IOException
    */
-  private int downloadFromStreamImpl(InputStream stream, int bufferSize) throws IOException
+  private int downloadFromStreamImpl(ReadableByteChannel channel, ByteBuffer buffer) throws IOException
   {
-    final byte[] tempBuf = new byte[bufferSize];
-
+    int fullReads = 0;
     int readBytes;
-    while ((readBytes = stream.read(tempBuf)) > 0)
+    do
     {
+      final int readSize = Math.min(buffer.capacity() - buffer.position(), mReadSize);
+      buffer.limit(buffer.position() + readSize);
+      readBytes = channel.read(buffer);
+
       if (isCancelled())
         return CANCELLED;
 
-      final byte[] chunk = new byte[readBytes];
-      System.arraycopy(tempBuf, 0, chunk, 0, readBytes);
+      if (readBytes < readSize)
+        fullReads = 0;
+      else if (++fullReads == READS_TO_GROW)
+      {
+        fullReads = 0;
+        mReadSize = Math.min(ChunkScheduler.MAX_READ_SIZE, mReadSize * 2);
+      }
 
-      publishProgress(chunk);
+      if (buffer.position() == buffer.capacity() && !writeBuffer(buffer))
+        return WRITE_EXCEPTION;
     }
+    while (readBytes > 0);
+
+    if (!writeBuffer(buffer))
+      return WRITE_EXCEPTION;
 
     // -1 - means the end of the stream (success), else - some error occurred
     return (readBytes == -1 ? HttpURLConnection.HTTP_OK : IO_EXCEPTION);
   }
 
-  private static native boolean nativeOnWrite(long httpCallbackID, long beg, byte[] data, long size);
+  /**
+   * Writes the buffered bytes directly from the worker thread, the UI thread is not involved.
+   * @return false if the core failed to write the data.
+   */
+  private boolean writeBuffer(ByteBuffer buffer)
+  {
+    final int size = buffer.position();
+    if (size == 0)
+      return true;
+
+    synchronized (sWriteLock)
+    {
+      // The native callback may be already destroyed, the caller checks isCancelled() and stops.
+      if (isCancelled())
+        return true;
+      if (!nativeOnWrite(mHttpCallbackID, mBeg + mDownloadedBytes, buffer, size))
+        return false;
+    }
+
+    mDownloadedBytes += size;
+    buffer.clear();
+    return true;
+  }
+
+  private static native boolean nativeOnWrite(long httpCallbackID, long beg, ByteBuffer data, int size);
   private static native void nativeOnFinish(long httpCallbackID, long httpCode, long beg, long end);
 }
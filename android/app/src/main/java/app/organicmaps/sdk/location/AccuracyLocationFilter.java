@@ -0,0 +1,46 @@
+package app.organicmaps.sdk.location;
+
+import android.location.Location;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+import app.organicmaps.sdk.util.LocationUtils;
+import app.organicmaps.sdk.util.log.Logger;
+
+/**
+ * Drops fixes without an accuracy, and fixes which are worse than the last one of any provider.
+ */
+@UiThread
+final class AccuracyLocationFilter implements LocationFilter
+{
+  private static final String TAG = LocationState.LOCATION_TAG;
+
+  @Nullable
+  private Location mLast;
+
+  @Nullable
+  @Override
+  public Location filter(@NonNull Location location)
+  {
+    if (!LocationUtils.isAccuracySatisfied(location))
+    {
+      Logger.w(TAG, "Unsatisfied accuracy for location = " + location);
+      return null;
+    }
+
+    if (mLast != null && !LocationUtils.isLocationBetterThanLast(location, mLast))
+    {
+      Logger.d(TAG, "The new " + location + " is worse than the last " + mLast);
+      return null;
+    }
+
+    mLast = location;
+    return location;
+  }
+
+  @Override
+  public void reset()
+  {
+    mLast = null;
+  }
+}
@@ -73,7 +73,7 @@ class AndroidNativeProvider extends BaseLocationProvider
   // A permission is checked externally
   @Override
   @RequiresPermission(anyOf = {ACCESS_COARSE_LOCATION, ACCESS_FINE_LOCATION})
-  public void start(long interval)
+  public void start(long interval, int quality)
   {
     Logger.d(TAG);
     if (!mProviders.isEmpty())
@@ -83,13 +83,13 @@ class AndroidNativeProvider extends BaseLocationProvider
         new LocationRequestCompat
             .Builder(interval)
             // The quality is a hint to providers on how they should weigh power vs accuracy tradeoffs.
-            .setQuality(LocationRequestCompat.QUALITY_HIGH_ACCURACY)
+            .setQuality(quality)
             .build();
 
     // API 31+ provides `fused` provider which aggregates `gps` and `network` and potentially other sensors as well.
     // Unfortunately, certain LineageOS ROMs have broken `fused` provider that pretends to be enabled, but in
     // reality it does absolutely nothing and doesn't return any location updates. For this reason, we try all
-    // (`fused`, `network`, `gps`) providers here, but prefer `fused` in LocationHelper.onLocationChanged().
+    // (`fused`, `network`, `gps`) providers here, and fuse their fixes in the filters of LocationHelper.
     //
     // https://developer.android.com/reference/android/location/LocationManager#FUSED_PROVIDER
     // https://issuetracker.google.com/issues/215186921#comment3
@@ -97,6 +97,9 @@ class AndroidNativeProvider extends BaseLocationProvider
     //
     mProviders.addAll(mLocationManager.getProviders(true));
     mProviders.remove(LocationManager.PASSIVE_PROVIDER); // not really useful if other providers are enabled.
+    // GPS drains the battery most, other providers are enough when a high accuracy is not needed.
+    if (quality != LocationRequestCompat.QUALITY_HIGH_ACCURACY && mProviders.size() > 1)
+      mProviders.remove(LocationManager.GPS_PROVIDER);
     if (mProviders.isEmpty())
     {
       // Call this callback in the next event loop to allow LocationHelper::start() to finish.
@@ -108,7 +111,7 @@ class AndroidNativeProvider extends BaseLocationProvider
     for (String provider : mProviders)
     {
       Logger.d(TAG, "Request Android native provider '" + provider + "' to get locations at this interval = " + interval
-                        + " ms");
+                        + " ms, quality = " + quality);
       LocationManagerCompat.requestLocationUpdates(mLocationManager, provider, locationRequest, mNativeLocationListener,
                                                    Looper.myLooper());
     }
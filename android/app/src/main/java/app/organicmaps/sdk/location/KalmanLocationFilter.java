@@ -0,0 +1,69 @@
+package app.organicmaps.sdk.location;
+
+import android.location.Location;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+
+/**
+ * Fuses fixes of all providers into one position with a Kalman filter.
+ * <p>
+ * Every fix is weighted by its accuracy, and the uncertainty of the estimate grows with time by the speed at which
+ * the position may change. So an accurate GPS fix overrides a network one at once, while jitter of fixes with the
+ * same accuracy is smoothed. Speed, bearing and altitude are taken from the last fix.
+ */
+@UiThread
+final class KalmanLocationFilter implements LocationFilter
+{
+  // GPS fixes may come without an accuracy, see LocationUtils.isAccuracySatisfied().
+  private static final float MIN_ACCURACY_M = 1.0f;
+  // The position may change at least as fast as by walking, even if the speed is unknown.
+  private static final float MIN_PROCESS_SPEED_MPS = 3.0f;
+
+  private double mLat;
+  private double mLon;
+  // Variance of the estimate in square metres, negative if there is no estimate.
+  private double mVariance = -1;
+  private long mTimeNanos;
+
+  @Nullable
+  @Override
+  public Location filter(@NonNull Location location)
+  {
+    final double accuracy = Math.max(location.getAccuracy(), MIN_ACCURACY_M);
+    final long timeNanos = location.getElapsedRealtimeNanos();
+    if (mVariance < 0)
+    {
+      mLat = location.getLatitude();
+      mLon = location.getLongitude();
+      mVariance = accuracy * accuracy;
+      mTimeNanos = timeNanos;
+      return location;
+    }
+
+    final double dt = (timeNanos - mTimeNanos) * 1.0E-9;
+    if (dt > 0)
+    {
+      final double speed = Math.max(location.getSpeed(), MIN_PROCESS_SPEED_MPS);
+      mVariance += dt * speed * speed;
+      mTimeNanos = timeNanos;
+    }
+
+    final double gain = mVariance / (mVariance + accuracy * accuracy);
+    mLat += gain * (location.getLatitude() - mLat);
+    mLon += gain * (location.getLongitude() - mLon);
+    mVariance *= 1 - gain;
+
+    final Location result = new Location(location);
+    result.setLatitude(mLat);
+    result.setLongitude(mLon);
+    result.setAccuracy((float) Math.sqrt(mVariance));
+    return result;
+  }
+
+  @Override
+  public void reset()
+  {
+    mVariance = -1;
+  }
+}
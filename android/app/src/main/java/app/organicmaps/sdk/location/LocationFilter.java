@@ -0,0 +1,25 @@
+package app.organicmaps.sdk.location;
+
+import android.location.Location;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+
+/**
+ * A stage of the location pipeline of {@link LocationHelper}.
+ */
+public interface LocationFilter
+{
+  /**
+   * @return the location for the next stage, it may differ from the given one, or null to drop the fix.
+   */
+  @UiThread
+  @Nullable
+  Location filter(@NonNull Location location);
+
+  /**
+   * Forgets the previous fixes, e.g. when the location provider is changed.
+   */
+  @UiThread
+  void reset();
+}
@@ -0,0 +1,75 @@
+package app.organicmaps.sdk.location;
+
+import android.location.Location;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Passes locations through the filters in order and counts fixes which have entered and left every stage.
+ */
+@UiThread
+final class LocationFilterChain
+{
+  private static final class Stage
+  {
+    @NonNull
+    final String mName;
+    @NonNull
+    final LocationFilter mFilter;
+    long mInput;
+    long mOutput;
+
+    Stage(@NonNull String name, @NonNull LocationFilter filter)
+    {
+      mName = name;
+      mFilter = filter;
+    }
+  }
+
+  private final List<Stage> mStages = new ArrayList<>();
+
+  void add(@NonNull String name, @NonNull LocationFilter filter)
+  {
+    mStages.add(new Stage(name, filter));
+  }
+
+  @Nullable
+  Location filter(@NonNull Location location)
+  {
+    Location result = location;
+    for (Stage stage : mStages)
+    {
+      ++stage.mInput;
+      result = stage.mFilter.filter(result);
+      if (result == null)
+        return null;
+      ++stage.mOutput;
+    }
+    return result;
+  }
+
+  void reset()
+  {
+    for (Stage stage : mStages)
+      stage.mFilter.reset();
+  }
+
+  /**
+   * @return "stage in/out" pairs, e.g. "accuracy 120/118, movement 118/35".
+   */
+  @NonNull
+  String getStats()
+  {
+    final StringBuilder sb = new StringBuilder();
+    for (Stage stage : mStages)
+    {
+      if (sb.length() > 0)
+        sb.append(", ");
+      sb.append(stage.mName).append(' ').append(stage.mInput).append('/').append(stage.mOutput);
+    }
+    return sb.toString();
+  }
+}
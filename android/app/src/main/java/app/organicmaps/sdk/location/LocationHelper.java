@@ -10,6 +10,7 @@ import android.location.Location;
 import android.location.LocationManager;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresPermission;
@@ -18,7 +19,7 @@ import androidx.core.content.ContextCompat;
 import androidx.core.location.GnssStatusCompat;
 import androidx.core.location.LocationManagerCompat;
 import app.organicmaps.MwmApplication;
-import app.organicmaps.routing.RoutingController;
+import app.organicmaps.routing.RouteProgressPublisher;
 import app.organicmaps.sdk.Framework;
 import app.organicmaps.sdk.Map;
 import app.organicmaps.sdk.bookmarks.data.FeatureId;
@@ -32,18 +33,17 @@ import org.chromium.base.ObserverList;
 
 public class LocationHelper implements BaseLocationProvider.Listener
 {
-  private static final long INTERVAL_FOLLOW_MS = 0;
-  private static final long INTERVAL_NOT_FOLLOW_MS = 3000;
-  private static final long INTERVAL_NAVIGATION_MS = 1000;
-  private static final long INTERVAL_TRACK_RECORDING = 0;
-
   private static final long AGPS_EXPIRATION_TIME_MS = 16 * 60 * 60 * 1000; // 16 hours
-  private static final long LOCATION_UPDATE_TIMEOUT_MS = 30 * 1000; // 30 seconds
+  static final long LOCATION_UPDATE_TIMEOUT_MS = 30 * 1000; // 30 seconds
+  // Sampling is not slowed down more often, so that the provider is not restarted on every change of the speed.
+  private static final long MIN_SAMPLING_SLOWDOWN_MS = 30 * 1000;
 
   @NonNull
   private final Context mContext;
   @NonNull
   private final SensorHelper mSensorHelper;
+  @NonNull
+  private final SamplingGovernor mSamplingGovernor;
 
   private static final String TAG = LocationState.LOCATION_TAG;
 
@@ -55,7 +55,12 @@ public class LocationHelper implements BaseLocationProvider.Listener
   private MapObject mMyPosition;
   @NonNull
   private BaseLocationProvider mLocationProvider;
-  private long mInterval;
+  // Providers of AndroidNativeProvider report the same position one after another.
+  @NonNull
+  private final LocationFilterChain mLocationFilters = new LocationFilterChain();
+  @Nullable
+  private SamplingGovernor.Decision mSampling;
+  private long mSamplingTime;
   private boolean mInFirstRun;
   private boolean mActive;
   private Handler mHandler;
@@ -102,8 +107,12 @@ public class LocationHelper implements BaseLocationProvider.Listener
   {
     mContext = context;
     mSensorHelper = sensorHelper;
+    mSamplingGovernor = new SamplingGovernor(context);
     mLocationProvider = LocationProviderFactory.getProvider(mContext, this);
     mHandler = new Handler(Looper.getMainLooper());
+    mLocationFilters.add("accuracy", new AccuracyLocationFilter());
+    mLocationFilters.add("fusion", new KalmanLocationFilter());
+    mLocationFilters.add("movement", new MovementLocationFilter());
   }
 
   /**
@@ -151,8 +160,7 @@ public class LocationHelper implements BaseLocationProvider.Listener
     if (mSavedLocation == null)
       throw new IllegalStateException("No saved location");
 
-    mHandler.removeCallbacks(mLocationTimeoutRunnable);
-    mHandler.postDelayed(mLocationTimeoutRunnable, LOCATION_UPDATE_TIMEOUT_MS); // Reset the timeout.
+    resetLocationTimeout();
 
     mListenersIterator.rewind();
     while (mListenersIterator.hasNext())
@@ -171,6 +179,14 @@ public class LocationHelper implements BaseLocationProvider.Listener
                                         mSavedLocation.getLongitude(), mSavedLocation.getAccuracy(),
                                         mSavedLocation.getAltitude(), mSavedLocation.getSpeed(),
                                         mSavedLocation.getBearing());
+    // The core has the new location now, share its route progress with navigation UI.
+    RouteProgressPublisher.INSTANCE.publish();
+  }
+
+  private void resetLocationTimeout()
+  {
+    mHandler.removeCallbacks(mLocationTimeoutRunnable);
+    mHandler.postDelayed(mLocationTimeoutRunnable, LOCATION_UPDATE_TIMEOUT_MS);
   }
 
   private void notifyLocationUpdateTimeout()
@@ -199,24 +215,18 @@ public class LocationHelper implements BaseLocationProvider.Listener
       return;
     }
 
-    if (!LocationUtils.isAccuracySatisfied(location))
-    {
-      Logger.w(TAG, "Unsatisfied accuracy for location = " + location);
+    // The provider works even if its fixes are filtered out.
+    resetLocationTimeout();
+    // Simulated locations follow the route exactly.
+    final Location filtered =
+        mLocationProvider instanceof RouteSimulationProvider ? location : mLocationFilters.filter(location);
+    if (filtered == null)
       return;
-    }
 
-    if (mSavedLocation != null)
-    {
-      if (!LocationUtils.isLocationBetterThanLast(location, mSavedLocation))
-      {
-        Logger.d(TAG, "The new " + location + " is worse than the last " + mSavedLocation);
-        return;
-      }
-    }
-
-    mSavedLocation = location;
+    mSavedLocation = filtered;
     mMyPosition = null;
     notifyLocationUpdated();
+    updateSampling(true);
   }
 
   // Used by GoogleFusedLocationProvider.
@@ -254,8 +264,9 @@ public class LocationHelper implements BaseLocationProvider.Listener
                       + " downgrading to use native provider");
     mLocationProvider.stop();
     mLocationProvider = new AndroidNativeProvider(mContext, this);
+    mLocationFilters.reset();
     mActive = true;
-    mLocationProvider.start(mInterval);
+    startProvider();
   }
 
   // RouteSimulationProvider doesn't really require location permissions.
@@ -265,8 +276,9 @@ public class LocationHelper implements BaseLocationProvider.Listener
     Logger.i(TAG);
     mLocationProvider.stop();
     mLocationProvider = new RouteSimulationProvider(mContext, this, points);
+    mLocationFilters.reset();
     mActive = true;
-    mLocationProvider.start(mInterval);
+    startProvider();
   }
 
   @Override
@@ -299,6 +311,17 @@ public class LocationHelper implements BaseLocationProvider.Listener
       listener.onLocationUpdated(mSavedLocation);
   }
 
+  /**
+   * Adds the stage to the end of the location pipeline, fixes dropped by the previous stages don't reach it.
+   *
+   * @param name used in the pipeline statistics.
+   */
+  @UiThread
+  public void addLocationFilter(@NonNull String name, @NonNull LocationFilter filter)
+  {
+    mLocationFilters.add(name, filter);
+  }
+
   /**
    * Removes given location listener.
    * @param listener listener to unregister.
@@ -310,21 +333,13 @@ public class LocationHelper implements BaseLocationProvider.Listener
     mListeners.removeObserver(listener);
   }
 
-  private long calcLocationUpdatesInterval()
+  /**
+   * @return the current sampling of the location and the compass, or null if it has not been started yet.
+   */
+  @Nullable
+  public SamplingGovernor.Decision getSamplingDecision()
   {
-    if (RoutingController.get().isNavigating())
-      return INTERVAL_NAVIGATION_MS;
-
-    if (TrackRecorder.nativeIsTrackRecordingEnabled())
-      return INTERVAL_TRACK_RECORDING;
-
-    final int mode = Map.isEngineCreated() ? LocationState.getMode() : LocationState.NOT_FOLLOW_NO_POSITION;
-    return switch (mode)
-    {
-      case LocationState.PENDING_POSITION, LocationState.FOLLOW, LocationState.FOLLOW_AND_ROTATE -> INTERVAL_FOLLOW_MS;
-      case LocationState.NOT_FOLLOW, LocationState.NOT_FOLLOW_NO_POSITION -> INTERVAL_NOT_FOLLOW_MS;
-      default -> throw new IllegalArgumentException("Unsupported location mode: " + mode);
-    };
+    return mSampling;
   }
 
   /**
@@ -339,14 +354,59 @@ public class LocationHelper implements BaseLocationProvider.Listener
       return;
     }
 
-    final long newInterval = calcLocationUpdatesInterval();
-    if (newInterval == mInterval)
+    updateSampling(false);
+  }
+
+  /**
+   * Applies the new sampling decision. Faster sampling is applied at once, slower one not often than
+   * {@link #MIN_SAMPLING_SLOWDOWN_MS} if it is caused by a location update.
+   */
+  // The location provider is active, so the permission is granted.
+  @SuppressLint("MissingPermission")
+  private void updateSampling(boolean byLocation)
+  {
+    if (!isActive())
+      return;
+
+    final SamplingGovernor.Decision sampling = mSamplingGovernor.decide(mSavedLocation);
+    updateCompass(sampling);
+    if (sampling.isSameLocationRequest(mSampling))
+    {
+      mSampling = sampling;
+      return;
+    }
+
+    final long now = SystemClock.elapsedRealtime();
+    if (byLocation && mSampling != null && sampling.intervalMs() > mSampling.intervalMs()
+        && now - mSamplingTime < MIN_SAMPLING_SLOWDOWN_MS)
       return;
 
-    Logger.i(TAG, "update refresh interval: old = " + mInterval + " new = " + newInterval);
+    Logger.i(TAG, "update sampling: old = " + mSampling + " new = " + sampling);
+    mSampling = sampling;
+    mSamplingTime = now;
     mLocationProvider.stop();
-    mInterval = newInterval;
-    mLocationProvider.start(newInterval);
+    startProvider();
+  }
+
+  private void updateCompass(@NonNull SamplingGovernor.Decision sampling)
+  {
+    if (!LocationUtils.checkFineLocationPermission(mContext))
+      return;
+    if (sampling.compassDelay() == SamplingGovernor.COMPASS_OFF)
+      mSensorHelper.stop();
+    else
+      mSensorHelper.start(sampling.compassDelay());
+  }
+
+  @RequiresPermission(anyOf = {ACCESS_COARSE_LOCATION, ACCESS_FINE_LOCATION})
+  private void startProvider()
+  {
+    if (mSampling == null)
+    {
+      mSampling = mSamplingGovernor.decide(mSavedLocation);
+      mSamplingTime = SystemClock.elapsedRealtime();
+    }
+    mLocationProvider.start(mSampling.intervalMs(), mSampling.quality());
   }
 
   /**
@@ -364,15 +424,16 @@ public class LocationHelper implements BaseLocationProvider.Listener
     Logger.i(TAG);
     checkForAgpsUpdates();
 
-    if (LocationUtils.checkFineLocationPermission(mContext))
-      mSensorHelper.start();
-
-    final long oldInterval = mInterval;
-    mInterval = calcLocationUpdatesInterval();
+    mSamplingGovernor.start(() -> updateSampling(false));
+    final SamplingGovernor.Decision oldSampling = mSampling;
+    mSampling = mSamplingGovernor.decide(mSavedLocation);
+    mSamplingTime = SystemClock.elapsedRealtime();
+    updateCompass(mSampling);
     Logger.i(TAG, "provider = " + mLocationProvider.getClass().getSimpleName() + " mInFirstRun = " + mInFirstRun
-                      + " oldInterval = " + oldInterval + " interval = " + mInterval);
+                      + " oldSampling = " + oldSampling + " sampling = " + mSampling);
+    mLocationFilters.reset();
     mActive = true;
-    mLocationProvider.start(mInterval);
+    startProvider();
     mHandler.postDelayed(mLocationTimeoutRunnable, LOCATION_UPDATE_TIMEOUT_MS);
     subscribeToGnssStatusUpdates();
   }
@@ -388,8 +449,9 @@ public class LocationHelper implements BaseLocationProvider.Listener
       return;
     }
 
-    Logger.i(TAG);
+    Logger.i(TAG, "Location filters in/out: " + mLocationFilters.getStats());
     mLocationProvider.stop();
+    mSamplingGovernor.stop();
     unsubscribeFromGnssStatusUpdates();
     mSensorHelper.stop();
     mHandler.removeCallbacks(mLocationTimeoutRunnable);
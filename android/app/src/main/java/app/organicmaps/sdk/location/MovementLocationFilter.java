@@ -0,0 +1,52 @@
+package app.organicmaps.sdk.location;
+
+import android.location.Location;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+
+/**
+ * Drops fixes which don't tell anything new while the device stands still.
+ * <p>
+ * A fix is passed if it is moved far enough from the last passed one, or has speed, or is notably more accurate.
+ * Fixes are still passed from time to time, so that the location is not reported as lost.
+ */
+@UiThread
+final class MovementLocationFilter implements LocationFilter
+{
+  private static final float MIN_DISTANCE_M = 2.0f;
+  private static final float STATIONARY_SPEED_MPS = 0.5f;
+  private static final float MIN_ACCURACY_GAIN_M = 2.0f;
+  // Shorter than the longest sampling interval of SamplingGovernor, so that fixes of a standing device are
+  // not dropped every other time.
+  private static final long MAX_SILENCE_NANOS = LocationHelper.LOCATION_UPDATE_TIMEOUT_MS / 6 * 1_000_000L;
+
+  @Nullable
+  private Location mLast;
+
+  @Nullable
+  @Override
+  public Location filter(@NonNull Location location)
+  {
+    if (mLast == null || isNew(location, mLast))
+    {
+      mLast = location;
+      return location;
+    }
+    return null;
+  }
+
+  private static boolean isNew(@NonNull Location location, @NonNull Location last)
+  {
+    return location.getElapsedRealtimeNanos() - last.getElapsedRealtimeNanos() >= MAX_SILENCE_NANOS
+        || location.getSpeed() >= STATIONARY_SPEED_MPS
+        || location.getAccuracy() < last.getAccuracy() - MIN_ACCURACY_GAIN_M
+        || location.distanceTo(last) >= MIN_DISTANCE_M;
+  }
+
+  @Override
+  public void reset()
+  {
+    mLast = null;
+  }
+}
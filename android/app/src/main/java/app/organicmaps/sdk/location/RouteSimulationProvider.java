@@ -25,7 +25,7 @@ class RouteSimulationProvider extends BaseLocationProvider
   }
 
   @Override
-  public void start(long interval)
+  public void start(long interval, int quality)
   {
     Logger.i(TAG);
     if (mActive)
@@ -0,0 +1,224 @@
+package app.organicmaps.sdk.location;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.hardware.SensorManager;
+import android.location.Location;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+import androidx.core.location.LocationRequestCompat;
+import app.organicmaps.MwmApplication;
+import app.organicmaps.routing.RouteProgressPublisher;
+import app.organicmaps.routing.RoutingController;
+import app.organicmaps.sdk.Map;
+import app.organicmaps.sdk.routing.RoutingInfo;
+import app.organicmaps.sdk.util.BatteryState;
+import app.organicmaps.sdk.util.log.Logger;
+
+/**
+ * Chooses how often the location and the compass are sampled.
+ * <p>
+ * The location interval depends on what the location is used for, on the speed, on the distance to the next
+ * maneuver during navigation, on whether the map is shown on the phone or on a car screen, and on the battery.
+ * Changes of the screen and the battery state are reported by {@link #start(Runnable)}.
+ */
+@UiThread
+public final class SamplingGovernor
+{
+  /**
+   * @param quality one of LocationRequestCompat.QUALITY_* constants.
+   * @param compassDelay one of SensorManager.SENSOR_DELAY_* constants, or {@link #COMPASS_OFF}.
+   * @param reason the inputs which have led to the decision, for diagnostics.
+   */
+  public record Decision(long intervalMs, int quality, int compassDelay, @NonNull String reason)
+  {
+    boolean isSameLocationRequest(@Nullable Decision other)
+    {
+      return other != null && intervalMs == other.intervalMs && quality == other.quality;
+    }
+  }
+
+  public static final int COMPASS_OFF = -1;
+
+  private static final String TAG = LocationState.LOCATION_TAG;
+
+  private static final long INTERVAL_FOLLOW_MS = 0;
+  private static final long INTERVAL_FOLLOW_STATIONARY_MS = 1000;
+  private static final long INTERVAL_NOT_FOLLOW_MS = 3000;
+  private static final long INTERVAL_NAVIGATION_MS = 1000;
+  private static final long INTERVAL_TRACK_RECORDING_MS = 0;
+  private static final long INTERVAL_MOVING_MS = 1000;
+  private static final long INTERVAL_WALKING_MS = 3000;
+  // A lost fix must not make LocationHelper report that the location is lost. Must be longer than
+  // MovementLocationFilter.MAX_SILENCE_NANOS, so that fixes of a standing device are passed.
+  private static final long MAX_INTERVAL_MS = LocationHelper.LOCATION_UPDATE_TIMEOUT_MS / 3;
+  private static final long INTERVAL_STATIONARY_MS = MAX_INTERVAL_MS;
+  private static final long MAX_INTERVAL_NAVIGATION_MS = 5000;
+  // Locations per the time left to the next maneuver when nobody looks at the screen.
+  private static final int MANEUVER_SAMPLES = 10;
+
+  private static final float STATIONARY_SPEED_MPS = 0.5f;
+  private static final float WALKING_SPEED_MPS = 3.0f;
+  private static final int LOW_BATTERY_LEVEL = 15;
+  // The speed of an older location says nothing about the current one.
+  private static final long MAX_LOCATION_AGE_NANOS = 60_000_000_000L;
+
+  @NonNull
+  private final Context mContext;
+  @Nullable
+  private Runnable mOnChanged;
+  private boolean mScreenOn;
+  // Reading the battery state is a system call, so it is updated by the broadcasts only.
+  @NonNull
+  private BatteryState.State mBattery = new BatteryState.State(100, BatteryState.CHARGING_STATUS_UNKNOWN);
+  @NonNull
+  private final BroadcastReceiver mReceiver = new BroadcastReceiver() {
+    @Override
+    public void onReceive(Context context, Intent intent)
+    {
+      Logger.d(TAG, "action = " + intent.getAction());
+      if (Intent.ACTION_SCREEN_ON.equals(intent.getAction()))
+        mScreenOn = true;
+      else if (Intent.ACTION_SCREEN_OFF.equals(intent.getAction()))
+        mScreenOn = false;
+      else
+        mBattery = BatteryState.getState(mContext);
+      if (mOnChanged != null)
+        mOnChanged.run();
+    }
+  };
+
+  SamplingGovernor(@NonNull Context context)
+  {
+    mContext = context;
+  }
+
+  /**
+   * Starts listening to the screen and the battery state.
+   */
+  void start(@NonNull Runnable onChanged)
+  {
+    if (mOnChanged != null)
+      return;
+    mOnChanged = onChanged;
+    final PowerManager powerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
+    mScreenOn = powerManager == null || powerManager.isInteractive();
+    mBattery = BatteryState.getState(mContext);
+
+    final IntentFilter filter = new IntentFilter();
+    filter.addAction(Intent.ACTION_SCREEN_ON);
+    filter.addAction(Intent.ACTION_SCREEN_OFF);
+    filter.addAction(Intent.ACTION_BATTERY_LOW);
+    filter.addAction(Intent.ACTION_BATTERY_OKAY);
+    filter.addAction(Intent.ACTION_POWER_CONNECTED);
+    filter.addAction(Intent.ACTION_POWER_DISCONNECTED);
+    mContext.registerReceiver(mReceiver, filter);
+  }
+
+  void stop()
+  {
+    if (mOnChanged == null)
+      return;
+    mOnChanged = null;
+    mContext.unregisterReceiver(mReceiver);
+  }
+
+  @NonNull
+  Decision decide(@Nullable Location location)
+  {
+    final StringBuilder reason = new StringBuilder();
+    final boolean visible = mScreenOn || MwmApplication.from(mContext).getDisplayManager().isCarConnected();
+    reason.append(mScreenOn ? "screen on" : "screen off");
+    final float speed = isFresh(location) && location.hasSpeed() ? location.getSpeed() : -1;
+    reason.append(speed >= 0 ? ", speed " + speed + " m/s" : ", speed unknown");
+    final BatteryState.State battery = mBattery;
+    final boolean charging = battery.getChargingStatus() == BatteryState.CHARGING_STATUS_PLUGGED;
+    final boolean lowBattery = !charging && battery.getLevel() <= LOW_BATTERY_LEVEL;
+    reason.append(", battery ").append(battery.getLevel()).append(charging ? "% charging" : "%");
+
+    long interval;
+    int quality = LocationRequestCompat.QUALITY_HIGH_ACCURACY;
+    int compassDelay = SensorManager.SENSOR_DELAY_UI;
+    final boolean navigating = RoutingController.get().isNavigating();
+    if (navigating)
+    {
+      reason.append(", navigation");
+      interval = INTERVAL_NAVIGATION_MS;
+      final RoutingInfo info = RouteProgressPublisher.INSTANCE.getLast();
+      if (!visible && speed >= STATIONARY_SPEED_MPS && info != null && info.distToTurn.isValid())
+      {
+        // The maneuver is announced in time even if the location is sampled rarely far from it.
+        final double distance = info.distToTurn.getMeters();
+        reason.append(", ").append((long) distance).append(" m to the maneuver");
+        interval = (long) (distance / speed * 1000 / MANEUVER_SAMPLES);
+        interval = Math.max(INTERVAL_NAVIGATION_MS, Math.min(MAX_INTERVAL_NAVIGATION_MS, interval));
+      }
+      // The bearing is taken from the location while driving.
+      if (speed >= WALKING_SPEED_MPS)
+        compassDelay = SensorManager.SENSOR_DELAY_NORMAL;
+    }
+    else if (TrackRecorder.nativeIsTrackRecordingEnabled())
+    {
+      reason.append(", track recording");
+      if (charging || (visible && isFollowMode()))
+        interval = INTERVAL_TRACK_RECORDING_MS;
+      else
+        interval = getIntervalBySpeed(speed);
+    }
+    else if (isFollowMode())
+    {
+      reason.append(", follow");
+      interval = speed >= 0 && speed < STATIONARY_SPEED_MPS ? INTERVAL_FOLLOW_STATIONARY_MS : INTERVAL_FOLLOW_MS;
+    }
+    else
+    {
+      reason.append(", not follow");
+      interval = INTERVAL_NOT_FOLLOW_MS;
+      if (lowBattery)
+        quality = LocationRequestCompat.QUALITY_BALANCED_POWER_ACCURACY;
+    }
+
+    if (lowBattery)
+    {
+      final long maxInterval = navigating ? MAX_INTERVAL_NAVIGATION_MS : MAX_INTERVAL_MS;
+      interval = Math.min(maxInterval, Math.max(INTERVAL_MOVING_MS, interval * 2));
+      compassDelay = SensorManager.SENSOR_DELAY_NORMAL;
+    }
+    // Nobody sees the direction arrow.
+    if (!visible)
+      compassDelay = COMPASS_OFF;
+
+    return new Decision(interval, quality, compassDelay, reason.toString());
+  }
+
+  private static boolean isFresh(@Nullable Location location)
+  {
+    return location != null
+        && SystemClock.elapsedRealtimeNanos() - location.getElapsedRealtimeNanos() < MAX_LOCATION_AGE_NANOS;
+  }
+
+  private static long getIntervalBySpeed(float speed)
+  {
+    if (speed < 0 || speed >= WALKING_SPEED_MPS)
+      return INTERVAL_MOVING_MS;
+    if (speed < STATIONARY_SPEED_MPS)
+      return INTERVAL_STATIONARY_MS;
+    return INTERVAL_WALKING_MS;
+  }
+
+  private static boolean isFollowMode()
+  {
+    final int mode = Map.isEngineCreated() ? LocationState.getMode() : LocationState.NOT_FOLLOW_NO_POSITION;
+    return switch (mode)
+    {
+      case LocationState.PENDING_POSITION, LocationState.FOLLOW, LocationState.FOLLOW_AND_ROTATE -> true;
+      case LocationState.NOT_FOLLOW, LocationState.NOT_FOLLOW_NO_POSITION -> false;
+      default -> throw new IllegalArgumentException("Unsupported location mode: " + mode);
+    };
+  }
+}
@@ -29,6 +29,7 @@ public class SensorHelper implements SensorEventListener
   private int mLastAccuracy = -42;
   private double mSavedNorth = Double.NaN;
   private int mRotation = 0;
+  private int mSamplingPeriodUs = SensorManager.SENSOR_DELAY_UI;
 
   @NonNull
   private final Set<SensorListener> mListeners = new LinkedHashSet<>();
@@ -121,10 +122,27 @@ public class SensorHelper implements SensorEventListener
   }
 
   public void start()
+  {
+    start(SensorManager.SENSOR_DELAY_UI);
+  }
+
+  /**
+   * Starts the compass, or changes the rate of the started one.
+   * @param samplingPeriodUs one of SensorManager.SENSOR_DELAY_* constants.
+   */
+  public void start(int samplingPeriodUs)
   {
     if (mRotationVectorSensor != null)
     {
-      Logger.d(TAG, "Already started");
+      if (samplingPeriodUs == mSamplingPeriodUs)
+      {
+        Logger.d(TAG, "Already started");
+        return;
+      }
+      Logger.d(TAG, "samplingPeriodUs = " + samplingPeriodUs);
+      mSamplingPeriodUs = samplingPeriodUs;
+      mSensorManager.unregisterListener(this);
+      mSensorManager.registerListener(this, mRotationVectorSensor, samplingPeriodUs);
       return;
     }
 
@@ -141,8 +159,9 @@ public class SensorHelper implements SensorEventListener
       }
     }
 
-    Logger.d(TAG);
-    mSensorManager.registerListener(this, mRotationVectorSensor, SensorManager.SENSOR_DELAY_UI);
+    Logger.d(TAG, "samplingPeriodUs = " + samplingPeriodUs);
+    mSamplingPeriodUs = samplingPeriodUs;
+    mSensorManager.registerListener(this, mRotationVectorSensor, samplingPeriodUs);
   }
 
   public void stop()
@@ -0,0 +1,13 @@
+package app.organicmaps.sdk.routing;
+
+import androidx.annotation.Keep;
+import androidx.annotation.MainThread;
+
+public interface RouteFinishedListener
+{
+  // Called from JNI.
+  @Keep
+  @SuppressWarnings("unused")
+  @MainThread
+  void onRouteFinished();
+}
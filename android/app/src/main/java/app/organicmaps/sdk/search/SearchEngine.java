@@ -6,7 +6,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import app.organicmaps.sdk.Framework;
 import app.organicmaps.sdk.util.Language;
-import app.organicmaps.sdk.util.concurrency.UiThread;
+import app.organicmaps.sdk.util.concurrency.CoalescingDispatcher;
 import java.nio.charset.StandardCharsets;
 import org.chromium.base.ObserverList;
 
@@ -15,6 +15,14 @@ public enum SearchEngine implements SearchListener, MapSearchListener,
 {
   INSTANCE;
 
+  // Keys of coalesced updates. Results of one search are cumulative, so only the latest update matters.
+  private record UpdateKey(int type, long timestamp)
+  {}
+
+  private static final int RESULTS_UPDATE = 0;
+  private static final int RESULTS_END = 1;
+  private static final int MAP_RESULTS = 2;
+
   // Query, which results are shown on the map.
   @Nullable
   private String mQuery;
@@ -22,7 +30,7 @@ public enum SearchEngine implements SearchListener, MapSearchListener,
   @Override
   public void onResultsUpdate(@NonNull final SearchResult[] results, final long timestamp)
   {
-    UiThread.run(() -> {
+    CoalescingDispatcher.INSTANCE.post(new UpdateKey(RESULTS_UPDATE, timestamp), () -> {
       for (SearchListener listener : mListeners)
         listener.onResultsUpdate(results, timestamp);
     });
@@ -31,7 +39,8 @@ public enum SearchEngine implements SearchListener, MapSearchListener,
   @Override
   public void onResultsEnd(final long timestamp)
   {
-    UiThread.run(() -> {
+    // Goes through the dispatcher too, to be delivered after the last update.
+    CoalescingDispatcher.INSTANCE.post(new UpdateKey(RESULTS_END, timestamp), () -> {
       for (SearchListener listener : mListeners)
         listener.onResultsEnd(timestamp);
     });
@@ -41,7 +50,8 @@ public enum SearchEngine implements SearchListener, MapSearchListener,
   public void onMapSearchResults(@NonNull final MapSearchListener.Result[] results, final long timestamp,
                                  final boolean isLast)
   {
-    UiThread.run(() -> {
+    // The last update of a search is never superseded, so isLast is always delivered.
+    CoalescingDispatcher.INSTANCE.post(new UpdateKey(MAP_RESULTS, timestamp), () -> {
       for (MapSearchListener listener : mMapListeners)
         listener.onMapSearchResults(results, timestamp, isLast);
     });
@@ -183,11 +193,17 @@ public enum SearchEngine implements SearchListener, MapSearchListener,
     nativeCancelAllSearches();
   }
 
+  /**
+   * @param timestamp of the search whose results contain the index.
+   * @return false if the results have already been replaced by another search, nothing is shown then.
+   */
   @MainThread
-  public void showResult(int index)
+  public boolean showResult(int index, long timestamp)
   {
+    if (!nativeShowResult(index, timestamp))
+      return false;
     mQuery = "";
-    nativeShowResult(index);
+    return true;
   }
 
   @MainThread
@@ -223,7 +239,7 @@ public enum SearchEngine implements SearchListener, MapSearchListener,
 
   private static native boolean nativeRunSearchInBookmarks(byte[] bytes, long categoryId, long timestamp);
 
-  private static native void nativeShowResult(int index);
+  private static native boolean nativeShowResult(int index, long timestamp);
 
   private static native void nativeCancelInteractiveSearch();
 
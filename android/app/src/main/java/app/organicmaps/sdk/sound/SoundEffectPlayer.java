@@ -0,0 +1,190 @@
+package app.organicmaps.sdk.sound;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.MediaMetadataRetriever;
+import android.media.SoundPool;
+import android.os.SystemClock;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import androidx.annotation.NonNull;
+import androidx.annotation.RawRes;
+import app.organicmaps.sdk.util.concurrency.ThreadPool;
+import app.organicmaps.sdk.util.concurrency.UiThread;
+import app.organicmaps.sdk.util.log.Logger;
+import java.io.IOException;
+
+/**
+ * Plays short navigation cues like the speed camera beep.
+ * <p>
+ * All cues are decoded into a {@link SoundPool} when the player is created, so playback starts without decoding.
+ * A cue holds the voice guidance of {@link TtsPlayer} until it ends. Cues which were requested before their decoding
+ * has finished are played only if they are not late for more than {@link #MAX_PENDING_MS}.
+ * <p>
+ * Must be used from the UI thread only.
+ */
+public class SoundEffectPlayer
+{
+  private static final String TAG = SoundEffectPlayer.class.getSimpleName();
+
+  // A late warning is worse than a missed one.
+  private static final long MAX_PENDING_MS = 500;
+  // Used until the real duration is known.
+  private static final long DEFAULT_CUE_DURATION_MS = 500;
+  private static final int NO_SOUND = 0;
+
+  @NonNull
+  private final SoundPool mPool;
+  @NonNull
+  private final AudioFocusManager mAudioFocusManager;
+  // Resource id -> SoundPool sound id.
+  private final SparseIntArray mSounds = new SparseIntArray();
+  // SoundPool sound id -> decoding time, set when the sound is ready.
+  private final SparseArray<Long> mLoaded = new SparseArray<>();
+  // Resource id -> duration of the cue.
+  private final SparseArray<Long> mDurations = new SparseArray<>();
+  private final long mCreationTime = SystemClock.elapsedRealtime();
+  private int mPendingSound = NO_SOUND;
+  private long mPendingTime;
+  private boolean mReleased;
+  @NonNull
+  private final Runnable mReleaseAudioFocusTask;
+
+  public SoundEffectPlayer(@NonNull Context context, @RawRes int... resIds)
+  {
+    mPool = new SoundPool.Builder()
+                .setMaxStreams(1)
+                .setAudioAttributes(new AudioAttributes.Builder()
+                                        .setUsage(AudioAttributes.USAGE_ASSISTANCE_NAVIGATION_GUIDANCE)
+                                        .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                                        .build())
+                .build();
+    mAudioFocusManager = new AudioFocusManager(context);
+    mReleaseAudioFocusTask = mAudioFocusManager::releaseAudioFocus;
+    // Called on the UI thread, as the player is created there.
+    mPool.setOnLoadCompleteListener(this::onLoadComplete);
+
+    for (int resId : resIds)
+      mSounds.put(resId, mPool.load(context, resId, 1));
+
+    final Context appContext = context.getApplicationContext();
+    ThreadPool.getWorker().execute(() -> {
+      for (int resId : resIds)
+      {
+        final long duration = getDuration(appContext, resId);
+        UiThread.run(() -> mDurations.put(resId, duration));
+      }
+    });
+  }
+
+  /**
+   * Plays the cue at once, or when it is decoded.
+   */
+  public void play(@RawRes int resId)
+  {
+    final int soundId = mSounds.get(resId, NO_SOUND);
+    if (mReleased || soundId == NO_SOUND)
+    {
+      Logger.w(TAG, "Cue " + resId + " is not loaded");
+      return;
+    }
+
+    if (mLoaded.get(soundId) == null)
+    {
+      Logger.w(TAG, "Cue " + resId + " is not decoded yet");
+      mPendingSound = soundId;
+      mPendingTime = SystemClock.elapsedRealtime();
+      return;
+    }
+    playSound(resId, soundId, SystemClock.elapsedRealtime());
+  }
+
+  public void stop()
+  {
+    mPendingSound = NO_SOUND;
+    mPool.autoPause();
+    UiThread.cancelDelayedTasks(mReleaseAudioFocusTask);
+    mAudioFocusManager.releaseAudioFocus();
+  }
+
+  public void release()
+  {
+    if (mReleased)
+      return;
+    stop();
+    mReleased = true;
+    mPool.release();
+  }
+
+  private void onLoadComplete(@NonNull SoundPool pool, int soundId, int status)
+  {
+    if (mReleased)
+      return;
+    if (status != 0)
+    {
+      Logger.e(TAG, "Failed to decode sound " + soundId + ", status " + status);
+      return;
+    }
+    final long now = SystemClock.elapsedRealtime();
+    mLoaded.put(soundId, now);
+    Logger.i(TAG, "Sound " + soundId + " is decoded in " + (now - mCreationTime) + " ms");
+
+    if (mPendingSound != soundId)
+      return;
+    mPendingSound = NO_SOUND;
+    final int resId = mSounds.keyAt(mSounds.indexOfValue(soundId));
+    if (now - mPendingTime > MAX_PENDING_MS)
+      Logger.w(TAG, "Cue " + resId + " is dropped, it is late for " + (now - mPendingTime) + " ms");
+    else
+      playSound(resId, soundId, mPendingTime);
+  }
+
+  private void playSound(@RawRes int resId, int soundId, long requestTime)
+  {
+    final long duration = mDurations.get(resId, DEFAULT_CUE_DURATION_MS);
+    // The voice waits for the cue. A cue can't wait for the voice, it would be late.
+    TtsPlayer.INSTANCE.holdSpeech(duration);
+    UiThread.cancelDelayedTasks(mReleaseAudioFocusTask);
+    mAudioFocusManager.requestAudioFocus();
+
+    final int streamId = mPool.play(soundId, 1.0f, 1.0f, 1, 0, 1.0f);
+    final long now = SystemClock.elapsedRealtime();
+    if (streamId == 0)
+    {
+      Logger.e(TAG, "Failed to play cue " + resId);
+      mAudioFocusManager.releaseAudioFocus();
+      return;
+    }
+    Logger.i(TAG, "Cue " + resId + " is started in " + (now - requestTime) + " ms after the request");
+    UiThread.runLater(mReleaseAudioFocusTask, duration);
+  }
+
+  private static long getDuration(@NonNull Context context, @RawRes int resId)
+  {
+    final MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+    try (AssetFileDescriptor afd = context.getResources().openRawResourceFd(resId))
+    {
+      retriever.setDataSource(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength());
+      final String duration = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+      if (duration != null)
+        return Long.parseLong(duration);
+    }
+    catch (IOException | RuntimeException e)
+    {
+      Logger.e(TAG, "Failed to get duration of " + resId, e);
+    }
+    finally
+    {
+      try
+      {
+        retriever.release();
+      }
+      catch (IOException e)
+      {
+        Logger.w(TAG, "Failed to release retriever", e);
+      }
+    }
+    return DEFAULT_CUE_DURATION_MS;
+  }
+}
@@ -6,6 +6,7 @@ import android.database.ContentObserver;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.provider.Settings;
 import android.speech.tts.TextToSpeech;
 import android.speech.tts.UtteranceProgressListener;
@@ -54,6 +55,8 @@ public enum TtsPlayer
   private final Bundle mParams = new Bundle();
 
   private final Handler delayHandler = new Handler(Looper.getMainLooper());
+  // Speech doesn't start before this time, see holdSpeech().
+  private long mSpeechHoldUntil;
 
   @SuppressWarnings("NotNullFieldNotInitialized")
   @NonNull
@@ -229,9 +232,10 @@ public enum TtsPlayer
       try
       {
         boolean isMusicActive = mAudioFocusManager.requestAudioFocus();
-        if (isMusicActive)
-          delayHandler.postDelayed(
-              () -> mTts.speak(textToSpeak, TextToSpeech.QUEUE_ADD, mParams, textToSpeak), TTS_SPEAK_DELAY_MILLIS);
+        final long delay =
+            Math.max(isMusicActive ? TTS_SPEAK_DELAY_MILLIS : 0, mSpeechHoldUntil - SystemClock.uptimeMillis());
+        if (delay > 0)
+          delayHandler.postDelayed(() -> mTts.speak(textToSpeak, TextToSpeech.QUEUE_ADD, mParams, textToSpeak), delay);
         else
           mTts.speak(textToSpeak, TextToSpeech.QUEUE_ADD, mParams, textToSpeak);
       }
@@ -241,6 +245,14 @@ public enum TtsPlayer
       }
   }
 
+  /**
+   * Postpones the speech which is not started yet, so that it doesn't overlap a sound cue.
+   */
+  void holdSpeech(long durationMillis)
+  {
+    mSpeechHoldUntil = Math.max(mSpeechHoldUntil, SystemClock.uptimeMillis() + durationMillis);
+  }
+
   public void playTurnNotifications(@NonNull String[] turnNotifications)
   {
     if (isReady())
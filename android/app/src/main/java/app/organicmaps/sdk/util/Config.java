@@ -11,12 +11,19 @@ import app.organicmaps.util.ThemeUtils;
 
 public final class Config
 {
+  public interface OnChangeListener
+  {
+    // Called on the thread which has changed the setting.
+    void onConfigChanged(@NonNull String key);
+  }
+
   @NonNull
   private static SharedPreferences getPrefs(@NonNull Context context) {
     return PreferenceManager.getDefaultSharedPreferences(context);
   }
 
   private static final String KEY_APP_STORAGE = "StoragePath";
+  private static final String KEY_APP_MAP_DATA_PROBE = "MapDataProbe";
 
   private static final String KEY_DOWNLOADER_AUTO = "AutoDownloadEnabled";
   private static final String KEY_PREF_ZOOM_BUTTONS = "ZoomButtonsEnabled";
@@ -61,22 +68,23 @@ public final class Config
   private static final String KEY_MISC_FIRST_START_DIALOG_SEEN = "FirstStartDialogSeen";
 
   private static SharedPreferences mPrefs;
+  private static final ConfigCache sCache = new ConfigCache();
 
   private Config() {}
 
   private static int getInt(String key, int def)
   {
-    return nativeGetInt(key, def);
+    return sCache.getInt(key, def);
   }
 
   private static long getLong(String key, long def)
   {
-    return nativeGetLong(key, def);
+    return sCache.getLong(key, def);
   }
 
   private static float getFloat(@NonNull final String key, final float def)
   {
-    return (float) nativeGetDouble(key, def);
+    return (float) sCache.getDouble(key, def);
   }
 
   @NonNull
@@ -88,7 +96,7 @@ public final class Config
   @NonNull
   private static String getString(String key, String def)
   {
-    return nativeGetString(key, def);
+    return sCache.getString(key, def);
   }
 
   private static boolean getBool(String key)
@@ -98,27 +106,27 @@ public final class Config
 
   private static boolean getBool(String key, boolean def)
   {
-    return nativeGetBoolean(key, def);
+    return sCache.getBoolean(key, def);
   }
 
   private static void setInt(String key, int value)
   {
-    nativeSetInt(key, value);
+    sCache.putInt(key, value);
   }
 
   private static void setLong(String key, long value)
   {
-    nativeSetLong(key, value);
+    sCache.putLong(key, value);
   }
 
   private static void setFloat(@NonNull final String key, final float value)
   {
-    nativeSetDouble(key, value);
+    sCache.putDouble(key, value);
   }
 
   private static void setString(String key, String value)
   {
-    nativeSetString(key, value);
+    sCache.putString(key, value);
   }
 
   private static void setBool(String key)
@@ -128,7 +136,25 @@ public final class Config
 
   private static void setBool(String key, boolean value)
   {
-    nativeSetBoolean(key, value);
+    sCache.putBoolean(key, value);
+  }
+
+  public static void addOnChangeListener(@NonNull OnChangeListener listener)
+  {
+    sCache.addListener(listener);
+  }
+
+  public static void removeOnChangeListener(@NonNull OnChangeListener listener)
+  {
+    sCache.removeListener(listener);
+  }
+
+  /**
+   * Stores pending changes of the core settings right away, they are written asynchronously otherwise.
+   */
+  public static void flush()
+  {
+    sCache.flush();
   }
 
   public static String getStoragePath()
@@ -139,6 +165,22 @@ public final class Config
   public static void setStoragePath(String path)
   {
     setString(KEY_APP_STORAGE, path);
+    // Maps are looked up in this path at the next start, even if the app is killed right after the move.
+    flush();
+  }
+
+  /**
+   * @return path of a map file which was found at the last start, see StoragePathManager.
+   */
+  @NonNull
+  public static String getMapDataProbe()
+  {
+    return getString(KEY_APP_MAP_DATA_PROBE);
+  }
+
+  public static void setMapDataProbe(@NonNull String path)
+  {
+    setString(KEY_APP_MAP_DATA_PROBE, path);
   }
 
   public static boolean isAutodownloadEnabled()
@@ -330,7 +372,8 @@ public final class Config
   @SuppressWarnings("ConstantConditions") // BuildConfig
   public static String getDonateUrl(@NonNull Context context)
   {
-    final String url = getString(KEY_DONATE_URL);
+    // Not cached: the core updates it from the server config.
+    final String url = nativeGetString(KEY_DONATE_URL, "");
     // Enable donations by default if not Google or Huawei. Replace comaps.app/donate/ with localized page.
     if ((url.isEmpty() && !BuildConfig.FLAVOR.equals("google") && !BuildConfig.FLAVOR.equals("huawei"))
         || url.endsWith("comaps.app/donate/"))
@@ -342,6 +385,15 @@ public final class Config
   {
     PreferenceManager.setDefaultValues(context, R.xml.prefs_main, false);
 
+    // Load all core settings used by the app in one call, dozens of them are read during startup.
+    sCache.preload(new String[] {KEY_APP_STORAGE, KEY_APP_MAP_DATA_PROBE, KEY_DOWNLOADER_AUTO, KEY_PREF_ZOOM_BUTTONS,
+                                 KEY_PREF_USE_GS, KEY_MISC_DISCLAIMER_ACCEPTED, KEY_MISC_LOCATION_REQUESTED,
+                                 KEY_MISC_UI_THEME, KEY_MISC_UI_THEME_SETTINGS, KEY_MISC_USE_MOBILE_DATA,
+                                 KEY_MISC_USE_MOBILE_DATA_TIMESTAMP, KEY_MISC_USE_MOBILE_DATA_ROAMING,
+                                 KEY_MISC_KEEP_SCREEN_ON, KEY_MISC_SHOW_ON_LOCK_SCREEN, KEY_MISC_AGPS_TIMESTAMP,
+                                 KEY_PREF_SEARCH_HISTORY, TTS.Keys.ENABLED, TTS.Keys.LANGUAGE, TTS.Keys.VOLUME,
+                                 TTS.Keys.STREETS});
+
     mPrefs = prefs;
     final SharedPreferences.Editor editor = mPrefs.edit();
 
@@ -362,10 +414,10 @@ public final class Config
 
     // Migrate ENABLE_SCREEN_SLEEP to KEEP_SCREEN_ON.
     final String KEY_MISC_ENABLE_SCREEN_SLEEP = "EnableScreenSleep";
-    if (nativeHasConfigValue(KEY_MISC_ENABLE_SCREEN_SLEEP))
+    if (sCache.contains(KEY_MISC_ENABLE_SCREEN_SLEEP))
     {
-      nativeSetBoolean(KEY_MISC_KEEP_SCREEN_ON, !getBool(KEY_MISC_ENABLE_SCREEN_SLEEP, false));
-      nativeDeleteConfigValue(KEY_MISC_ENABLE_SCREEN_SLEEP);
+      setBool(KEY_MISC_KEEP_SCREEN_ON, !getBool(KEY_MISC_ENABLE_SCREEN_SLEEP, false));
+      sCache.remove(KEY_MISC_ENABLE_SCREEN_SLEEP);
     }
 
     editor.apply();
@@ -454,18 +506,7 @@ public final class Config
     }
   }
 
-  private static native boolean nativeHasConfigValue(String name);
-  private static native boolean nativeDeleteConfigValue(String name);
-  private static native boolean nativeGetBoolean(String name, boolean defaultValue);
-  private static native void nativeSetBoolean(String name, boolean value);
-  private static native int nativeGetInt(String name, int defaultValue);
-  private static native void nativeSetInt(String name, int value);
-  private static native long nativeGetLong(String name, long defaultValue);
-  private static native void nativeSetLong(String name, long value);
-  private static native double nativeGetDouble(String name, double defaultValue);
-  private static native void nativeSetDouble(String name, double value);
   private static native String nativeGetString(String name, String defaultValue);
-  private static native void nativeSetString(String name, String value);
   private static native boolean nativeGetLargeFontsSize();
   private static native void nativeSetLargeFontsSize(boolean value);
   private static native boolean nativeGetTransliteration();
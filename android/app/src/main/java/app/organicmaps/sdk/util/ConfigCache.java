@@ -0,0 +1,232 @@
+package app.organicmaps.sdk.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import app.organicmaps.sdk.util.concurrency.ThreadPool;
+import app.organicmaps.sdk.util.log.Logger;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * In-memory snapshot of the core settings used by {@link Config}.
+ * <p>
+ * Values are kept in the string form of the core settings storage, so they are parsed exactly like the core
+ * does it. Known keys are loaded by one call at startup and reads don't cross JNI after that. Writes update
+ * the snapshot at once and are stored in batches on the storage thread, since the core rewrites the whole
+ * settings file on every change.
+ */
+@ThreadSafe
+final class ConfigCache
+{
+  private static final String TAG = ConfigCache.class.getSimpleName();
+
+  // Null values mark keys which are known to be absent in the storage.
+  private final Map<String, String> mValues = new HashMap<>();
+  private final Map<String, String> mPending = new LinkedHashMap<>();
+  private boolean mFlushScheduled;
+  // Keeps batches in order if several flushes run at once.
+  private final Object mStoreLock = new Object();
+  private final List<Config.OnChangeListener> mListeners = new CopyOnWriteArrayList<>();
+
+  void preload(@NonNull String[] names)
+  {
+    final String[] values = nativeGetValues(names);
+    synchronized (this)
+    {
+      for (int i = 0; i < names.length; ++i)
+      {
+        if (!mValues.containsKey(names[i]))
+          mValues.put(names[i], values[i]);
+      }
+    }
+  }
+
+  boolean contains(@NonNull String name)
+  {
+    return get(name) != null;
+  }
+
+  boolean getBoolean(@NonNull String name, boolean def)
+  {
+    final String value = get(name);
+    if ("true".equals(value))
+      return true;
+    if ("false".equals(value))
+      return false;
+    return def;
+  }
+
+  int getInt(@NonNull String name, int def)
+  {
+    final String value = get(name);
+    if (value != null)
+    {
+      try
+      {
+        return Integer.parseInt(value.trim());
+      }
+      catch (NumberFormatException e)
+      {
+        Logger.w(TAG, "Invalid int value " + value + " of " + name);
+      }
+    }
+    return def;
+  }
+
+  long getLong(@NonNull String name, long def)
+  {
+    final String value = get(name);
+    if (value != null)
+    {
+      try
+      {
+        return Long.parseLong(value.trim());
+      }
+      catch (NumberFormatException e)
+      {
+        Logger.w(TAG, "Invalid long value " + value + " of " + name);
+      }
+    }
+    return def;
+  }
+
+  double getDouble(@NonNull String name, double def)
+  {
+    final String value = get(name);
+    if (value != null)
+    {
+      try
+      {
+        return Double.parseDouble(value.trim());
+      }
+      catch (NumberFormatException e)
+      {
+        Logger.w(TAG, "Invalid double value " + value + " of " + name);
+      }
+    }
+    return def;
+  }
+
+  @NonNull
+  String getString(@NonNull String name, @NonNull String def)
+  {
+    final String value = get(name);
+    return value != null ? value : def;
+  }
+
+  void putBoolean(@NonNull String name, boolean value)
+  {
+    put(name, value ? "true" : "false");
+  }
+
+  void putInt(@NonNull String name, int value)
+  {
+    put(name, String.valueOf(value));
+  }
+
+  void putLong(@NonNull String name, long value)
+  {
+    put(name, String.valueOf(value));
+  }
+
+  void putDouble(@NonNull String name, double value)
+  {
+    put(name, String.valueOf(value));
+  }
+
+  void putString(@NonNull String name, @NonNull String value)
+  {
+    // The core storage doesn't keep empty values.
+    put(name, value.isEmpty() ? null : value);
+  }
+
+  void remove(@NonNull String name)
+  {
+    put(name, null);
+  }
+
+  void addListener(@NonNull Config.OnChangeListener listener)
+  {
+    mListeners.add(listener);
+  }
+
+  void removeListener(@NonNull Config.OnChangeListener listener)
+  {
+    mListeners.remove(listener);
+  }
+
+  /**
+   * Stores pending changes on the calling thread.
+   */
+  void flush()
+  {
+    synchronized (mStoreLock)
+    {
+      final String[] names;
+      final String[] values;
+      synchronized (this)
+      {
+        mFlushScheduled = false;
+        if (mPending.isEmpty())
+          return;
+        names = mPending.keySet().toArray(new String[0]);
+        values = mPending.values().toArray(new String[0]);
+        mPending.clear();
+      }
+      nativeSetValues(names, values);
+    }
+  }
+
+  @Nullable
+  private String get(@NonNull String name)
+  {
+    synchronized (this)
+    {
+      if (mValues.containsKey(name))
+        return mValues.get(name);
+    }
+
+    final String value = nativeGetValues(new String[] {name})[0];
+    synchronized (this)
+    {
+      // A value written meanwhile is newer than the loaded one.
+      if (!mValues.containsKey(name))
+        mValues.put(name, value);
+      return mValues.get(name);
+    }
+  }
+
+  private void put(@NonNull String name, @Nullable String value)
+  {
+    synchronized (this)
+    {
+      if (mValues.containsKey(name) && Objects.equals(mValues.get(name), value))
+        return;
+      mValues.put(name, value);
+      mPending.put(name, value);
+      if (!mFlushScheduled)
+      {
+        mFlushScheduled = true;
+        ThreadPool.getStorage().execute(this::flush);
+      }
+    }
+
+    for (Config.OnChangeListener listener : mListeners)
+      listener.onConfigChanged(name);
+  }
+
+  /**
+   * @return values of the settings, null for absent ones.
+   */
+  @NonNull
+  private static native String[] nativeGetValues(@NonNull String[] names);
+  /**
+   * Stores all values at once, null values remove the settings.
+   */
+  private static native void nativeSetValues(@NonNull String[] names, @NonNull String[] values);
+}
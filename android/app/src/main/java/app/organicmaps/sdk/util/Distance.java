@@ -53,6 +53,20 @@ public final class Distance
     return mDistance >= 0.0;
   }
 
+  /**
+   * @return the rounded distance in meters, negative if the distance is invalid.
+   */
+  public double getMeters()
+  {
+    return switch (mUnits)
+    {
+      case Meters -> mDistance;
+      case Kilometers -> mDistance * 1000;
+      case Feet -> mDistance * 0.3048;
+      case Miles -> mDistance * 1609.344;
+    };
+  }
+
   @NonNull
   public String getUnitsStr(@NonNull final Context context)
   {
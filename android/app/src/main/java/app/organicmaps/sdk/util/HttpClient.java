@@ -27,7 +27,7 @@ package app.organicmaps.sdk.util;
 import android.text.TextUtils;
 import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
-import app.organicmaps.sdk.downloader.Android7RootCertificateWorkaround;
+import androidx.annotation.Nullable;
 import app.organicmaps.sdk.util.log.Logger;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -56,6 +56,8 @@ public final class HttpClient
 
   // TODO(AlexZ): tune for larger files
   private final static int STREAM_BUFFER_SIZE = 1024 * 64;
+  // Not declared by HttpURLConnection.
+  private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
 
   public static Params run(@NonNull final Params p) throws IOException, NullPointerException
   {
@@ -63,13 +65,15 @@ public final class HttpClient
       throw new IllegalArgumentException("Please set valid HTTP method for request at Params.httpMethod field.");
 
     HttpURLConnection connection = null;
+    boolean released = false;
+    long receivedBytes = 0;
+    final boolean hasBody = !TextUtils.isEmpty(p.inputFilePath) || p.data != null;
 
     Logger.d(TAG, "Connecting to " + Utils.makeUrlSafe(p.url));
 
     try
     {
-      connection = (HttpURLConnection) new URL(p.url).openConnection();
-      Android7RootCertificateWorkaround.applyFixIfNeeded(connection);
+      connection = HttpTransport.open(new URL(p.url));
 
       // NullPointerException, MalformedUrlException, IOException
       // Redirects from http to https or vice versa are not supported by Android implementation.
@@ -99,7 +103,25 @@ public final class HttpClient
       for (KeyValue header : p.headers)
         connection.setRequestProperty(header.getKey(), header.getValue());
 
-      if (!TextUtils.isEmpty(p.inputFilePath) || p.data != null)
+      // Continue an interrupted download into the file after its last verified block.
+      HttpResumeJournal journal = null;
+      long resumeFrom = 0;
+      if (!TextUtils.isEmpty(p.outputFilePath) && "GET".equals(p.httpMethod)
+          && connection.getRequestProperty("Range") == null && connection.getRequestProperty("Accept-Encoding") == null)
+      {
+        journal = HttpResumeJournal.load(p.outputFilePath);
+        // Ranges must address the stored bytes, not a transparently compressed representation.
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        resumeFrom = journal.getVerifiedLength();
+        if (resumeFrom > 0)
+        {
+          connection.setRequestProperty("Range", "bytes=" + resumeFrom + "-");
+          connection.setRequestProperty("If-Range", journal.getValidator());
+          Logger.d(TAG, "Resuming download into " + p.outputFilePath + " from " + resumeFrom + " bytes");
+        }
+      }
+
+      if (hasBody)
       {
         // Send (POST, PUT...) data to the server.
         if (TextUtils.isEmpty(connection.getRequestProperty("Content-Type")))
@@ -169,40 +191,155 @@ public final class HttpClient
 
       try
       {
-        OutputStream ostream;
-        if (!TextUtils.isEmpty(p.outputFilePath))
+        final OutputStream ostream;
+        if (journal != null)
+          ostream = openOutputFile(p, connection, journal, resumeFrom);
+        else if (!TextUtils.isEmpty(p.outputFilePath))
           ostream = new BufferedOutputStream(new FileOutputStream(p.outputFilePath), STREAM_BUFFER_SIZE);
+        else if (p.bodySink != 0)
+        {
+          // Request body must not be mistaken for the response one.
+          p.data = null;
+          nativeReserveBody(p.bodySink, connection.getContentLength());
+          ostream = new NativeSinkOutputStream(p.bodySink);
+        }
         else
           ostream = new ByteArrayOutputStream(STREAM_BUFFER_SIZE);
-        // TODO(AlexZ): Add HTTP resume support in the future for partially downloaded files
-        final BufferedInputStream istream = new BufferedInputStream(getInputStream(connection), STREAM_BUFFER_SIZE);
-        final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
-        // gzip encoding is transparently enabled and we can't use Content-Length for
-        // body reading if server has gzipped it.
-        int bytesRead;
-        while ((bytesRead = istream.read(buffer, 0, STREAM_BUFFER_SIZE)) > 0)
+        if (ostream != null)
         {
-          // Read everything if Content-Length is not known in advance.
-          ostream.write(buffer, 0, bytesRead);
+          final BufferedInputStream istream =
+              new BufferedInputStream(getInputStream(connection), STREAM_BUFFER_SIZE);
+          final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+          // gzip encoding is transparently enabled and we can't use Content-Length for
+          // body reading if server has gzipped it.
+          int bytesRead;
+          while ((bytesRead = istream.read(buffer, 0, STREAM_BUFFER_SIZE)) > 0)
+          {
+            // Read everything if Content-Length is not known in advance.
+            ostream.write(buffer, 0, bytesRead);
+            receivedBytes += bytesRead;
+          }
+          istream.close(); // IOException
+          ostream.close(); // IOException
+          if (ostream instanceof ByteArrayOutputStream)
+            p.data = ((ByteArrayOutputStream) ostream).toByteArray();
+          if (journal != null)
+          {
+            journal.delete();
+            // The caller asked for the whole file and has it now.
+            if (p.httpResponseCode == HttpURLConnection.HTTP_PARTIAL)
+              p.httpResponseCode = HttpURLConnection.HTTP_OK;
+          }
+          // The body is read to the end, so the connection can serve the next request.
+          // Requests with a body close their connections, they can't be repeated safely on a stale one.
+          if (!hasBody)
+          {
+            HttpTransport.release(connection, receivedBytes);
+            released = true;
+          }
         }
-        istream.close(); // IOException
-        ostream.close(); // IOException
-        if (ostream instanceof ByteArrayOutputStream)
-          p.data = ((ByteArrayOutputStream) ostream).toByteArray();
       }
       catch (IOException ex)
       {
         // Exception here means that there is no body in the response.
+        // A partially streamed body must not be taken for the whole one.
+        if (p.bodySink != 0)
+          nativeClearBody(p.bodySink);
       }
     }
     finally
     {
-      if (connection != null)
-        connection.disconnect();
+      if (connection != null && !released)
+        HttpTransport.abort(connection, receivedBytes);
     }
     return p;
   }
 
+  // Returns null if the response body must not be written: it would replace the verified part of the file,
+  // or the file is already complete.
+  @Nullable
+  private static OutputStream openOutputFile(@NonNull Params p, @NonNull HttpURLConnection connection,
+                                             @NonNull HttpResumeJournal journal, long resumeFrom) throws IOException
+  {
+    if (resumeFrom > 0 && p.httpResponseCode == HttpURLConnection.HTTP_PARTIAL)
+    {
+      if (parseContentRangeStart(connection.getHeaderField("Content-Range")) == resumeFrom)
+        return journal.openForResume();
+      Logger.w(TAG, "Unexpected Content-Range " + connection.getHeaderField("Content-Range") + " for "
+                        + Utils.makeUrlSafe(p.url));
+      return null;
+    }
+    if (resumeFrom > 0 && p.httpResponseCode == HTTP_RANGE_NOT_SATISFIABLE)
+    {
+      // The process could be killed after the last block was verified but before the journal was deleted.
+      if (parseContentRangeLength(connection.getHeaderField("Content-Range")) == resumeFrom)
+      {
+        Logger.d(TAG, "Download into " + p.outputFilePath + " is already complete");
+        journal.complete();
+        p.httpResponseCode = HttpURLConnection.HTTP_OK;
+        return null;
+      }
+      // The resource has shrunk, the next attempt starts from the beginning.
+      Logger.w(TAG, "Range is not satisfiable, Content-Range " + connection.getHeaderField("Content-Range")
+                        + " for " + Utils.makeUrlSafe(p.url));
+      journal.delete();
+      return null;
+    }
+    // The resource has changed or the server ignored the range, start from the beginning.
+    if (p.httpResponseCode == HttpURLConnection.HTTP_OK)
+      return journal.openForRewrite(getValidator(connection));
+    if (resumeFrom > 0)
+      return null;
+    journal.delete();
+    return new BufferedOutputStream(new FileOutputStream(p.outputFilePath), STREAM_BUFFER_SIZE);
+  }
+
+  // Weak ETags can't be used in If-Range.
+  @Nullable
+  private static String getValidator(@NonNull HttpURLConnection connection)
+  {
+    final String etag = connection.getHeaderField("ETag");
+    if (etag != null && !etag.startsWith("W/"))
+      return etag;
+    return connection.getHeaderField("Last-Modified");
+  }
+
+  // Parses the first byte position of "bytes 100-199/200".
+  private static long parseContentRangeStart(@Nullable String contentRange)
+  {
+    if (contentRange == null || !contentRange.startsWith("bytes "))
+      return -1;
+    final int dashIndex = contentRange.indexOf('-');
+    if (dashIndex < 0)
+      return -1;
+    try
+    {
+      return Long.parseLong(contentRange.substring("bytes ".length(), dashIndex).trim());
+    }
+    catch (NumberFormatException ex)
+    {
+      return -1;
+    }
+  }
+
+  // Parses the complete length of "bytes */200" or "bytes 100-199/200", -1 if it is unknown.
+  private static long parseContentRangeLength(@Nullable String contentRange)
+  {
+    if (contentRange == null || !contentRange.startsWith("bytes "))
+      return -1;
+    final int slashIndex = contentRange.indexOf('/');
+    if (slashIndex < 0)
+      return -1;
+    try
+    {
+      return Long.parseLong(contentRange.substring(slashIndex + 1).trim());
+    }
+    catch (NumberFormatException ex)
+    {
+      return -1;
+    }
+  }
+
   @NonNull
   private static InputStream getInputStream(@NonNull HttpURLConnection connection) throws IOException
   {
@@ -225,6 +362,35 @@ public final class HttpClient
     return in;
   }
 
+  /**
+   * Passes the response body to the native side chunk by chunk, so it is never buffered on the Java heap.
+   */
+  private static final class NativeSinkOutputStream extends OutputStream
+  {
+    private final long mSink;
+
+    NativeSinkOutputStream(long sink)
+    {
+      mSink = sink;
+    }
+
+    @Override
+    public void write(int b)
+    {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(@NonNull byte[] b, int off, int len)
+    {
+      nativeWriteBody(mSink, b, off, len);
+    }
+  }
+
+  private static native void nativeReserveBody(long sink, long size);
+  private static native void nativeWriteBody(long sink, byte[] data, int offset, int size);
+  private static native void nativeClearBody(long sink);
+
   // Used by JNI.
   @Keep
   @SuppressWarnings("unused")
@@ -253,6 +419,8 @@ public final class HttpClient
     String inputFilePath;
     // Received data is stored here if not null or in data otherwise.
     String outputFilePath;
+    // Native receiver of the response body. If set, the body is streamed to it instead of data.
+    long bodySink;
     String cookies;
     ArrayList<KeyValue> headers = new ArrayList<>();
     int httpResponseCode = -1;
@@ -0,0 +1,274 @@
+package app.organicmaps.sdk.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import app.organicmaps.sdk.util.log.Logger;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Sidecar journal of verified blocks for {@link HttpClient} downloads into a file.
+ * <p>
+ * The journal keeps the validator (strong ETag or Last-Modified) of the resource and a CRC32 of every
+ * complete block written so far. Checksums are computed while writing, and on resume the blocks on
+ * disk are checked against them, so the transfer continues right after the last intact block.
+ */
+final class HttpResumeJournal
+{
+  private static final String TAG = HttpResumeJournal.class.getSimpleName();
+
+  private static final String EXTENSION = ".resume";
+  private static final int MAGIC = 0x4f4d524a;
+  private static final int VERSION = 1;
+  private static final int BLOCK_SIZE = 4 * Constants.MB;
+  private static final int BUFFER_SIZE = 64 * Constants.KB;
+
+  @NonNull
+  private final File mFile;
+  @NonNull
+  private final File mJournal;
+  @Nullable
+  private String mValidator;
+  private final List<Integer> mBlockCrcs = new ArrayList<>();
+
+  private HttpResumeJournal(@NonNull String filePath)
+  {
+    mFile = new File(filePath);
+    mJournal = new File(filePath + EXTENSION);
+  }
+
+  /**
+   * Loads the journal of a previous transfer into the file and verifies its blocks.
+   * Returns an empty journal if there is nothing to resume.
+   */
+  @NonNull
+  static HttpResumeJournal load(@NonNull String filePath)
+  {
+    final HttpResumeJournal journal = new HttpResumeJournal(filePath);
+    if (!journal.mJournal.exists() || !journal.mFile.exists())
+      return journal;
+
+    try
+    {
+      journal.read();
+      journal.verify();
+    }
+    catch (IOException e)
+    {
+      Logger.w(TAG, "Can't resume download into " + filePath, e);
+      journal.mValidator = null;
+      journal.mBlockCrcs.clear();
+    }
+    return journal;
+  }
+
+  @Nullable
+  String getValidator()
+  {
+    return mValidator;
+  }
+
+  /**
+   * @return number of verified bytes at the beginning of the file which needn't be downloaded again.
+   */
+  long getVerifiedLength()
+  {
+    return mValidator == null ? 0 : (long) mBlockCrcs.size() * BLOCK_SIZE;
+  }
+
+  /**
+   * Opens the file to continue writing after the verified blocks. The unverified tail is dropped.
+   */
+  @NonNull
+  OutputStream openForResume() throws IOException
+  {
+    try (RandomAccessFile file = new RandomAccessFile(mFile, "rw"))
+    {
+      file.setLength(getVerifiedLength());
+    }
+    writeHeader();
+    return new BlockOutputStream(true);
+  }
+
+  /**
+   * Starts a new transfer from the beginning of the file.
+   * @param validator strong ETag or Last-Modified of the resource, null if it can't be resumed.
+   */
+  @NonNull
+  OutputStream openForRewrite(@Nullable String validator) throws IOException
+  {
+    mValidator = validator;
+    mBlockCrcs.clear();
+    if (validator == null)
+    {
+      delete();
+      return new BufferedOutputStream(new FileOutputStream(mFile), BUFFER_SIZE);
+    }
+    writeHeader();
+    return new BlockOutputStream(false);
+  }
+
+  /**
+   * Finishes the transfer whose verified blocks already make up the whole resource.
+   * The unverified tail is dropped.
+   */
+  void complete() throws IOException
+  {
+    try (RandomAccessFile file = new RandomAccessFile(mFile, "rw"))
+    {
+      file.setLength(getVerifiedLength());
+    }
+    delete();
+  }
+
+  /**
+   * Removes the journal, must be called when the file is downloaded completely.
+   */
+  void delete()
+  {
+    if (mJournal.exists() && !mJournal.delete())
+      Logger.w(TAG, "Can't delete " + mJournal);
+  }
+
+  private void read() throws IOException
+  {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(mJournal))))
+    {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != BLOCK_SIZE)
+        throw new IOException("Unsupported journal format");
+      mValidator = in.readUTF();
+      if (mValidator.isEmpty())
+        throw new IOException("Resource can't be resumed");
+      while (true)
+      {
+        try
+        {
+          mBlockCrcs.add(in.readInt());
+        }
+        catch (EOFException e)
+        {
+          break;
+        }
+      }
+    }
+  }
+
+  // Drops blocks starting from the first one which doesn't match its checksum.
+  private void verify() throws IOException
+  {
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    final CRC32 crc = new CRC32();
+    int verified = 0;
+    try (InputStream in = new FileInputStream(mFile))
+    {
+      for (; verified < mBlockCrcs.size(); ++verified)
+      {
+        crc.reset();
+        int remaining = BLOCK_SIZE;
+        int read;
+        while (remaining > 0 && (read = in.read(buffer, 0, Math.min(remaining, buffer.length))) > 0)
+        {
+          crc.update(buffer, 0, read);
+          remaining -= read;
+        }
+        if (remaining > 0 || (int) crc.getValue() != mBlockCrcs.get(verified))
+          break;
+      }
+    }
+    if (verified < mBlockCrcs.size())
+    {
+      Logger.w(TAG, "Only " + verified + " of " + mBlockCrcs.size() + " blocks are intact in " + mFile);
+      mBlockCrcs.subList(verified, mBlockCrcs.size()).clear();
+    }
+  }
+
+  private void writeHeader() throws IOException
+  {
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(mJournal))))
+    {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(BLOCK_SIZE);
+      out.writeUTF(mValidator == null ? "" : mValidator);
+      for (int crc : mBlockCrcs)
+        out.writeInt(crc);
+    }
+  }
+
+  /**
+   * Writes the file and appends a checksum to the journal every time a block is complete.
+   */
+  private final class BlockOutputStream extends OutputStream
+  {
+    private final OutputStream mOut;
+    private final DataOutputStream mJournalOut;
+    private final CRC32 mCrc = new CRC32();
+    private int mBlockBytes;
+
+    BlockOutputStream(boolean append) throws IOException
+    {
+      mOut = new BufferedOutputStream(new FileOutputStream(mFile, append), BUFFER_SIZE);
+      mJournalOut = new DataOutputStream(new FileOutputStream(mJournal, true));
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(@NonNull byte[] b, int off, int len) throws IOException
+    {
+      while (len > 0)
+      {
+        final int size = Math.min(len, BLOCK_SIZE - mBlockBytes);
+        mOut.write(b, off, size);
+        mCrc.update(b, off, size);
+        mBlockBytes += size;
+        off += size;
+        len -= size;
+        if (mBlockBytes == BLOCK_SIZE)
+          commitBlock();
+      }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+      try
+      {
+        mOut.close();
+      }
+      finally
+      {
+        mJournalOut.close();
+      }
+    }
+
+    private void commitBlock() throws IOException
+    {
+      // Data must reach the file before the journal claims it.
+      mOut.flush();
+      final int crc = (int) mCrc.getValue();
+      mJournalOut.writeInt(crc);
+      mJournalOut.flush();
+      mBlockCrcs.add(crc);
+      mCrc.reset();
+      mBlockBytes = 0;
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package app.organicmaps.sdk.util;
+
+import androidx.annotation.NonNull;
+import app.organicmaps.sdk.downloader.Android7RootCertificateWorkaround;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared HTTP transport for {@link HttpClient} and map downloads.
+ * <p>
+ * Connections are kept alive by the platform HttpURLConnection pool: a connection returns to the pool
+ * when its response body is read to the end and closed without calling disconnect(). Use
+ * {@link #release} for such connections and {@link #abort} for failed or cancelled ones.
+ * <p>
+ * The platform pool is not observable, so the transport mirrors its bookkeeping per host to estimate
+ * how many requests reused an idle connection instead of doing a new TCP and TLS handshake. The estimate
+ * doesn't know about connections which the platform has dropped, e.g. when the server closed them.
+ * {@link #initialize()} must be called before any connection in the process is opened.
+ * HTTP/2 is not supported by the platform HttpURLConnection, requests to one host are multiplexed
+ * over several pooled HTTP/1.1 connections instead.
+ */
+public final class HttpTransport
+{
+  // Idle connections kept by the platform pool, enough for all parallel map download chunks.
+  private static final int MAX_IDLE_CONNECTIONS = 8;
+  // Default keep-alive duration of the platform pool.
+  private static final long KEEP_ALIVE_MS = 5 * 60 * 1000;
+
+  /**
+   * Requests and bytes are counted, pool hits and handshakes are estimated from the bookkeeping which
+   * mirrors the platform pool, so pool hits may be overcounted and handshakes undercounted.
+   */
+  public static final class Metrics
+  {
+    public final long requests;
+    public final long estimatedPoolHits;
+    public final long estimatedHandshakes;
+    public final long bytes;
+
+    Metrics(long requests, long estimatedPoolHits, long estimatedHandshakes, long bytes)
+    {
+      this.requests = requests;
+      this.estimatedPoolHits = estimatedPoolHits;
+      this.estimatedHandshakes = estimatedHandshakes;
+      this.bytes = bytes;
+    }
+
+    public long getEstimatedBytesPerConnection()
+    {
+      return estimatedHandshakes == 0 ? 0 : bytes / estimatedHandshakes;
+    }
+
+    @NonNull
+    @Override
+    public String toString()
+    {
+      return "requests = " + requests + ", estimated pool hits = " + estimatedPoolHits
+          + ", estimated handshakes = " + estimatedHandshakes
+          + ", estimated bytes per connection = " + getEstimatedBytesPerConnection();
+    }
+  }
+
+  // Release times of connections which are expected to be idle in the platform pool, by host.
+  private static final Map<String, ArrayDeque<Long>> sIdle = new HashMap<>();
+  private static int sIdleCount;
+  private static long sRequests;
+  private static long sPoolHits;
+  private static long sBytes;
+
+  private HttpTransport() {}
+
+  /**
+   * Configures the platform pool. The pool reads these properties once, when the first connection of the
+   * process is opened, so it must be called at the application start.
+   */
+  public static void initialize()
+  {
+    System.setProperty("http.keepAlive", "true");
+    System.setProperty("http.maxConnections", String.valueOf(MAX_IDLE_CONNECTIONS));
+  }
+
+  /**
+   * Opens a connection which may reuse an idle pooled one.
+   */
+  @NonNull
+  public static HttpURLConnection open(@NonNull URL url) throws IOException
+  {
+    final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    Android7RootCertificateWorkaround.applyFixIfNeeded(connection);
+    onOpen(getKey(url));
+    return connection;
+  }
+
+  /**
+   * Returns the connection to the pool. The response body must be read to the end and closed.
+   * @param bytes number of body bytes transferred by the request.
+   */
+  public static void release(@NonNull HttpURLConnection connection, long bytes)
+  {
+    onRelease(getKey(connection.getURL()), bytes);
+  }
+
+  /**
+   * Closes the connection, it can't be reused.
+   */
+  public static void abort(@NonNull HttpURLConnection connection, long bytes)
+  {
+    connection.disconnect();
+    synchronized (HttpTransport.class)
+    {
+      sBytes += bytes;
+    }
+  }
+
+  @NonNull
+  public static synchronized Metrics getMetrics()
+  {
+    return new Metrics(sRequests, sPoolHits, sRequests - sPoolHits, sBytes);
+  }
+
+  @NonNull
+  private static String getKey(@NonNull URL url)
+  {
+    return url.getProtocol() + "://" + url.getAuthority();
+  }
+
+  private static synchronized void onOpen(@NonNull String key)
+  {
+    ++sRequests;
+    final ArrayDeque<Long> idle = sIdle.get(key);
+    if (idle == null)
+      return;
+
+    final long now = System.currentTimeMillis();
+    Long releaseTime;
+    while ((releaseTime = idle.pollLast()) != null)
+    {
+      --sIdleCount;
+      if (now - releaseTime < KEEP_ALIVE_MS)
+      {
+        ++sPoolHits;
+        break;
+      }
+    }
+    if (idle.isEmpty())
+      sIdle.remove(key);
+  }
+
+  private static synchronized void onRelease(@NonNull String key, long bytes)
+  {
+    sBytes += bytes;
+    if (sIdleCount == MAX_IDLE_CONNECTIONS)
+      return;
+
+    ArrayDeque<Long> idle = sIdle.get(key);
+    if (idle == null)
+    {
+      idle = new ArrayDeque<>();
+      sIdle.put(key, idle);
+    }
+    idle.addLast(System.currentTimeMillis());
+    ++sIdleCount;
+  }
+}
@@ -20,6 +20,7 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -159,7 +160,7 @@ public class StorageUtils
     if (from == null || to == null)
       return false;
 
-    byte[] buf = new byte[4 * 1024];
+    byte[] buf = new byte[64 * 1024];
     int len;
     while ((len = from.read(buf)) > 0)
       to.write(buf, 0, len);
@@ -223,6 +224,37 @@ public class StorageUtils
     }
   }
 
+  /**
+   * Finds a non-empty file which passes the filter. Directories are walked level by level,
+   * so files near the root are found without listing deeper directories.
+   *
+   * @return the found file or null.
+   */
+  @Nullable
+  public static File findFileRecursively(@NonNull File dir, @NonNull FilenameFilter fileFilter)
+  {
+    final Queue<File> dirs = new ArrayDeque<>();
+    dirs.add(dir);
+    while (!dirs.isEmpty())
+    {
+      final File current = dirs.remove();
+      final File[] list = current.listFiles();
+      if (list == null)
+      {
+        Logger.w(TAG, "findFileRecursively listFiles() returned null for " + current.getPath());
+        continue;
+      }
+      for (File child : list)
+      {
+        if (child.isDirectory())
+          dirs.add(child);
+        else if (fileFilter.accept(current, child.getName()) && child.length() > 0)
+          return child;
+      }
+    }
+    return null;
+  }
+
   /**
    * Returns 0 in case of the error or if no files have passed the filter.
    */
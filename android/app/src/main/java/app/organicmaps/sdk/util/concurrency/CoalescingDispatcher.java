@@ -0,0 +1,93 @@
+package app.organicmaps.sdk.util.concurrency;
+
+import android.view.Choreographer;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers high-frequency updates to the UI thread once per frame.
+ * <p>
+ * An update posted with the key of a pending one replaces it, so only the latest state is delivered.
+ * Pending updates run in the order of their last posting at the start of the next frame.
+ * Keys must implement equals() and hashCode(), e.g. a record of an update type and a search timestamp.
+ */
+public final class CoalescingDispatcher implements Choreographer.FrameCallback
+{
+  public static final CoalescingDispatcher INSTANCE = new CoalescingDispatcher();
+
+  // Guarded by this.
+  private final LinkedHashMap<Object, Runnable> mPending = new LinkedHashMap<>();
+  private boolean mScheduled;
+
+  private final AtomicLong mDelivered = new AtomicLong();
+  private final AtomicLong mDropped = new AtomicLong();
+
+  private CoalescingDispatcher() {}
+
+  /**
+   * Can be called from any thread.
+   * @param key    updates with equal keys supersede each other.
+   * @param update the code to run on UI thread.
+   */
+  public void post(@NonNull Object key, @NonNull Runnable update)
+  {
+    synchronized (this)
+    {
+      // Re-insert to keep the order of postings for different keys.
+      if (mPending.remove(key) != null)
+        mDropped.incrementAndGet();
+      mPending.put(key, update);
+      if (mScheduled)
+        return;
+      mScheduled = true;
+    }
+    // Choreographer is bound to the looper of the thread where it was obtained.
+    UiThread.run(() -> Choreographer.getInstance().postFrameCallback(this));
+  }
+
+  /**
+   * Drops the pending update with the key, if any.
+   */
+  public synchronized void cancel(@NonNull Object key)
+  {
+    if (mPending.remove(key) != null)
+      mDropped.incrementAndGet();
+  }
+
+  /**
+   * @return number of updates which were run.
+   */
+  public long getDeliveredCount()
+  {
+    return mDelivered.get();
+  }
+
+  /**
+   * @return number of updates which were superseded or cancelled before they could run.
+   */
+  public long getDroppedCount()
+  {
+    return mDropped.get();
+  }
+
+  @MainThread
+  @Override
+  public void doFrame(long frameTimeNanos)
+  {
+    final List<Runnable> batch;
+    synchronized (this)
+    {
+      batch = new ArrayList<>(mPending.values());
+      mPending.clear();
+      mScheduled = false;
+    }
+    // Updates posted while the batch runs go to the next frame.
+    for (Runnable update : batch)
+      update.run();
+    mDelivered.addAndGet(batch.size());
+  }
+}
@@ -0,0 +1,229 @@
+package app.organicmaps.sdk.util.concurrency;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import app.organicmaps.sdk.util.log.Logger;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named pool of {@link ThreadPool} with priority lanes, a bounded queue and statistics.
+ * <p>
+ * Queued tasks are ordered by {@link Priority} and then by submission order. When the queue is full
+ * the task is run on the submitting thread, which slows down the producer. The UI thread is never
+ * blocked this way, its tasks are queued anyway.
+ */
+final class InstrumentedExecutor extends ThreadPoolExecutor
+{
+  private static final String TAG = InstrumentedExecutor.class.getSimpleName();
+
+  private final String mName;
+  private final int mQueueCapacity;
+  private final long mLongTaskMs;
+  private final ScheduledExecutorService mWatchdog;
+  private final ExecutorService[] mLanes = new ExecutorService[Priority.values().length];
+
+  private final AtomicLong mSequence = new AtomicLong();
+  private final AtomicLong mCompleted = new AtomicLong();
+  private final AtomicLong mCallerRuns = new AtomicLong();
+  private final AtomicLong mLongRunning = new AtomicLong();
+  private final AtomicLong mQueueLatencyNs = new AtomicLong();
+  private final AtomicLong mExecutionNs = new AtomicLong();
+  private final AtomicInteger mMaxQueueDepth = new AtomicInteger();
+
+  InstrumentedExecutor(@NonNull String name, int poolSize, int queueCapacity, long keepAliveSec, long longTaskMs,
+                       @NonNull ScheduledExecutorService watchdog)
+  {
+    super(poolSize, poolSize, keepAliveSec, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+          new NamedThreadFactory(name));
+    allowCoreThreadTimeOut(true);
+    mName = name;
+    mQueueCapacity = queueCapacity;
+    mLongTaskMs = longTaskMs;
+    mWatchdog = watchdog;
+    for (Priority priority : Priority.values())
+      mLanes[priority.ordinal()] = new Lane(priority);
+  }
+
+  /**
+   * @return executor which submits tasks to this pool with the given priority.
+   */
+  @NonNull
+  ExecutorService getLane(@NonNull Priority priority)
+  {
+    return mLanes[priority.ordinal()];
+  }
+
+  @Override
+  public void execute(@NonNull Runnable command)
+  {
+    execute(command, Priority.INTERACTIVE);
+  }
+
+  private void execute(@NonNull Runnable command, @NonNull Priority priority)
+  {
+    final Task task = command instanceof Task ? (Task) command : new Task(command, priority, mSequence.getAndIncrement());
+    final int depth = getQueue().size();
+    if (depth >= mQueueCapacity && !isShutdown() && !UiThread.isUiThread())
+    {
+      mCallerRuns.incrementAndGet();
+      task.run();
+      return;
+    }
+    if (depth >= mQueueCapacity)
+      Logger.w(TAG, mName + " queue is full: " + depth + " tasks");
+    mMaxQueueDepth.accumulateAndGet(depth + 1, Math::max);
+    super.execute(task);
+  }
+
+  @Override
+  protected void beforeExecute(Thread t, Runnable r)
+  {
+    super.beforeExecute(t, r);
+    final Task task = (Task) r;
+    task.mStartNs = SystemClock.elapsedRealtimeNanos();
+    task.mWatchdogFuture = mWatchdog.schedule(() -> {
+      mLongRunning.incrementAndGet();
+      Logger.w(TAG, mName + " task " + task + " is running for more than " + mLongTaskMs + " ms on " + t.getName());
+    }, mLongTaskMs, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  protected void afterExecute(Runnable r, Throwable t)
+  {
+    super.afterExecute(r, t);
+    final Task task = (Task) r;
+    final long endNs = SystemClock.elapsedRealtimeNanos();
+    final ScheduledFuture<?> watchdogFuture = task.mWatchdogFuture;
+    if (watchdogFuture != null && !watchdogFuture.cancel(false))
+      Logger.w(TAG, mName + " task " + task + " finished in " + (endNs - task.mStartNs) / 1_000_000 + " ms");
+    mCompleted.incrementAndGet();
+    mQueueLatencyNs.addAndGet(task.mStartNs - task.mEnqueueNs);
+    mExecutionNs.addAndGet(endNs - task.mStartNs);
+    if (t != null)
+      Logger.e(TAG, mName + " task " + task + " failed", t);
+  }
+
+  @NonNull
+  PoolMetrics getMetrics()
+  {
+    final long completed = mCompleted.get();
+    return new PoolMetrics(mName, getPoolSize(), getActiveCount(), getQueue().size(), mMaxQueueDepth.get(),
+                           completed, mCallerRuns.get(), mLongRunning.get(),
+                           completed == 0 ? 0 : mQueueLatencyNs.get() / completed / 1_000_000,
+                           completed == 0 ? 0 : mExecutionNs.get() / completed / 1_000_000);
+  }
+
+  private static final class Task implements Runnable, Comparable<Task>
+  {
+    private final Runnable mRunnable;
+    private final Priority mPriority;
+    private final long mSequence;
+    private final long mEnqueueNs = SystemClock.elapsedRealtimeNanos();
+    private long mStartNs;
+    private ScheduledFuture<?> mWatchdogFuture;
+
+    Task(@NonNull Runnable runnable, @NonNull Priority priority, long sequence)
+    {
+      mRunnable = runnable;
+      mPriority = priority;
+      mSequence = sequence;
+    }
+
+    @Override
+    public void run()
+    {
+      mRunnable.run();
+    }
+
+    @Override
+    public int compareTo(@NonNull Task other)
+    {
+      final int result = mPriority.compareTo(other.mPriority);
+      return result != 0 ? result : Long.compare(mSequence, other.mSequence);
+    }
+
+    @NonNull
+    @Override
+    public String toString()
+    {
+      return mRunnable.getClass().getName() + " (" + mPriority + ")";
+    }
+  }
+
+  /**
+   * View of the pool which submits tasks with a fixed priority. Pools live as long as the process,
+   * so shutdown requests are ignored like by ForkJoinPool.commonPool().
+   */
+  private final class Lane extends AbstractExecutorService
+  {
+    private final Priority mPriority;
+
+    Lane(@NonNull Priority priority)
+    {
+      mPriority = priority;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command)
+    {
+      InstrumentedExecutor.this.execute(new Task(command, mPriority, mSequence.getAndIncrement()));
+    }
+
+    @Override
+    public void shutdown()
+    {}
+
+    @NonNull
+    @Override
+    public List<Runnable> shutdownNow()
+    {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown()
+    {
+      return InstrumentedExecutor.this.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated()
+    {
+      return InstrumentedExecutor.this.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) throws InterruptedException
+    {
+      return InstrumentedExecutor.this.awaitTermination(timeout, unit);
+    }
+  }
+
+  private static final class NamedThreadFactory implements ThreadFactory
+  {
+    private final String mName;
+    private final AtomicInteger mCount = new AtomicInteger();
+
+    NamedThreadFactory(@NonNull String name)
+    {
+      mName = name;
+    }
+
+    @Override
+    public Thread newThread(@NonNull Runnable r)
+    {
+      return new Thread(r, mName + "-" + mCount.incrementAndGet());
+    }
+  }
+}
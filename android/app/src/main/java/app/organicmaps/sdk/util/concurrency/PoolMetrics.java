@@ -0,0 +1,48 @@
+package app.organicmaps.sdk.util.concurrency;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Snapshot of {@link ThreadPool} executor statistics for diagnostics.
+ */
+public final class PoolMetrics
+{
+  @NonNull
+  public final String name;
+  public final int poolSize;
+  public final int activeCount;
+  public final int queueDepth;
+  public final int maxQueueDepth;
+  public final long completedCount;
+  // Tasks which were run on the calling thread because the queue was full.
+  public final long callerRunsCount;
+  public final long longRunningCount;
+  public final long averageQueueLatencyMs;
+  public final long averageExecutionMs;
+
+  PoolMetrics(@NonNull String name, int poolSize, int activeCount, int queueDepth, int maxQueueDepth,
+              long completedCount, long callerRunsCount, long longRunningCount, long averageQueueLatencyMs,
+              long averageExecutionMs)
+  {
+    this.name = name;
+    this.poolSize = poolSize;
+    this.activeCount = activeCount;
+    this.queueDepth = queueDepth;
+    this.maxQueueDepth = maxQueueDepth;
+    this.completedCount = completedCount;
+    this.callerRunsCount = callerRunsCount;
+    this.longRunningCount = longRunningCount;
+    this.averageQueueLatencyMs = averageQueueLatencyMs;
+    this.averageExecutionMs = averageExecutionMs;
+  }
+
+  @NonNull
+  @Override
+  public String toString()
+  {
+    return name + ": threads = " + poolSize + ", active = " + activeCount + ", queue = " + queueDepth + " (max "
+        + maxQueueDepth + "), completed = " + completedCount + ", caller runs = " + callerRunsCount
+        + ", long running = " + longRunningCount + ", queue latency = " + averageQueueLatencyMs
+        + " ms, execution = " + averageExecutionMs + " ms";
+  }
+}
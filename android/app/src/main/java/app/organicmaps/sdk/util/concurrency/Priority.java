@@ -0,0 +1,12 @@
+package app.organicmaps.sdk.util.concurrency;
+
+/**
+ * Lanes of {@link ThreadPool} executors. Queued interactive tasks always run before background ones.
+ */
+public enum Priority
+{
+  // Work the user is waiting for.
+  INTERACTIVE,
+  // Work nobody waits for, like periodic backups.
+  BACKGROUND
+}
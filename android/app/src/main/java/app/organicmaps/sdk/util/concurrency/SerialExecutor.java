@@ -0,0 +1,93 @@
+package app.organicmaps.sdk.util.concurrency;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks one at a time in the submission order on threads of another executor, like a single thread
+ * executor which doesn't keep its own thread. Like the shared pools, it lives as long as the process and
+ * ignores shutdown requests.
+ */
+public final class SerialExecutor extends AbstractExecutorService
+{
+  @NonNull
+  private final Executor mExecutor;
+  private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+  @Nullable
+  private Runnable mActive;
+
+  public SerialExecutor(@NonNull Executor executor)
+  {
+    mExecutor = executor;
+  }
+
+  @Override
+  public void execute(@NonNull Runnable command)
+  {
+    final Runnable next;
+    synchronized (this)
+    {
+      mTasks.add(() -> {
+        try
+        {
+          command.run();
+        }
+        finally
+        {
+          scheduleNext();
+        }
+      });
+      if (mActive != null)
+        return;
+      next = mActive = mTasks.poll();
+    }
+    mExecutor.execute(next);
+  }
+
+  private void scheduleNext()
+  {
+    final Runnable next;
+    synchronized (this)
+    {
+      next = mActive = mTasks.poll();
+    }
+    // The lock is not held, the executor may run the task on this thread.
+    if (next != null)
+      mExecutor.execute(next);
+  }
+
+  @Override
+  public void shutdown()
+  {}
+
+  @NonNull
+  @Override
+  public List<Runnable> shutdownNow()
+  {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown()
+  {
+    return false;
+  }
+
+  @Override
+  public boolean isTerminated()
+  {
+    return false;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, @NonNull TimeUnit unit)
+  {
+    return false;
+  }
+}
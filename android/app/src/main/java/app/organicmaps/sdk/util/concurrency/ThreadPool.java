@@ -1,44 +1,104 @@
 package app.organicmaps.sdk.util.concurrency;
 
+import androidx.annotation.NonNull;
+import app.organicmaps.sdk.util.log.Logger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
+/**
+ * Shared background executors. Every pool has {@link Priority} lanes: interactive tasks are taken
+ * from the queue before background ones. Pool statistics are available via {@link #getMetrics()}.
+ * <p>
+ * {@link #getStorage()} and {@link #getWorker()} run tasks one at a time, as single thread executors did
+ * before. The lanes returned for an explicit priority run tasks in parallel, use them only for tasks which
+ * don't depend on each other, or wrap them in a {@link SerialExecutor}.
+ */
 public class ThreadPool
 {
+  private static final String TAG = ThreadPool.class.getSimpleName();
+
+  // Queued tasks above this limit are run on the submitting thread.
+  private static final int QUEUE_CAPACITY = 256;
+  // Tasks running longer are reported to the log.
+  private static final long LONG_TASK_MS = 10_000;
+
   private static final ThreadPool sInstance = new ThreadPool();
 
-  private final ThreadPoolExecutor mStorage;
-  private final ThreadPoolExecutor mWorker;
+  private final InstrumentedExecutor mStorage;
+  private final InstrumentedExecutor mWorker;
+  private final SerialExecutor mSerialStorage;
+  private final SerialExecutor mSerialWorker;
 
-  private static ThreadPoolExecutor create(int poolSize, int allowedTime)
+  private ThreadPool()
   {
-    ThreadPoolExecutor res =
-        new ThreadPoolExecutor(poolSize, poolSize, allowedTime, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
-    res.allowCoreThreadTimeOut(true);
-    return res;
+    final ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, r -> {
+      final Thread thread = new Thread(r, "ThreadPoolWatchdog");
+      thread.setDaemon(true);
+      return thread;
+    });
+    watchdog.setRemoveOnCancelPolicy(true);
+
+    // File operations are I/O bound, a few threads are enough to let independent ones overlap.
+    final int cores = Runtime.getRuntime().availableProcessors();
+    mStorage = new InstrumentedExecutor("Storage", clamp(cores / 2, 2, 4), QUEUE_CAPACITY, 500, LONG_TASK_MS,
+                                        watchdog);
+    mWorker = new InstrumentedExecutor("Worker", clamp(cores - 1, 2, 6), QUEUE_CAPACITY, 250, LONG_TASK_MS,
+                                       watchdog);
+    mSerialStorage = new SerialExecutor(mStorage.getLane(Priority.INTERACTIVE));
+    mSerialWorker = new SerialExecutor(mWorker.getLane(Priority.INTERACTIVE));
   }
 
-  private ThreadPool()
+  private static int clamp(int value, int min, int max)
   {
-    mStorage = create(1, 500);
-    mWorker = create(1, 250);
+    return Math.max(min, Math.min(max, value));
   }
 
   /**
-   * Returns single thread for file operations.
+   * Returns single thread for file operations. Tasks run one at a time in the submission order.
    */
   public static ExecutorService getStorage()
   {
-    return sInstance.mStorage;
+    return sInstance.mSerialStorage;
   }
 
   /**
-   * Returns single thread for various background tasks.
+   * Returns lane of the pool for file operations. Tasks may run in parallel.
+   */
+  public static ExecutorService getStorage(@NonNull Priority priority)
+  {
+    return sInstance.mStorage.getLane(priority);
+  }
+
+  /**
+   * Returns single thread for various background tasks. Tasks run one at a time in the submission order.
    */
   public static ExecutorService getWorker()
   {
-    return sInstance.mWorker;
+    return sInstance.mSerialWorker;
+  }
+
+  /**
+   * Returns lane of the pool for various background tasks. Tasks may run in parallel.
+   */
+  public static ExecutorService getWorker(@NonNull Priority priority)
+  {
+    return sInstance.mWorker.getLane(priority);
+  }
+
+  @NonNull
+  public static List<PoolMetrics> getMetrics()
+  {
+    final List<PoolMetrics> metrics = new ArrayList<>(2);
+    metrics.add(sInstance.mStorage.getMetrics());
+    metrics.add(sInstance.mWorker.getMetrics());
+    return metrics;
+  }
+
+  public static void logMetrics()
+  {
+    for (PoolMetrics metrics : getMetrics())
+      Logger.i(TAG, metrics.toString());
   }
 }
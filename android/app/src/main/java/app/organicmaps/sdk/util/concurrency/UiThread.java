@@ -3,11 +3,20 @@ package app.organicmaps.sdk.util.concurrency;
 import android.os.Handler;
 import android.os.Looper;
 import androidx.annotation.Keep;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class UiThread
 {
   private static final Handler sUiHandler = new Handler(Looper.getMainLooper());
 
+  // Native tasks waiting for the main thread, they are run in batches by one message.
+  private static final ConcurrentLinkedQueue<Long> sNativeTasks = new ConcurrentLinkedQueue<>();
+  private static final AtomicBoolean sNativeDrainScheduled = new AtomicBoolean();
+  private static final AtomicLong sNativeTasksCount = new AtomicLong();
+  private static final AtomicLong sNativeBatchesCount = new AtomicLong();
+
   public static boolean isUiThread()
   {
     return Looper.getMainLooper().getThread() == Thread.currentThread();
@@ -63,7 +72,44 @@ public class UiThread
   @SuppressWarnings("unused")
   private static void forwardToMainThread(final long taskPointer)
   {
-    runLater(() -> nativeProcessTask(taskPointer), 0);
+    sNativeTasks.add(taskPointer);
+    if (sNativeDrainScheduled.compareAndSet(false, true))
+      sUiHandler.post(UiThread::drainNativeTasks);
+  }
+
+  private static void drainNativeTasks()
+  {
+    sNativeBatchesCount.incrementAndGet();
+    // Tasks forwarded while draining wait for the next message, so that a busy producer can't starve
+    // input and drawing. Their order is preserved.
+    for (int count = sNativeTasks.size(); count > 0; --count)
+    {
+      final Long taskPointer = sNativeTasks.poll();
+      if (taskPointer == null)
+        break;
+      sNativeTasksCount.incrementAndGet();
+      nativeProcessTask(taskPointer);
+    }
+    // A task forwarded before the flag is reset didn't post a message, so it is checked after.
+    sNativeDrainScheduled.set(false);
+    if (!sNativeTasks.isEmpty() && sNativeDrainScheduled.compareAndSet(false, true))
+      sUiHandler.post(UiThread::drainNativeTasks);
+  }
+
+  /**
+   * @return number of native tasks run on UI thread.
+   */
+  public static long getNativeTasksCount()
+  {
+    return sNativeTasksCount.get();
+  }
+
+  /**
+   * @return number of main looper messages used to run native tasks.
+   */
+  public static long getNativeBatchesCount()
+  {
+    return sNativeBatchesCount.get();
   }
 
   private static native void nativeProcessTask(long taskPointer);
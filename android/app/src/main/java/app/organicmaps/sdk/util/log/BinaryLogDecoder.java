@@ -0,0 +1,178 @@
+package app.organicmaps.sdk.util.log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Converts binary log segments written by {@link BinaryLogEncoder} back to the text log format.
+ * <p>
+ * Doesn't depend on Android, so it can be run on a desktop JVM for logs collected from devices:
+ * <pre>java app.organicmaps.sdk.util.log.BinaryLogDecoder app.binlog app-1700000000000.binlog.gz</pre>
+ * <p>
+ * Segment layout: magic, version, wall clock time in ms and monotonic time in ns at the segment start,
+ * system information, then a sequence of
+ * <ul>
+ *   <li>STRING: id, UTF-8 string. Defines an interned tag, thread name or source point;</li>
+ *   <li>THREAD: thread id, string id of its name;</li>
+ *   <li>RECORD: level, tag string id, thread id, source point string id (0 if none),
+ *   signed monotonic time delta in microseconds from the previous record, UTF-8 message.</li>
+ * </ul>
+ * All integers except the header ones are LEB128 varints, signed ones are zigzag-encoded.
+ */
+public final class BinaryLogDecoder
+{
+  static final int MAGIC = 0x4f4d424c; // "OMBL"
+  static final int VERSION = 1;
+
+  static final int TYPE_STRING = 1;
+  static final int TYPE_THREAD = 2;
+  static final int TYPE_RECORD = 3;
+
+  private final Map<Long, String> mStrings = new HashMap<>();
+  private final Map<Long, Long> mThreads = new HashMap<>();
+  private final DateFormat mDateFormat = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+
+  private BinaryLogDecoder() {}
+
+  public static void main(String[] args) throws IOException
+  {
+    final Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+    for (String path : args)
+    {
+      try (InputStream in = open(path))
+      {
+        decode(in, out);
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * Decodes a raw or gzipped segment file.
+   */
+  public static void decode(String path, Writer out) throws IOException
+  {
+    try (InputStream in = open(path))
+    {
+      decode(in, out);
+    }
+  }
+
+  public static void decode(InputStream in, Writer out) throws IOException
+  {
+    new BinaryLogDecoder().decodeSegment(new DataInputStream(new BufferedInputStream(in)), out);
+  }
+
+  private static InputStream open(String path) throws IOException
+  {
+    final InputStream in = new FileInputStream(path);
+    return path.endsWith(".gz") ? new GZIPInputStream(in) : in;
+  }
+
+  private void decodeSegment(DataInputStream in, Writer out) throws IOException
+  {
+    if (in.readInt() != MAGIC)
+      throw new IOException("Not a binary log segment");
+    final int version = in.readInt();
+    if (version != VERSION)
+      throw new IOException("Unsupported binary log version " + version);
+    final long startWallMs = in.readLong();
+    final long startMonotonicNs = in.readLong();
+    out.write(readString(in));
+
+    long monotonicUs = startMonotonicNs / 1000;
+    while (true)
+    {
+      final int type = in.read();
+      if (type < 0)
+        break;
+      // The last record can be cut if the app was killed while writing.
+      try
+      {
+        switch (type)
+        {
+        case TYPE_STRING -> mStrings.put(readVarLong(in), readString(in));
+        case TYPE_THREAD -> mThreads.put(readVarLong(in), readVarLong(in));
+        case TYPE_RECORD ->
+        {
+          final int level = in.readUnsignedByte();
+          final String tag = mStrings.get(readVarLong(in));
+          final long threadId = readVarLong(in);
+          final long sourceId = readVarLong(in);
+          monotonicUs += zigzagDecode(readVarLong(in));
+          final String message = readString(in);
+
+          final long wallMs = startWallMs + (monotonicUs - startMonotonicNs / 1000) / 1000;
+          final Long threadNameId = mThreads.get(threadId);
+          final String threadName = threadNameId == null ? String.valueOf(threadId) : mStrings.get(threadNameId);
+          out.append(mDateFormat.format(new Date(wallMs)))
+              .append(" (")
+              .append(threadName)
+              .append(") ")
+              .append(getLevelChar(level))
+              .append('/')
+              .append(tag)
+              .append(": ");
+          if (sourceId != 0)
+            out.append(mStrings.get(sourceId)).append(": ");
+          out.append(message).append('\n');
+        }
+        default -> throw new IOException("Unknown record type " + type);
+        }
+      }
+      catch (EOFException e)
+      {
+        out.append("<truncated>\n");
+        break;
+      }
+    }
+  }
+
+  private static char getLevelChar(int level)
+  {
+    // Values of android.util.Log levels.
+    final char[] chars = {'_', '_', 'V', 'D', 'I', 'W', 'E'};
+    return level < chars.length ? chars[level] : '_';
+  }
+
+  static long readVarLong(DataInputStream in) throws IOException
+  {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7)
+    {
+      final int b = in.readUnsignedByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0)
+        return result;
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  static long zigzagDecode(long value)
+  {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static String readString(DataInputStream in) throws IOException
+  {
+    final int length = (int) readVarLong(in);
+    final byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,124 @@
+package app.organicmaps.sdk.util.log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes one binary log segment, see {@link BinaryLogDecoder} for the format.
+ * Tags, thread names and source points are written once per segment and then referenced by id.
+ * Not thread safe, used from the file logging thread only.
+ */
+final class BinaryLogEncoder
+{
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final DataOutputStream mOut;
+  private final Map<String, Long> mStrings = new HashMap<>();
+  private final Map<Long, String> mThreads = new HashMap<>();
+  private long mLastMonotonicUs;
+  private long mSize;
+
+  BinaryLogEncoder(@NonNull File file, long startWallMs, long startMonotonicNs, @NonNull String systemInfo)
+      throws IOException
+  {
+    mOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+    mOut.writeInt(BinaryLogDecoder.MAGIC);
+    mOut.writeInt(BinaryLogDecoder.VERSION);
+    mOut.writeLong(startWallMs);
+    mOut.writeLong(startMonotonicNs);
+    writeString(systemInfo);
+    mLastMonotonicUs = startMonotonicNs / 1000;
+  }
+
+  /**
+   * @return number of bytes written to the segment so far.
+   */
+  long getSize()
+  {
+    return mOut.size() & 0xFFFFFFFFL;
+  }
+
+  void write(long monotonicNs, int level, @NonNull String tag, long threadId, @NonNull String threadName,
+             @Nullable String sourcePoint, @NonNull String message) throws IOException
+  {
+    final long tagId = intern(tag);
+    final long sourceId = sourcePoint == null ? 0 : intern(sourcePoint);
+    if (!threadName.equals(mThreads.get(threadId)))
+    {
+      // Thread names can change, a new definition replaces the previous one.
+      final long nameId = intern(threadName);
+      mThreads.put(threadId, threadName);
+      mOut.writeByte(BinaryLogDecoder.TYPE_THREAD);
+      writeVarLong(threadId);
+      writeVarLong(nameId);
+    }
+
+    final long monotonicUs = monotonicNs / 1000;
+    mOut.writeByte(BinaryLogDecoder.TYPE_RECORD);
+    mOut.writeByte(level);
+    writeVarLong(tagId);
+    writeVarLong(threadId);
+    writeVarLong(sourceId);
+    // Records from different threads can come slightly out of order.
+    writeVarLong(zigzagEncode(monotonicUs - mLastMonotonicUs));
+    writeString(message);
+    mLastMonotonicUs = monotonicUs;
+  }
+
+  void flush() throws IOException
+  {
+    mOut.flush();
+  }
+
+  void close() throws IOException
+  {
+    mOut.close();
+  }
+
+  private long intern(@NonNull String value) throws IOException
+  {
+    Long id = mStrings.get(value);
+    if (id == null)
+    {
+      // 0 is reserved for "no string".
+      id = (long) mStrings.size() + 1;
+      mStrings.put(value, id);
+      mOut.writeByte(BinaryLogDecoder.TYPE_STRING);
+      writeVarLong(id);
+      writeString(value);
+    }
+    return id;
+  }
+
+  private void writeString(@NonNull String value) throws IOException
+  {
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(bytes.length);
+    mOut.write(bytes);
+  }
+
+  private void writeVarLong(long value) throws IOException
+  {
+    final OutputStream out = mOut;
+    while ((value & ~0x7FL) != 0)
+    {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long zigzagEncode(long value)
+  {
+    return (value << 1) ^ (value >> 63);
+  }
+}
@@ -0,0 +1,524 @@
+package app.organicmaps.sdk.util.log;
+
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Asynchronous file logging backend.
+ * <p>
+ * Log calls only claim a slot in a bounded lock-free ring (a multi-producer queue with per-slot sequence
+ * numbers) and return. A single writer thread formats the records, resolves their source points and
+ * appends them to a long-lived buffered writer, flushing in groups by size or time. The writer thread sleeps
+ * without a timeout while there is nothing to write, and exits when file logging is disabled. The file is rotated
+ * into a single backup when it grows over MAX_SIZE. Records are dropped, not blocked on, when the ring
+ * is full.
+ * <p>
+ * Optionally records are written in the compact binary format of {@link BinaryLogEncoder}. Binary
+ * segments are gzipped as soon as they are rotated, and the newest MAX_ARCHIVED_SEGMENTS of them are kept,
+ * so sharing logs doesn't need to recompress them.
+ */
+@ThreadSafe
+final class FileLogWriter
+{
+  private static final String TAG = FileLogWriter.class.getSimpleName();
+
+  static final String FILENAME = "app.log";
+  static final String BACKUP_EXTENSION = ".1";
+  static final String BINARY_FILENAME = "app.binlog";
+  private static final String BINARY_ARCHIVE_PREFIX = "app-";
+  static final String ARCHIVE_EXTENSION = ".gz";
+  private static final int MAX_SIZE = 3000000;
+  private static final int MAX_ARCHIVED_SEGMENTS = 10;
+
+  // Must be a power of 2.
+  private static final int CAPACITY = 4096;
+  private static final int MASK = CAPACITY - 1;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int FLUSH_SIZE = 32 * 1024;
+  private static final long FLUSH_INTERVAL_MS = 1000;
+
+  static final FileLogWriter INSTANCE = new FileLogWriter();
+
+  private static final class Entry
+  {
+    long mTimeMs;
+    long mMonotonicNs;
+    long mThreadId;
+    int mLevel;
+    String mTag;
+    String mMessage;
+    String mThreadName;
+    // Source point is resolved on the writer thread from the captured stack trace, if it is not known yet.
+    @Nullable
+    String mSourcePoint;
+    @Nullable
+    Throwable mSourceTrace;
+    @Nullable
+    Throwable mError;
+
+    void clear()
+    {
+      mTag = mMessage = mThreadName = mSourcePoint = null;
+      mSourceTrace = mError = null;
+    }
+  }
+
+  private final Entry[] mEntries = new Entry[CAPACITY];
+  private final AtomicLongArray mSequences = new AtomicLongArray(CAPACITY);
+  private final AtomicLong mTail = new AtomicLong();
+  private final AtomicLong mDropped = new AtomicLong();
+  private volatile Thread mThread;
+  // The writer thread is parked until the next record.
+  private volatile boolean mIdle;
+  private volatile boolean mStopRequested;
+  // Logs folder can change if the storage becomes unavailable.
+  private volatile String mRequestedFolder;
+  private volatile boolean mBinaryRequested;
+
+  // The rest is guarded by this and used by the consumer only.
+  private long mHead;
+  @Nullable
+  private String mLogsFolder;
+  @Nullable
+  private Writer mWriter;
+  private boolean mBinary;
+  @Nullable
+  private BinaryLogEncoder mEncoder;
+  private long mFileSize;
+  private int mUnflushedSize;
+  private long mLastFlushMs;
+  private final StringBuilder mLine = new StringBuilder(256);
+  private final DateFormat mSecondsFormat = new SimpleDateFormat("MM-dd HH:mm:ss.", Locale.US);
+  private long mCachedSecond = -1;
+  private String mCachedSecondPrefix;
+
+  private FileLogWriter()
+  {
+    for (int i = 0; i < CAPACITY; ++i)
+    {
+      mEntries[i] = new Entry();
+      mSequences.set(i, i);
+    }
+  }
+
+  /**
+   * Queues a record, never blocks.
+   * @param sourcePoint formatted source point or null to resolve it from sourceTrace.
+   */
+  void write(@NonNull String logsFolder, int level, @NonNull String tag, @NonNull String msg,
+             @Nullable Throwable tr, @NonNull String threadName, @Nullable String sourcePoint,
+             @Nullable Throwable sourceTrace)
+  {
+    if (!logsFolder.equals(mRequestedFolder))
+      mRequestedFolder = logsFolder;
+    ensureThread();
+
+    long pos = mTail.get();
+    int index;
+    while (true)
+    {
+      index = (int) (pos & MASK);
+      final long diff = mSequences.get(index) - pos;
+      if (diff == 0)
+      {
+        if (mTail.compareAndSet(pos, pos + 1))
+          break;
+        pos = mTail.get();
+      }
+      else if (diff < 0)
+      {
+        // The writer lags behind, it's better to lose a record than to slow down the caller.
+        mDropped.incrementAndGet();
+        return;
+      }
+      else
+        pos = mTail.get();
+    }
+
+    final Entry entry = mEntries[index];
+    entry.mTimeMs = System.currentTimeMillis();
+    entry.mMonotonicNs = SystemClock.elapsedRealtimeNanos();
+    entry.mThreadId = Thread.currentThread().getId();
+    entry.mLevel = level;
+    entry.mTag = tag;
+    entry.mMessage = msg;
+    entry.mError = tr;
+    entry.mThreadName = threadName;
+    entry.mSourcePoint = sourcePoint;
+    entry.mSourceTrace = sourceTrace;
+    mSequences.set(index, pos + 1);
+
+    // Wake the writer up if it waits for records, and early for errors and when the ring is getting full.
+    if (mIdle || level == Log.ERROR || (pos & (CAPACITY / 2 - 1)) == 0)
+      LockSupport.unpark(mThread);
+  }
+
+  /**
+   * Writes all queued records and flushes the file. Can be called from any thread.
+   */
+  synchronized void flush()
+  {
+    drain(true);
+  }
+
+  /**
+   * Switches between the text and the binary format, takes effect with the next written record.
+   */
+  void setBinary(boolean binary)
+  {
+    mBinaryRequested = binary;
+  }
+
+  long getDroppedCount()
+  {
+    return mDropped.get();
+  }
+
+  /**
+   * Writes queued records, closes the files and lets the writer thread exit. The next record starts it again.
+   */
+  void stop()
+  {
+    final Thread thread = mThread;
+    if (thread == null)
+      return;
+    mStopRequested = true;
+    LockSupport.unpark(thread);
+  }
+
+  private void ensureThread()
+  {
+    if (mThread != null && !mStopRequested)
+      return;
+    synchronized (this)
+    {
+      // The thread hasn't exited yet, it is kept running.
+      if (mStopRequested)
+      {
+        mStopRequested = false;
+        return;
+      }
+      if (mThread != null)
+        return;
+      final Thread thread = new Thread(this::loop, TAG);
+      thread.setDaemon(true);
+      mThread = thread;
+      thread.start();
+    }
+  }
+
+  private void loop()
+  {
+    while (true)
+    {
+      final long flushDelayMs;
+      synchronized (this)
+      {
+        if (mStopRequested)
+        {
+          drain(true);
+          closeWriter();
+          closeEncoder();
+          mStopRequested = false;
+          mThread = null;
+          return;
+        }
+        drain(false);
+        flushDelayMs = mUnflushedSize > 0 ? FLUSH_INTERVAL_MS - (System.currentTimeMillis() - mLastFlushMs) : 0;
+      }
+
+      if (flushDelayMs > 0)
+      {
+        // Written records are flushed in time, new ones don't wake the writer up.
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushDelayMs));
+        continue;
+      }
+      // A record queued after this flag is set wakes the writer up, an earlier one is seen by the check.
+      mIdle = true;
+      if (isEmpty() && !mStopRequested)
+        LockSupport.park(this);
+      mIdle = false;
+    }
+  }
+
+  private synchronized boolean isEmpty()
+  {
+    return mSequences.get((int) (mHead & MASK)) != mHead + 1;
+  }
+
+  private void drain(boolean forceFlush)
+  {
+    final String folder = mRequestedFolder;
+    final boolean binary = mBinaryRequested;
+    if ((folder != null && !folder.equals(mLogsFolder)) || binary != mBinary)
+    {
+      closeWriter();
+      closeEncoder();
+      if (folder != null)
+        mLogsFolder = folder;
+      mBinary = binary;
+    }
+
+    while (true)
+    {
+      final int index = (int) (mHead & MASK);
+      if (mSequences.get(index) != mHead + 1)
+        break;
+
+      final Entry entry = mEntries[index];
+      append(entry);
+      entry.clear();
+      mSequences.set(index, mHead + CAPACITY);
+      ++mHead;
+    }
+
+    final long now = System.currentTimeMillis();
+    if (mUnflushedSize > 0
+        && (forceFlush || mUnflushedSize >= FLUSH_SIZE || now - mLastFlushMs >= FLUSH_INTERVAL_MS))
+    {
+      try
+      {
+        if (mWriter != null)
+          mWriter.flush();
+        if (mEncoder != null)
+          mEncoder.flush();
+      }
+      catch (IOException e)
+      {
+        Log.e(TAG, "Failed to flush logs", e);
+        closeWriter();
+        closeEncoder();
+      }
+      mUnflushedSize = 0;
+      mLastFlushMs = now;
+    }
+  }
+
+  private void append(@NonNull Entry entry)
+  {
+    if (mBinary)
+      appendBinary(entry);
+    else
+      appendText(entry);
+  }
+
+  private void appendBinary(@NonNull Entry entry)
+  {
+    String message = entry.mMessage;
+    if (entry.mError != null)
+      message += '\n' + Log.getStackTraceString(entry.mError);
+    String sourcePoint = entry.mSourcePoint;
+    if (sourcePoint == null && entry.mSourceTrace != null)
+      sourcePoint = Logger.getSourcePoint(entry.mSourceTrace);
+
+    try
+    {
+      final BinaryLogEncoder encoder = getEncoder();
+      final long size = encoder.getSize();
+      encoder.write(entry.mMonotonicNs, entry.mLevel, entry.mTag, entry.mThreadId, entry.mThreadName, sourcePoint,
+                    message);
+      mUnflushedSize += (int) (encoder.getSize() - size);
+      if (entry.mLevel == Log.ERROR)
+        mUnflushedSize = Math.max(mUnflushedSize, FLUSH_SIZE);
+    }
+    catch (IOException e)
+    {
+      Log.e(TAG, "Failed to write to " + BINARY_FILENAME + ": " + message, e);
+      closeEncoder();
+    }
+  }
+
+  private void appendText(@NonNull Entry entry)
+  {
+    final StringBuilder sb = mLine;
+    sb.setLength(0);
+    appendTime(sb, entry.mTimeMs);
+    sb.append(" (").append(entry.mThreadName).append(") ");
+    sb.append(Logger.getLevelChar(entry.mLevel)).append('/').append(entry.mTag).append(": ");
+    if (entry.mSourcePoint != null)
+      sb.append(entry.mSourcePoint).append(": ");
+    else if (entry.mSourceTrace != null)
+      sb.append(Logger.getSourcePoint(entry.mSourceTrace)).append(": ");
+    sb.append(entry.mMessage);
+    if (entry.mError != null)
+      sb.append('\n').append(Log.getStackTraceString(entry.mError));
+    sb.append('\n');
+
+    try
+    {
+      final Writer writer = getWriter();
+      writer.append(sb);
+      mFileSize += sb.length();
+      mUnflushedSize += sb.length();
+      if (entry.mLevel == Log.ERROR)
+        mUnflushedSize = Math.max(mUnflushedSize, FLUSH_SIZE);
+    }
+    catch (IOException e)
+    {
+      Log.e(TAG, "Failed to write to " + FILENAME + ": " + sb, e);
+      closeWriter();
+    }
+  }
+
+  private void appendTime(@NonNull StringBuilder sb, long timeMs)
+  {
+    final long second = timeMs / 1000;
+    if (second != mCachedSecond)
+    {
+      mCachedSecond = second;
+      mCachedSecondPrefix = mSecondsFormat.format(new Date(timeMs));
+    }
+    final int millis = (int) (timeMs % 1000);
+    sb.append(mCachedSecondPrefix);
+    if (millis < 100)
+      sb.append('0');
+    if (millis < 10)
+      sb.append('0');
+    sb.append(millis);
+  }
+
+  @NonNull
+  private Writer getWriter() throws IOException
+  {
+    if (mWriter != null && mFileSize <= MAX_SIZE)
+      return mWriter;
+
+    closeWriter();
+    final File file = new File(mLogsFolder, FILENAME);
+    if (file.exists() && file.length() > MAX_SIZE)
+    {
+      final File backup = new File(mLogsFolder, FILENAME + BACKUP_EXTENSION);
+      if ((backup.exists() && !backup.delete()) || !file.renameTo(backup))
+        Log.e(TAG, "Failed to rotate " + file);
+    }
+
+    final boolean isNew = !file.exists() || file.length() > MAX_SIZE;
+    mWriter = new BufferedWriter(
+        new OutputStreamWriter(new FileOutputStream(file, !isNew), StandardCharsets.UTF_8), BUFFER_SIZE);
+    mFileSize = isNew ? 0 : file.length();
+    if (isNew)
+    {
+      final String info = LogsManager.INSTANCE.getSystemInformation();
+      mWriter.write(info);
+      mFileSize += info.length();
+    }
+    return mWriter;
+  }
+
+  @NonNull
+  private BinaryLogEncoder getEncoder() throws IOException
+  {
+    if (mEncoder != null && mEncoder.getSize() <= MAX_SIZE)
+      return mEncoder;
+
+    closeEncoder();
+    // A segment left from the previous run is archived as well: every segment has its own time base.
+    archiveSegment();
+    mEncoder = new BinaryLogEncoder(new File(mLogsFolder, BINARY_FILENAME), System.currentTimeMillis(),
+                                    SystemClock.elapsedRealtimeNanos(), LogsManager.INSTANCE.getSystemInformation());
+    return mEncoder;
+  }
+
+  private void closeEncoder()
+  {
+    if (mEncoder == null)
+      return;
+    try
+    {
+      mEncoder.close();
+    }
+    catch (IOException e)
+    {
+      Log.e(TAG, "Failed to close " + BINARY_FILENAME, e);
+    }
+    mEncoder = null;
+    mUnflushedSize = 0;
+  }
+
+  // Renames the current binary segment and compresses it in the background.
+  private void archiveSegment()
+  {
+    final File segment = new File(mLogsFolder, BINARY_FILENAME);
+    if (!segment.exists())
+      return;
+    final File renamed = new File(mLogsFolder, BINARY_ARCHIVE_PREFIX + System.currentTimeMillis() + ".binlog");
+    if (!segment.renameTo(renamed))
+    {
+      Log.e(TAG, "Failed to rotate " + segment);
+      return;
+    }
+    final String folder = mLogsFolder;
+    LogsManager.EXECUTOR.execute(() -> compressSegment(folder, renamed));
+  }
+
+  private static void compressSegment(@NonNull String folder, @NonNull File segment)
+  {
+    final File archive = new File(segment.getPath() + ARCHIVE_EXTENSION);
+    try (InputStream in = new FileInputStream(segment);
+         OutputStream out = new GZIPOutputStream(new FileOutputStream(archive), BUFFER_SIZE))
+    {
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) > 0)
+        out.write(buffer, 0, read);
+    }
+    catch (IOException e)
+    {
+      Log.e(TAG, "Failed to compress " + segment, e);
+      return;
+    }
+    if (!segment.delete())
+      Log.e(TAG, "Failed to delete " + segment);
+
+    final File[] archives = new File(folder).listFiles(
+        (dir, name) -> name.startsWith(BINARY_ARCHIVE_PREFIX) && name.endsWith(ARCHIVE_EXTENSION));
+    if (archives == null || archives.length <= MAX_ARCHIVED_SEGMENTS)
+      return;
+    // Names contain the rotation time, so the oldest segments go first.
+    Arrays.sort(archives);
+    for (int i = 0; i < archives.length - MAX_ARCHIVED_SEGMENTS; ++i)
+    {
+      if (!archives[i].delete())
+        Log.e(TAG, "Failed to delete " + archives[i]);
+    }
+  }
+
+  private void closeWriter()
+  {
+    if (mWriter == null)
+      return;
+    try
+    {
+      mWriter.close();
+    }
+    catch (IOException e)
+    {
+      Log.e(TAG, "Failed to close " + FILENAME, e);
+    }
+    mWriter = null;
+    mUnflushedSize = 0;
+  }
+}
@@ -5,21 +5,12 @@ import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import app.organicmaps.BuildConfig;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 import net.jcip.annotations.ThreadSafe;
 
 @ThreadSafe
 public final class Logger
 {
-  private static final String TAG = Logger.class.getSimpleName();
   private static final String CORE_TAG = "OMcore";
-  private static final String FILENAME = "app.log";
 
   public static void v(String tag)
   {
@@ -86,10 +77,14 @@ public final class Logger
     log(Log.ERROR, tag, msg, tr);
   }
 
+  /**
+   * @param trace throwable created inside a Logger call. Creating it is cheap, so file logging
+   *              resolves the stack trace later on its writer thread.
+   */
   @NonNull
-  private static String getSourcePoint()
+  static String getSourcePoint(@NonNull Throwable trace)
   {
-    final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+    final StackTraceElement[] stackTrace = trace.getStackTrace();
     // Skip the chain of Logger.x() -> Logger.log() calls.
     int f = 0;
     for (; f < stackTrace.length && stackTrace[f].getClassName().equals(Logger.class.getName()); f++)
@@ -120,29 +115,36 @@ public final class Logger
 
     if (logsFolder != null || BuildConfig.DEBUG || level >= Log.INFO)
     {
-      final StringBuilder sb = new StringBuilder(180);
+      final String threadName = Thread.currentThread().getName();
       // Add source point info for file logging, debug builds and ERRORs if its not from core.
-      if (tag != null && (logsFolder != null || BuildConfig.DEBUG || level == Log.ERROR))
-        sb.append(getSourcePoint()).append(": ");
-      sb.append(msg);
-      if (tr != null)
-        sb.append('\n').append(Log.getStackTraceString(tr));
+      final boolean isSourceNeeded = tag != null && (logsFolder != null || BuildConfig.DEBUG || level == Log.ERROR);
+      String sourcePoint = null;
       if (tag == null)
         tag = CORE_TAG;
 
-      final String threadName = "(" + Thread.currentThread().getName() + ") ";
       if (logsFolder == null || BuildConfig.DEBUG)
-        Log.println(level, tag, threadName + sb.toString());
+      {
+        final StringBuilder sb = new StringBuilder(180);
+        if (isSourceNeeded)
+        {
+          sourcePoint = getSourcePoint(new Throwable());
+          sb.append(sourcePoint).append(": ");
+        }
+        sb.append(msg);
+        if (tr != null)
+          sb.append('\n').append(Log.getStackTraceString(tr));
+        Log.println(level, tag, "(" + threadName + ") " + sb);
+      }
 
       if (logsFolder != null)
       {
-        sb.insert(0, String.valueOf(getLevelChar(level)) + '/' + tag + ": ");
-        LogsManager.EXECUTOR.execute(new WriteTask(logsFolder + File.separator + FILENAME, threadName + sb.toString()));
+        final Throwable sourceTrace = isSourceNeeded && sourcePoint == null ? new Throwable() : null;
+        FileLogWriter.INSTANCE.write(logsFolder, level, tag, msg, tr, threadName, sourcePoint, sourceTrace);
       }
     }
   }
 
-  private static char getLevelChar(int level)
+  static char getLevelChar(int level)
   {
     switch (level)
     {
@@ -155,56 +157,4 @@ public final class Logger
     assert false : "Unknown log level " + level;
     return '_';
   }
-
-  private static class WriteTask implements Runnable
-  {
-    private static final int MAX_SIZE = 3000000;
-    @NonNull
-    private final String mFilePath;
-    @NonNull
-    private final String mData;
-
-    private WriteTask(@NonNull String filePath, @NonNull String data)
-    {
-      mFilePath = filePath;
-      mData = data;
-    }
-
-    @Override
-    public void run()
-    {
-      FileWriter fw = null;
-      try
-      {
-        File file = new File(mFilePath);
-        if (!file.exists() || file.length() > MAX_SIZE)
-        {
-          fw = new FileWriter(file, false);
-          fw.write(LogsManager.INSTANCE.getSystemInformation());
-        }
-        else
-        {
-          fw = new FileWriter(mFilePath, true);
-        }
-        final DateFormat fmt = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
-        fw.write(fmt.format(new Date()) + " " + mData + "\n");
-      }
-      catch (IOException e)
-      {
-        Log.e(TAG, "Failed to write to " + mFilePath + ": " + mData, e);
-      }
-      finally
-      {
-        if (fw != null)
-          try
-          {
-            fw.close();
-          }
-          catch (IOException e)
-          {
-            Log.e(TAG, "Failed to close file " + mFilePath, e);
-          }
-      }
-    }
-  }
 }
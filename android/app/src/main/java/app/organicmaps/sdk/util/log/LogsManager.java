@@ -75,6 +75,8 @@ public final class LogsManager
 
     // Set native logging level, save into shared preferences.
     switchFileLoggingEnabled(mIsFileLoggingEnabled);
+
+    FileLogWriter.INSTANCE.setBinary(isBinaryLogsEnabled());
   }
 
   private void assertFileLoggingInit()
@@ -164,6 +166,8 @@ public final class LogsManager
   private void switchFileLoggingEnabled(boolean enabled)
   {
     mIsFileLoggingEnabled = enabled;
+    if (!enabled)
+      FileLogWriter.INSTANCE.stop();
     // Only Debug builds log DEBUG level to Android system log.
     nativeToggleCoreDebugLogs(enabled || BuildConfig.DEBUG);
     mPrefs.edit().putBoolean(mApplicationContext.getString(R.string.pref_enable_logging), enabled).apply();
@@ -199,6 +203,30 @@ public final class LogsManager
     return true;
   }
 
+  /**
+   * NOTE: initFileLogging() must be called before.
+   */
+  public synchronized boolean isBinaryLogsEnabled()
+  {
+    assertFileLoggingInit();
+
+    return mPrefs.getBoolean(mApplicationContext.getString(R.string.pref_binary_logs), false);
+  }
+
+  /**
+   * Switches file logging to the compact binary format, see {@link BinaryLogDecoder}.
+   * <p>
+   * NOTE: initFileLogging() must be called before.
+   */
+  public synchronized void setBinaryLogsEnabled(boolean enabled)
+  {
+    assertFileLoggingInit();
+
+    Log.i(TAG, "Switching binary logs to " + enabled);
+    FileLogWriter.INSTANCE.setBinary(enabled);
+    mPrefs.edit().putBoolean(mApplicationContext.getString(R.string.pref_binary_logs), enabled).apply();
+  }
+
   /**
    * NOTE: initFileLogging() must be called before.
    */
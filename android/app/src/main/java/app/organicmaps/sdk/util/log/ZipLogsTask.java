@@ -2,6 +2,8 @@ package app.organicmaps.sdk.util.log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import app.organicmaps.sdk.util.HttpTransport;
+import app.organicmaps.sdk.util.concurrency.ThreadPool;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
@@ -10,6 +12,7 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -35,6 +38,10 @@ class ZipLogsTask implements Runnable
   @Override
   public void run()
   {
+    ThreadPool.logMetrics();
+    Logger.i(TAG, "HTTP transport: " + HttpTransport.getMetrics());
+    // Queued records must be in the log file before it is zipped.
+    FileLogWriter.INSTANCE.flush();
     saveSystemLogcat(mLogsPath);
     final boolean success = zipFileAtPath(mLogsPath, mZipPath);
     if (mOnCompletedListener != null)
@@ -80,6 +87,9 @@ class ZipLogsTask implements Runnable
         try (FileInputStream fi = new FileInputStream(unmodifiedFilePath);
              BufferedInputStream origin = new BufferedInputStream(fi, bufSize))
         {
+          // Rotated binary segments are already compressed.
+          out.setLevel(unmodifiedFilePath.endsWith(FileLogWriter.ARCHIVE_EXTENSION) ? Deflater.NO_COMPRESSION
+                                                                                   : Deflater.DEFAULT_COMPRESSION);
           ZipEntry entry = new ZipEntry(relativePath);
           out.putNextEntry(entry);
           int count;
@@ -2,26 +2,71 @@ package app.organicmaps.search;
 
 import android.content.Context;
 import android.content.res.Resources;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.AttrRes;
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import app.organicmaps.R;
 import app.organicmaps.sdk.search.SearchResult;
 import app.organicmaps.sdk.util.UiUtils;
+import app.organicmaps.sdk.util.concurrency.ThreadPool;
 import app.organicmaps.util.Graphics;
 import app.organicmaps.util.ThemeUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHolder>
 {
   private final SearchFragment mSearchFragment;
-  @Nullable
-  private SearchResult[] mResults;
+  @NonNull
+  private final AsyncListDiffer<Item> mDiffer;
+
+  /**
+   * A search result, its index in the native results of the search and the timestamp of that search, which are
+   * needed to show it on the map.
+   */
+  record Item(@NonNull SearchResult result, int order, long timestamp) {}
+
+  private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK = new DiffUtil.ItemCallback<>() {
+    @Override
+    public boolean areItemsTheSame(@NonNull Item oldItem, @NonNull Item newItem)
+    {
+      final SearchResult oldResult = oldItem.result();
+      final SearchResult newResult = newItem.result();
+      return oldResult.type == newResult.type && TextUtils.equals(oldResult.name, newResult.name)
+          && TextUtils.equals(oldResult.suggestion, newResult.suggestion) && oldResult.lat == newResult.lat
+          && oldResult.lon == newResult.lon;
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem)
+    {
+      // Results are rebuilt by every update, so compare what is shown.
+      if (oldItem.order() != newItem.order() || oldItem.timestamp() != newItem.timestamp())
+        return false;
+      final SearchResult.Description oldDescription = oldItem.result().description;
+      final SearchResult.Description newDescription = newItem.result().description;
+      if (oldDescription == null || newDescription == null)
+        return oldDescription == newDescription;
+      return oldDescription.openNow == newDescription.openNow
+          && oldDescription.minutesUntilOpen == newDescription.minutesUntilOpen
+          && oldDescription.minutesUntilClosed == newDescription.minutesUntilClosed
+          && TextUtils.equals(oldDescription.description, newDescription.description)
+          && TextUtils.equals(oldDescription.region, newDescription.region)
+          && TextUtils.equals(oldDescription.distance.mDistanceStr, newDescription.distance.mDistanceStr)
+          && Arrays.equals(oldItem.result().highlightRanges, newItem.result().highlightRanges);
+    }
+  };
 
   static abstract class SearchDataViewHolder extends RecyclerView.ViewHolder
   {
@@ -30,7 +75,7 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
       super(itemView);
     }
 
-    abstract void bind(@NonNull SearchResult result, int position);
+    abstract void bind(@NonNull SearchResult result, int position, long timestamp);
   }
 
   private static abstract class BaseResultViewHolder extends SearchDataViewHolder
@@ -38,6 +83,8 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
     SearchResult mResult;
     // Position within search results
     int mOrder;
+    // Timestamp of the search which has produced the results
+    long mTimestamp;
 
     BaseResultViewHolder(@NonNull View view)
     {
@@ -48,14 +95,15 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
         if (tintAttr != 0)
           Graphics.tint((TextView) view, tintAttr);
       }
-      view.setOnClickListener(v -> processClick(mResult, mOrder));
+      view.setOnClickListener(v -> processClick(mResult, mOrder, mTimestamp));
     }
 
     @Override
-    void bind(@NonNull SearchResult result, int order)
+    void bind(@NonNull SearchResult result, int order, long timestamp)
     {
       mResult = result;
       mOrder = order;
+      mTimestamp = timestamp;
       final TextView titleView = getTitleView();
 
       if (titleView != null)
@@ -70,7 +118,7 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
 
     abstract TextView getTitleView();
 
-    abstract void processClick(SearchResult result, int order);
+    abstract void processClick(SearchResult result, int order, long timestamp);
   }
 
   private class SuggestViewHolder extends BaseResultViewHolder
@@ -87,7 +135,7 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
     }
 
     @Override
-    void processClick(SearchResult result, int order)
+    void processClick(SearchResult result, int order, long timestamp)
     {
       mSearchFragment.setQuery(result.suggestion, result.type == SearchResult.TYPE_PURE_SUGGEST);
     }
@@ -132,9 +180,9 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
     }
 
     @Override
-    void bind(@NonNull SearchResult result, int order)
+    void bind(@NonNull SearchResult result, int order, long timestamp)
     {
-      super.bind(result, order);
+      super.bind(result, order, timestamp);
       setBackground();
 
       formatOpeningHours(mResult);
@@ -193,15 +241,19 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
     }
 
     @Override
-    void processClick(SearchResult result, int order)
+    void processClick(SearchResult result, int order, long timestamp)
     {
-      mSearchFragment.showSingleResultOnMap(result, order);
+      mSearchFragment.showSingleResultOnMap(result, order, timestamp);
     }
   }
 
   SearchAdapter(SearchFragment fragment)
   {
     mSearchFragment = fragment;
+    // Lists of a few hundred results are compared off the main thread.
+    mDiffer = new AsyncListDiffer<>(
+        new AdapterListUpdateCallback(this),
+        new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).setBackgroundThreadExecutor(ThreadPool.getWorker()).build());
   }
 
   @NonNull
@@ -223,13 +275,14 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
   @Override
   public void onBindViewHolder(@NonNull SearchDataViewHolder holder, int position)
   {
-    holder.bind(mResults[position], position);
+    final Item item = mDiffer.getCurrentList().get(position);
+    holder.bind(item.result(), item.order(), item.timestamp());
   }
 
   @Override
   public int getItemViewType(int position)
   {
-    return mResults[position].type;
+    return mDiffer.getCurrentList().get(position).result().type;
   }
 
   @Override
@@ -241,22 +294,30 @@ class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.SearchDataViewHol
   @Override
   public int getItemCount()
   {
-    int res = 0;
-    if (mResults == null)
-      return res;
+    return mDiffer.getCurrentList().size();
+  }
 
-    res += mResults.length;
-    return res;
+  @NonNull
+  List<Item> getItems()
+  {
+    return mDiffer.getCurrentList();
   }
 
   public void clear()
   {
-    refreshData(null);
+    mDiffer.submitList(null);
+  }
+
+  void refreshData(@NonNull SearchResult[] results, long timestamp)
+  {
+    final List<Item> items = new ArrayList<>(results.length);
+    for (int i = 0; i < results.length; ++i)
+      items.add(new Item(results[i], i, timestamp));
+    mDiffer.submitList(items);
   }
 
-  void refreshData(@Nullable SearchResult[] results)
+  void refreshData(@NonNull List<Item> items)
   {
-    mResults = results;
-    notifyDataSetChanged();
+    mDiffer.submitList(items);
   }
 }
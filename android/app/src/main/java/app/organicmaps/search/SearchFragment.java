@@ -54,7 +54,8 @@ import java.util.List;
 
 public class SearchFragment extends BaseMwmFragment implements SearchListener, CategoriesAdapter.CategoriesUiListener
 {
-  private long mLastQueryTimestamp;
+  @NonNull
+  private final SearchSession mSearchSession = new SearchSession();
   @NonNull
   private final List<HiddenCommand> mHiddenCommands = new ArrayList<>();
 
@@ -87,6 +88,7 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
 
       if (TextUtils.isEmpty(query))
       {
+        mSearchSession.cancelPending();
         mSearchAdapter.clear();
         stopSearch();
         return;
@@ -94,13 +96,17 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
 
       if (tryRecognizeHiddenCommand(query))
       {
+        mSearchSession.cancelPending();
         mSearchAdapter.clear();
         stopSearch();
         closeSearch();
         return;
       }
 
-      runSearch();
+      mSearchSession.onQueryChanged(() -> {
+        if (isAdded())
+          runSearch();
+      });
     }
 
     @Override
@@ -282,6 +288,18 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
                                                  {
                                                    updateResultsPlaceholder();
                                                  }
+
+                                                 @Override
+                                                 public void onItemRangeInserted(int positionStart, int itemCount)
+                                                 {
+                                                   updateResultsPlaceholder();
+                                                 }
+
+                                                 @Override
+                                                 public void onItemRangeRemoved(int positionStart, int itemCount)
+                                                 {
+                                                   updateResultsPlaceholder();
+                                                 }
                                                });
     mShowOnMapFab = root.findViewById(R.id.show_on_map_fab);
     mShowOnMapFab.setOnClickListener(v -> showAllResultsOnMap());
@@ -348,6 +366,7 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
       v.removeOnScrollListener(mRecyclerListener);
 
     mAttachedRecyclers.clear();
+    mSearchSession.cancelPending();
     SearchEngine.INSTANCE.removeListener(this);
     super.onDestroy();
   }
@@ -400,11 +419,9 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
     return mHiddenCommands;
   }
 
-  void showSingleResultOnMap(@NonNull SearchResult result, int resultIndex)
+  void showSingleResultOnMap(@NonNull SearchResult result, int resultIndex, long timestamp)
   {
     final String query = getQuery();
-    if (Config.isSearchHistoryEnabled())
-      SearchRecents.add(query, requireContext());
     SearchEngine.INSTANCE.cancel();
     SearchEngine.INSTANCE.setQuery(query);
 
@@ -417,11 +434,14 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
           MapObject.createMapObject(FeatureId.EMPTY, MapObject.SEARCH, title, subtitle, result.lat, result.lon);
       RoutingController.get().onPoiSelected(point);
     }
-    else
+    else if (!SearchEngine.INSTANCE.showResult(resultIndex, timestamp))
     {
-      SearchEngine.INSTANCE.showResult(resultIndex);
+      // The row is left from the previous results, the list is refreshed with the current ones soon.
+      return;
     }
 
+    if (Config.isSearchHistoryEnabled())
+      SearchRecents.add(query, requireContext());
     mToolbarController.deactivate();
 
     if (requireActivity() instanceof SearchActivity)
@@ -436,15 +456,16 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
     // results are no longer needed.
     SearchEngine.INSTANCE.cancel();
 
+    mSearchSession.cancelPending();
     final String query = getQuery();
     if (Config.isSearchHistoryEnabled())
       SearchRecents.add(query, requireContext());
-    mLastQueryTimestamp = System.nanoTime();
+    final long timestamp = mSearchSession.start(query);
 
     SearchEngine.INSTANCE.searchInteractive(
         query, isCategory(),
         !TextUtils.isEmpty(mInitialLocale) ? mInitialLocale : Language.getKeyboardLocale(requireContext()),
-        mLastQueryTimestamp, false /* isMapAndTable */);
+        timestamp, false /* isMapAndTable */);
 
     SearchEngine.INSTANCE.setQuery(query);
     Utils.navigateToParent(requireActivity());
@@ -466,6 +487,7 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
 
   private void stopSearch()
   {
+    mSearchSession.cancelPending();
     SearchEngine.INSTANCE.cancel();
     updateSearchView();
   }
@@ -482,21 +504,28 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
     // results are no longer needed.
     SearchEngine.INSTANCE.cancel();
 
-    mLastQueryTimestamp = System.nanoTime();
+    final String query = getQuery();
+    // Must be taken before the new search replaces the previous query.
+    final List<SearchAdapter.Item> prefixResults = mSearchSession.getPrefixResults(query, mSearchAdapter.getItems());
+    final long timestamp = mSearchSession.start(query);
     if (isTabletSearch())
     {
-      SearchEngine.INSTANCE.searchInteractive(requireContext(), getQuery(), isCategory(), mLastQueryTimestamp,
+      SearchEngine.INSTANCE.searchInteractive(requireContext(), query, isCategory(), timestamp,
                                               true /* isMapAndTable */);
     }
     else
     {
-      if (!SearchEngine.INSTANCE.search(requireContext(), getQuery(), isCategory(), mLastQueryTimestamp,
-                                        mLastPosition.valid, mLastPosition.lat, mLastPosition.lon))
+      if (!SearchEngine.INSTANCE.search(requireContext(), query, isCategory(), timestamp, mLastPosition.valid,
+                                        mLastPosition.lat, mLastPosition.lon))
       {
         return;
       }
     }
 
+    // Results of the previous query which still match stay in the list until the new ones arrive.
+    if (prefixResults != null)
+      mSearchAdapter.refreshData(prefixResults);
+
     mSearchRunning = true;
     mToolbarController.showProgress(true);
 
@@ -506,15 +535,17 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
   @Override
   public void onResultsUpdate(@NonNull SearchResult[] results, long timestamp)
   {
-    if (!isAdded() || !mToolbarController.hasQuery())
+    if (!isAdded() || !mToolbarController.hasQuery() || !mSearchSession.isCurrent(timestamp))
       return;
 
-    refreshSearchResults(results);
+    refreshSearchResults(results, timestamp);
   }
 
   @Override
   public void onResultsEnd(long timestamp)
   {
+    if (!mSearchSession.isCurrent(timestamp))
+      return;
     onSearchEnd();
   }
 
@@ -524,11 +555,11 @@ public class SearchFragment extends BaseMwmFragment implements SearchListener, C
     mToolbarController.setQuery(category, true);
   }
 
-  private void refreshSearchResults(@NonNull SearchResult[] results)
+  private void refreshSearchResults(@NonNull SearchResult[] results, long timestamp)
   {
     mSearchRunning = true;
     updateFrames();
-    mSearchAdapter.refreshData(results);
+    mSearchAdapter.refreshData(results, timestamp);
     mToolbarController.showProgress(true);
   }
 
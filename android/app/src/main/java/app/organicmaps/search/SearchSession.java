@@ -0,0 +1,127 @@
+package app.organicmaps.search;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import app.organicmaps.sdk.search.SearchResult;
+import app.organicmaps.sdk.util.StringUtils;
+import app.organicmaps.sdk.util.concurrency.UiThread;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interactive search state of {@link SearchFragment}.
+ * <p>
+ * Typing is debounced by a delay adapted to the typing speed, so that the core isn't restarted on every
+ * keystroke. The first keystroke after a pause starts the search at once. Only results of the latest
+ * started search are accepted. When the query only extends the previous one, the previous results which
+ * still match are shown until the new ones arrive.
+ */
+class SearchSession
+{
+  private static final long MIN_DELAY_MS = 50;
+  private static final long MAX_DELAY_MS = 300;
+
+  private long mTimestamp;
+  private long mLastInputTime;
+  // Moving average of intervals between keystrokes.
+  private long mAverageIntervalMs;
+  @Nullable
+  private String mLastQuery;
+  @Nullable
+  private Runnable mPendingSearch;
+
+  /**
+   * Schedules the search for the changed query.
+   */
+  void onQueryChanged(@NonNull Runnable search)
+  {
+    cancelPending();
+
+    final long now = SystemClock.uptimeMillis();
+    final long interval = now - mLastInputTime;
+    mLastInputTime = now;
+    if (interval >= MAX_DELAY_MS)
+    {
+      search.run();
+      return;
+    }
+
+    mAverageIntervalMs = mAverageIntervalMs == 0 ? interval : (3 * mAverageIntervalMs + interval) / 4;
+    // Wait a bit longer than the usual pause between keystrokes.
+    final long delay = Math.max(MIN_DELAY_MS, Math.min(MAX_DELAY_MS, mAverageIntervalMs * 3 / 2));
+    mPendingSearch = () -> {
+      mPendingSearch = null;
+      search.run();
+    };
+    UiThread.runLater(mPendingSearch, delay);
+  }
+
+  void cancelPending()
+  {
+    if (mPendingSearch != null)
+    {
+      UiThread.cancelDelayedTasks(mPendingSearch);
+      mPendingSearch = null;
+    }
+  }
+
+  /**
+   * Starts a new search, results of the previous ones are rejected after this call.
+   */
+  long start(@NonNull String query)
+  {
+    mLastQuery = query;
+    mTimestamp = System.nanoTime();
+    return mTimestamp;
+  }
+
+  boolean isCurrent(long timestamp)
+  {
+    return timestamp == mTimestamp;
+  }
+
+  /**
+   * @return previous results which match the new query, if it extends the previous one, or null.
+   */
+  @Nullable
+  List<SearchAdapter.Item> getPrefixResults(@NonNull String query, @NonNull List<SearchAdapter.Item> previous)
+  {
+    if (mLastQuery == null || mLastQuery.isEmpty() || previous.isEmpty() || query.length() <= mLastQuery.length()
+        || !query.startsWith(mLastQuery))
+      return null;
+
+    final String[] tokens = StringUtils.toLowerCase(query).trim().split("\\s+");
+    final List<SearchAdapter.Item> result = new ArrayList<>();
+    for (SearchAdapter.Item item : previous)
+    {
+      // Suggestions are built for the old query.
+      if (item.result().type == SearchResult.TYPE_RESULT && matches(item.result().name, tokens))
+        result.add(item);
+    }
+    return result.isEmpty() ? null : result;
+  }
+
+  // Every token must be a prefix of some word of the name.
+  private static boolean matches(@Nullable String name, @NonNull String[] tokens)
+  {
+    if (name == null)
+      return false;
+    final String[] words = StringUtils.toLowerCase(name).split("\\s+");
+    for (String token : tokens)
+    {
+      boolean found = false;
+      for (String word : words)
+      {
+        if (word.startsWith(token))
+        {
+          found = true;
+          break;
+        }
+      }
+      if (!found)
+        return false;
+    }
+    return true;
+  }
+}
@@ -68,6 +68,7 @@ public class SettingsPrefsFragment extends BaseXmlSettingsFragment implements La
     initPerspectivePrefsCallbacks();
     initAutoZoomPrefsCallbacks();
     initLoggingEnabledPrefsCallbacks();
+    initBinaryLogsPrefsCallbacks();
     initEmulationBadStorage();
     initUseMobileDataPrefsCallbacks();
     initPowerManagementPrefsCallbacks();
@@ -279,6 +280,17 @@ public class SettingsPrefsFragment extends BaseXmlSettingsFragment implements La
     });
   }
 
+  private void initBinaryLogsPrefsCallbacks()
+  {
+    final TwoStatePreference pref = getPreference(getString(R.string.pref_binary_logs));
+
+    pref.setChecked(LogsManager.INSTANCE.isBinaryLogsEnabled());
+    pref.setOnPreferenceChangeListener((preference, newValue) -> {
+      LogsManager.INSTANCE.setBinaryLogsEnabled((Boolean) newValue);
+      return true;
+    });
+  }
+
   private void initEmulationBadStorage()
   {
     final Preference pref = findPreference(getString(R.string.pref_emulate_bad_external_storage));
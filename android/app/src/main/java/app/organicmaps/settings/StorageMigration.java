@@ -0,0 +1,404 @@
+package app.organicmaps.settings;
+
+import android.content.Context;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import app.organicmaps.sdk.util.StorageUtils;
+import app.organicmaps.sdk.util.log.Logger;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves map files between storages.
+ * <p>
+ * Files are renamed if both storages are on the same volume. Otherwise they are copied by several threads,
+ * verified and only then deleted from the old storage. Every file is recorded in a journal before and after it is
+ * moved, so the move continues from where it stopped if the app is killed. If a file can't be moved, already moved
+ * files are moved back and the old storage stays complete. The journal records the rollback too, so an interrupted
+ * rollback is completed by the next run instead of the move.
+ */
+final class StorageMigration
+{
+  interface ProgressListener
+  {
+    // Called from the moving threads.
+    void onProgress(long movedBytes, long totalBytes, long bytesPerSecond);
+  }
+
+  private static final String TAG = StorageMigration.class.getSimpleName();
+
+  private static final String JOURNAL_NAME = "storage_move.journal";
+  // Journal lines: the header with the paths, then relative paths of moved files, and these records.
+  private static final String PENDING_PREFIX = "pending\t";
+  private static final String ROLLBACK = "rollback";
+  private static final String TEMP_EXTENSION = ".moving";
+  // Flash storages don't get faster with more parallel streams.
+  private static final int COPY_THREADS = 3;
+  private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+  private static final long PROGRESS_INTERVAL_MS = 250;
+
+  private record Item(@NonNull String relPath, long size) {}
+
+  private record Journal(@NonNull Set<String> moved, boolean isRollback) {}
+
+  @NonNull
+  private final File mJournal;
+  @NonNull
+  private final File mOldDir;
+  @NonNull
+  private final File mNewDir;
+  @Nullable
+  private final ProgressListener mListener;
+  private final AtomicLong mMovedBytes = new AtomicLong();
+  private long mTotalBytes;
+  private long mStartTime;
+  private volatile long mLastProgressTime;
+
+  StorageMigration(@NonNull Context context, @NonNull String newPath, @NonNull String oldPath,
+                   @Nullable ProgressListener listener)
+  {
+    mJournal = getJournal(context);
+    mOldDir = new File(oldPath);
+    mNewDir = new File(newPath);
+    mListener = listener;
+  }
+
+  /**
+   * @return new and old storage paths of the move which was interrupted, or null.
+   */
+  @Nullable
+  static String[] getUnfinished(@NonNull Context context)
+  {
+    final File journal = getJournal(context);
+    if (!journal.exists())
+      return null;
+    try (BufferedReader reader = new BufferedReader(new FileReader(journal)))
+    {
+      final String header = reader.readLine();
+      final String[] paths = header == null ? null : header.split("\t");
+      if (paths != null && paths.length == 2)
+        return paths;
+    }
+    catch (IOException e)
+    {
+      Logger.e(TAG, "Failed to read " + journal, e);
+    }
+    Logger.w(TAG, "Delete broken journal " + journal);
+    deleteFile(journal);
+    return null;
+  }
+
+  @NonNull
+  private static File getJournal(@NonNull Context context)
+  {
+    return new File(StorageUtils.getSettingsPath(context), JOURNAL_NAME);
+  }
+
+  /**
+   * Moves files, or continues the interrupted move between the same storages.
+   * An interrupted rollback is completed instead, and the files are left in the old storage.
+   *
+   * @return true if all files are moved, false if they are left in the old storage.
+   */
+  boolean run()
+  {
+    final Journal journalState = readJournal();
+    final Set<String> moved = journalState.moved();
+    if (journalState.isRollback())
+    {
+      Logger.w(TAG, "Completing the interrupted rollback of " + moved.size() + " files");
+      rollback(moved);
+      return false;
+    }
+    // A journal of another move is deleted by readJournal(), so an existing one already has the header.
+    final boolean isNewJournal = !mJournal.exists();
+    // The app could be killed after a file was recorded but before its source was deleted.
+    for (String relPath : moved)
+    {
+      final File oldFile = new File(mOldDir, relPath);
+      if (oldFile.exists() && new File(mNewDir, relPath).exists())
+        deleteFile(oldFile);
+    }
+
+    final List<Item> items = new ArrayList<>();
+    listFiles(mOldDir, "", moved, items);
+    for (Item item : items)
+      mTotalBytes += item.size();
+    Logger.i(TAG, "Moving " + items.size() + " files, " + mTotalBytes + " bytes, already moved " + moved.size());
+    mStartTime = SystemClock.elapsedRealtime();
+
+    try (FileOutputStream journal = new FileOutputStream(mJournal, true))
+    {
+      if (isNewJournal)
+        appendLine(journal, mNewDir.getPath() + '\t' + mOldDir.getPath());
+
+      // Renames fail at once if the storages are on different volumes.
+      final List<Item> copies = new ArrayList<>();
+      for (Item item : items)
+      {
+        final File oldFile = new File(mOldDir, item.relPath());
+        final File newFile = new File(mNewDir, item.relPath());
+        createParentDir(newFile);
+        // The app can be killed right after the rename, the rollback must know about the file.
+        appendLine(journal, PENDING_PREFIX + item.relPath());
+        if (oldFile.renameTo(newFile))
+        {
+          appendLine(journal, item.relPath());
+          moved.add(item.relPath());
+          addProgress(item.size(), true);
+        }
+        else
+          copies.add(item);
+      }
+
+      if (!copies.isEmpty() && !copyAll(copies, journal, moved))
+      {
+        rollback(moved);
+        return false;
+      }
+    }
+    catch (IOException e)
+    {
+      Logger.e(TAG, "Failed to move files", e);
+      rollback(moved);
+      return false;
+    }
+
+    deleteFile(mJournal);
+    final long seconds = Math.max(1, (SystemClock.elapsedRealtime() - mStartTime) / 1000);
+    Logger.i(TAG, "Moved " + mTotalBytes + " bytes in " + seconds + " s");
+    return true;
+  }
+
+  private boolean copyAll(@NonNull List<Item> items, @NonNull FileOutputStream journal, @NonNull Set<String> moved)
+  {
+    final ExecutorService executor = Executors.newFixedThreadPool(COPY_THREADS);
+    try
+    {
+      final List<Future<?>> futures = new ArrayList<>(items.size());
+      for (Item item : items)
+      {
+        futures.add(executor.submit(() -> {
+          synchronized (journal)
+          {
+            appendLine(journal, PENDING_PREFIX + item.relPath());
+          }
+          copyFile(new File(mOldDir, item.relPath()), new File(mNewDir, item.relPath()));
+          synchronized (journal)
+          {
+            appendLine(journal, item.relPath());
+            moved.add(item.relPath());
+          }
+          deleteFile(new File(mOldDir, item.relPath()));
+          return null;
+        }));
+      }
+      for (Future<?> future : futures)
+        future.get();
+      return true;
+    }
+    catch (Exception e)
+    {
+      Logger.e(TAG, "Failed to copy files", e);
+      return false;
+    }
+    finally
+    {
+      executor.shutdownNow();
+      try
+      {
+        // Unfinished copies must not be written while the files are moved back.
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Copies the file through a temporary one, so that an interrupted copy is never taken for a complete file.
+   */
+  private void copyFile(@NonNull File from, @NonNull File to) throws IOException
+  {
+    final File temp = new File(to.getPath() + TEMP_EXTENSION);
+    final long size = from.length();
+    try (FileChannel in = new FileInputStream(from).getChannel();
+         FileOutputStream outStream = new FileOutputStream(temp);
+         FileChannel out = outStream.getChannel())
+    {
+      long position = 0;
+      while (position < size)
+      {
+        final long transferred = in.transferTo(position, Math.min(TRANSFER_CHUNK, size - position), out);
+        if (transferred <= 0)
+          throw new IOException("Unexpected end of " + from);
+        position += transferred;
+        addProgress(transferred, false);
+      }
+      out.force(true);
+    }
+    catch (IOException e)
+    {
+      deleteFile(temp);
+      throw e;
+    }
+    if (temp.length() != size)
+    {
+      deleteFile(temp);
+      throw new IOException("Size mismatch " + temp.length() + " != " + size + " for " + to);
+    }
+    if (!temp.renameTo(to))
+    {
+      deleteFile(temp);
+      throw new IOException("Failed to rename " + temp + " to " + to);
+    }
+  }
+
+  private void rollback(@NonNull Set<String> moved)
+  {
+    Logger.w(TAG, "Moving " + moved.size() + " files back to " + mOldDir);
+    // The caller is told that files are left in the old storage, a later start must not complete the move.
+    try (FileOutputStream journal = new FileOutputStream(mJournal, true))
+    {
+      appendLine(journal, ROLLBACK);
+    }
+    catch (IOException e)
+    {
+      Logger.e(TAG, "Failed to record the rollback in " + mJournal, e);
+    }
+    for (String relPath : moved)
+    {
+      final File oldFile = new File(mOldDir, relPath);
+      final File newFile = new File(mNewDir, relPath);
+      // Already moved back by an interrupted rollback.
+      if (!newFile.exists() && oldFile.exists())
+        continue;
+      if (newFile.renameTo(oldFile))
+        continue;
+      try
+      {
+        copyFile(newFile, oldFile);
+        deleteFile(newFile);
+      }
+      catch (IOException e)
+      {
+        // The journal is kept, the next start will try to complete the rollback.
+        Logger.e(TAG, "Failed to move " + newFile + " back", e);
+        return;
+      }
+    }
+    deleteFile(mJournal);
+  }
+
+  @NonNull
+  private Journal readJournal()
+  {
+    final Set<String> moved = new HashSet<>();
+    boolean isRollback = false;
+    if (!mJournal.exists())
+      return new Journal(moved, false);
+    try (BufferedReader reader = new BufferedReader(new FileReader(mJournal)))
+    {
+      final String header = reader.readLine();
+      if (!(mNewDir.getPath() + '\t' + mOldDir.getPath()).equals(header))
+      {
+        Logger.w(TAG, "Journal of another move is dropped: " + header);
+        deleteFile(mJournal);
+        return new Journal(moved, false);
+      }
+      String line;
+      while ((line = reader.readLine()) != null)
+      {
+        if (line.isEmpty())
+          continue;
+        if (line.equals(ROLLBACK))
+          isRollback = true;
+        else if (line.startsWith(PENDING_PREFIX))
+        {
+          // The app was killed during the move of this file, it is moved if only the new file is left.
+          final String relPath = line.substring(PENDING_PREFIX.length());
+          if (new File(mNewDir, relPath).exists() && !new File(mOldDir, relPath).exists())
+            moved.add(relPath);
+        }
+        else
+          moved.add(line);
+      }
+    }
+    catch (IOException e)
+    {
+      Logger.e(TAG, "Failed to read " + mJournal, e);
+    }
+    return new Journal(moved, isRollback);
+  }
+
+  private static void listFiles(@NonNull File dir, @NonNull String prefix, @NonNull Set<String> skip,
+                                @NonNull List<Item> items)
+  {
+    final File[] list = dir.listFiles();
+    if (list == null)
+    {
+      Logger.w(TAG, "listFiles() returned null for " + dir.getPath());
+      return;
+    }
+    for (File file : list)
+    {
+      final String relPath = prefix + file.getName();
+      if (file.isDirectory())
+        listFiles(file, relPath + File.separator, skip, items);
+      else if (StoragePathManager.MOVABLE_FILES_FILTER.accept(dir, file.getName()) && !skip.contains(relPath))
+        items.add(new Item(relPath, file.length()));
+    }
+  }
+
+  private void addProgress(long bytes, boolean force)
+  {
+    final long movedBytes = mMovedBytes.addAndGet(bytes);
+    if (mListener == null)
+      return;
+    final long now = SystemClock.elapsedRealtime();
+    if (!force && now - mLastProgressTime < PROGRESS_INTERVAL_MS)
+      return;
+    mLastProgressTime = now;
+    final long elapsed = Math.max(1, now - mStartTime);
+    mListener.onProgress(movedBytes, mTotalBytes, movedBytes * 1000 / elapsed);
+  }
+
+  private static void appendLine(@NonNull FileOutputStream journal, @NonNull String line) throws IOException
+  {
+    journal.write((line + '\n').getBytes(StandardCharsets.UTF_8));
+    // The record must survive a power loss before the source is deleted.
+    journal.getFD().sync();
+  }
+
+  @SuppressWarnings("ResultOfMethodCallIgnored")
+  private static void createParentDir(@NonNull File file)
+  {
+    final File parent = file.getParentFile();
+    if (parent != null)
+      parent.mkdirs();
+  }
+
+  private static void deleteFile(@NonNull File file)
+  {
+    if (file.exists() && !file.delete())
+      Logger.w(TAG, "Failed to delete " + file);
+  }
+}
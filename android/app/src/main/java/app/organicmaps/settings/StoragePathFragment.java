@@ -1,7 +1,7 @@
 package app.organicmaps.settings;
 
-import android.app.Dialog;
 import android.app.ProgressDialog;
+import android.content.Context;
 import android.os.Bundle;
 import android.text.format.Formatter;
 import android.view.LayoutInflater;
@@ -25,6 +25,8 @@ import java.util.List;
 
 public class StoragePathFragment extends BaseSettingsFragment
 {
+  private static final int PROGRESS_MAX = 1000;
+
   private MaterialTextView mHeader;
 
   private StoragePathAdapter mAdapter;
@@ -105,11 +107,14 @@ public class StoragePathFragment extends BaseSettingsFragment
   }
 
   @SuppressWarnings("deprecation") // https://github.com/organicmaps/organicmaps/issues/3629
-  private Dialog showProgressDialog()
+  private ProgressDialog showProgressDialog()
   {
     final ProgressDialog dialog = new ProgressDialog(requireActivity(), R.style.MwmTheme_ProgressDialog);
     dialog.setMessage(getString(R.string.wait_several_minutes));
-    dialog.setProgressStyle(ProgressDialog.STYLE_SPINNER);
+    dialog.setProgressStyle(ProgressDialog.STYLE_HORIZONTAL);
+    dialog.setProgressNumberFormat(null);
+    dialog.setMax(PROGRESS_MAX);
+    // Until files are listed.
     dialog.setIndeterminate(true);
     dialog.setCancelable(false);
     dialog.show();
@@ -119,11 +124,24 @@ public class StoragePathFragment extends BaseSettingsFragment
   /**
    * Shows a progress dialog and runs a move files thread.
    */
+  @SuppressWarnings("deprecation")
   private void moveStorage(@NonNull final String newPath, @NonNull final String oldPath)
   {
-    final Dialog dialog = showProgressDialog();
+    final ProgressDialog dialog = showProgressDialog();
+    final Context context = requireContext().getApplicationContext();
     ThreadPool.getStorage().execute(() -> {
-      final boolean result = StoragePathManager.moveStorage(newPath, oldPath);
+      final boolean result = StoragePathManager.moveStorage(
+          context, newPath, oldPath,
+          (movedBytes, totalBytes, bytesPerSecond) -> UiThread.run(() -> {
+            if (!dialog.isShowing() || totalBytes == 0)
+              return;
+            dialog.setIndeterminate(false);
+            dialog.setProgress((int) (movedBytes * PROGRESS_MAX / totalBytes));
+            dialog.setMessage(context.getString(R.string.wait_several_minutes) + "\n"
+                              + Formatter.formatShortFileSize(context, movedBytes) + " / "
+                              + Formatter.formatShortFileSize(context, totalBytes) + ", "
+                              + Formatter.formatShortFileSize(context, bytesPerSecond) + "/s");
+          }));
 
       UiThread.run(() -> {
         if (dialog.isShowing())
@@ -131,6 +149,7 @@ public class StoragePathFragment extends BaseSettingsFragment
 
         if (!result)
         {
+          // Maps are left at the old path.
           new MaterialAlertDialogBuilder(requireActivity(), R.style.MwmTheme_AlertDialog)
               .setTitle(R.string.move_maps_error)
               .setPositiveButton(
@@ -138,8 +157,11 @@ public class StoragePathFragment extends BaseSettingsFragment
                   (dlg, which) -> Utils.sendBugReport(shareLauncher, requireActivity(), "Error moving map files", ""))
               .show();
         }
-        Framework.nativeChangeWritableDir(newPath);
-        Config.setStoragePath(newPath);
+        else
+        {
+          Framework.nativeChangeWritableDir(newPath);
+          Config.setStoragePath(newPath);
+        }
         mPathManager.scanAvailableStorages();
         updateList();
       });
@@ -13,15 +13,17 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import app.organicmaps.R;
 import app.organicmaps.sdk.Framework;
-import app.organicmaps.sdk.downloader.MapManager;
 import app.organicmaps.sdk.util.Config;
 import app.organicmaps.sdk.util.StorageUtils;
+import app.organicmaps.sdk.util.concurrency.ThreadPool;
+import app.organicmaps.sdk.util.concurrency.UiThread;
 import app.organicmaps.sdk.util.log.Logger;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class StoragePathManager
 {
@@ -42,6 +44,8 @@ public class StoragePathManager
     void onStorageListChanged(List<StorageItem> storageItems, int currentStorageIndex);
   }
 
+  private static final AtomicBoolean sIsMoving = new AtomicBoolean();
+
   private OnStorageListChangedListener mStoragesChangedListener;
   private BroadcastReceiver mInternalReceiver;
   private final Context mContext;
@@ -272,12 +276,22 @@ public class StoragePathManager
 
   /**
    * Determine whether the storage contains map files.
+   * <p>
+   * A map file found at the last start is checked first, so usually no directories are listed.
    */
   private static boolean containsMapData(String storagePath)
   {
-    return StorageUtils.getDirSizeRecursively(new File(storagePath),
-                                              (dir, filename) -> filename.endsWith(DATA_FILE_EXT))
-  > 0;
+    final String probe = Config.getMapDataProbe();
+    if (probe.startsWith(StorageUtils.addTrailingSeparator(storagePath)) && probe.endsWith(DATA_FILE_EXT)
+        && new File(probe).length() > 0)
+      return true;
+
+    final File found = StorageUtils.findFileRecursively(new File(storagePath),
+                                                        (dir, filename) -> filename.endsWith(DATA_FILE_EXT));
+    if (found == null)
+      return false;
+    Config.setMapDataProbe(found.getPath());
+    return true;
   }
 
   /**
@@ -347,45 +361,51 @@ public class StoragePathManager
   }
 
   /**
-   * Moves map files.
+   * Moves map files, see {@link StorageMigration}.
+   *
+   * @return true if all files are moved, false if they are left at the old path.
    */
-  @SuppressWarnings("ResultOfMethodCallIgnored")
-  public static boolean moveStorage(@NonNull final String newPath, @NonNull final String oldPath)
+  public static boolean moveStorage(@NonNull Context context, @NonNull final String newPath,
+                                    @NonNull final String oldPath, @Nullable StorageMigration.ProgressListener listener)
   {
-    Logger.i(TAG, "Begin moving maps from " + oldPath + " to " + newPath);
-
-    final File oldDir = new File(oldPath);
-    final File newDir = new File(newPath);
-
-    ArrayList<String> relPaths = new ArrayList<>();
-    StorageUtils.listFilesRecursively(oldDir, "", MOVABLE_FILES_FILTER, relPaths);
-
-    File[] oldFiles = new File[relPaths.size()];
-    File[] newFiles = new File[relPaths.size()];
-    for (int i = 0; i < relPaths.size(); ++i)
+    if (!sIsMoving.compareAndSet(false, true))
     {
-      oldFiles[i] = new File(oldDir.getAbsolutePath() + File.separator + relPaths.get(i));
-      newFiles[i] = new File(newDir.getAbsolutePath() + File.separator + relPaths.get(i));
+      Logger.w(TAG, "Maps are being moved already");
+      return false;
     }
-
-    for (int i = 0; i < oldFiles.length; ++i)
+    try
     {
-      Logger.i(TAG, "Moving " + oldFiles[i].getPath() + " to " + newFiles[i].getPath());
-      File parent = newFiles[i].getParentFile();
-      if (parent != null)
-        parent.mkdirs();
-      if (!MapManager.nativeMoveFile(oldFiles[i].getPath(), newFiles[i].getPath()))
-      {
-        Logger.e(TAG, "Failed to move " + oldFiles[i].getPath() + " to " + newFiles[i].getPath());
-        // In the case of failure delete all new files.  Old files will
-        // be lost if new files were just moved from old locations.
-        // TODO: Delete old files only after all of them were copied to the new location.
-        StorageUtils.removeFilesInDirectory(newDir, newFiles);
-        return false;
-      }
+      Logger.i(TAG, "Begin moving maps from " + oldPath + " to " + newPath);
+      final boolean result = new StorageMigration(context, newPath, oldPath, listener).run();
+      Logger.i(TAG, "End moving maps, success: " + result);
+      return result;
     }
-    Logger.i(TAG, "End moving maps");
+    finally
+    {
+      sIsMoving.set(false);
+    }
+  }
 
-    return true;
+  /**
+   * Completes the move of map files, or its rollback, which was interrupted by the app termination.
+   * Must be called after the core is initialized, switches the core to the new path when the move is done.
+   */
+  public static void resumeMoveStorage(@NonNull Context context)
+  {
+    final String[] paths = StorageMigration.getUnfinished(context);
+    if (paths == null)
+      return;
+
+    final String newPath = paths[0];
+    final String oldPath = paths[1];
+    Logger.i(TAG, "Resuming the interrupted move of maps from " + oldPath + " to " + newPath);
+    ThreadPool.getStorage().execute(() -> {
+      if (!moveStorage(context, newPath, oldPath, null))
+        return;
+      UiThread.run(() -> {
+        Framework.nativeChangeWritableDir(newPath);
+        Config.setStoragePath(newPath);
+      });
+    });
   }
 }
@@ -0,0 +1,74 @@
+package app.organicmaps.widget.placepage;
+
+import androidx.annotation.NonNull;
+import com.github.mikephil.charting.data.Entry;
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of chart lines.
+ * <p>
+ * Keeps the shape of the line, including peaks, with the number of points which the chart can actually draw.
+ */
+public final class ChartDownsampler
+{
+  private ChartDownsampler() {}
+
+  /**
+   * Adds at most {@code threshold} points of the range [from, to) to {@code out}.
+   * The first and the last points of the range are always added.
+   *
+   * @param xs sorted x values.
+   */
+  public static void downsample(@NonNull float[] xs, @NonNull float[] ys, int from, int to, int threshold,
+                                @NonNull List<Entry> out)
+  {
+    final int size = to - from;
+    if (size <= threshold || threshold < 3)
+    {
+      for (int i = from; i < to; ++i)
+        out.add(new Entry(xs[i], ys[i]));
+      return;
+    }
+
+    // The first and the last buckets contain one point each.
+    final double bucketSize = (double) (size - 2) / (threshold - 2);
+    int selected = from;
+    out.add(new Entry(xs[selected], ys[selected]));
+    for (int bucket = 0; bucket < threshold - 2; ++bucket)
+    {
+      // The average point of the next bucket is the third vertex of the triangles.
+      final int nextStart = from + (int) ((bucket + 1) * bucketSize) + 1;
+      final int nextEnd = Math.min(from + (int) ((bucket + 2) * bucketSize) + 1, to);
+      double avgX = 0;
+      double avgY = 0;
+      for (int i = nextStart; i < nextEnd; ++i)
+      {
+        avgX += xs[i];
+        avgY += ys[i];
+      }
+      final int nextCount = Math.max(1, nextEnd - nextStart);
+      avgX /= nextCount;
+      avgY /= nextCount;
+
+      final int start = from + (int) (bucket * bucketSize) + 1;
+      final int end = nextStart;
+      final float ax = xs[selected];
+      final float ay = ys[selected];
+      double maxArea = -1;
+      int maxIndex = start;
+      for (int i = start; i < end; ++i)
+      {
+        // Doubled area is enough for the comparison.
+        final double area = Math.abs((ax - avgX) * (ys[i] - ay) - (ax - xs[i]) * (avgY - ay));
+        if (area > maxArea)
+        {
+          maxArea = area;
+          maxIndex = i;
+        }
+      }
+      selected = maxIndex;
+      out.add(new Entry(xs[selected], ys[selected]));
+    }
+    out.add(new Entry(xs[to - 1], ys[to - 1]));
+  }
+}
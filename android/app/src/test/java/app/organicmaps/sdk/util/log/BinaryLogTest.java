@@ -0,0 +1,150 @@
+package app.organicmaps.sdk.util.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.util.Log;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BinaryLogTest
+{
+  private static final long START_WALL_MS = 1_700_000_000_000L;
+  private static final long START_MONOTONIC_NS = 5_000_000_000L;
+  private static final String SYSTEM_INFO = "System information\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void test_varint_decoding()
+  {
+    assertEquals(0, readVarLong(0x00));
+    assertEquals(1, readVarLong(0x01));
+    assertEquals(127, readVarLong(0x7F));
+    assertEquals(128, readVarLong(0x80, 0x01));
+    assertEquals(300, readVarLong(0xAC, 0x02));
+    assertEquals(Long.MAX_VALUE, readVarLong(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x7F));
+    assertEquals(-1, readVarLong(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01));
+  }
+
+  @Test
+  public void test_zigzag_decoding()
+  {
+    assertEquals(0, BinaryLogDecoder.zigzagDecode(0));
+    assertEquals(-1, BinaryLogDecoder.zigzagDecode(1));
+    assertEquals(1, BinaryLogDecoder.zigzagDecode(2));
+    assertEquals(-2, BinaryLogDecoder.zigzagDecode(3));
+    assertEquals(Long.MAX_VALUE, BinaryLogDecoder.zigzagDecode(-2));
+    assertEquals(Long.MIN_VALUE, BinaryLogDecoder.zigzagDecode(-1));
+  }
+
+  @Test
+  public void test_round_trip() throws IOException
+  {
+    final File file = folder.newFile();
+    final BinaryLogEncoder encoder = new BinaryLogEncoder(file, START_WALL_MS, START_MONOTONIC_NS, SYSTEM_INFO);
+    encoder.write(START_MONOTONIC_NS + 2_000_000_000L, Log.INFO, "Tag", 1, "main", "Class.method():10", "First");
+    // Records from different threads can come out of order, the delta is negative.
+    encoder.write(START_MONOTONIC_NS + 1_000_000_000L, Log.WARN, "Other", 2, "worker", null, "Ünïcödé");
+    encoder.close();
+
+    final String[] lines = decode(file).split("\n");
+    assertEquals(3, lines.length);
+    assertEquals(SYSTEM_INFO.trim(), lines[0]);
+    assertEquals(formatTime(START_WALL_MS + 2000) + " (main) I/Tag: Class.method():10: First", lines[1]);
+    assertEquals(formatTime(START_WALL_MS + 1000) + " (worker) W/Other: Ünïcödé", lines[2]);
+  }
+
+  @Test
+  public void test_interned_strings_are_written_once() throws IOException
+  {
+    final File file = folder.newFile();
+    final BinaryLogEncoder encoder = new BinaryLogEncoder(file, START_WALL_MS, START_MONOTONIC_NS, SYSTEM_INFO);
+    final String tag = "SomeRatherLongTag";
+    final String thread = "SomeRatherLongThreadName";
+    encoder.write(START_MONOTONIC_NS, Log.DEBUG, tag, 1, thread, null, "Message");
+    final long firstSize = encoder.getSize();
+    encoder.write(START_MONOTONIC_NS, Log.DEBUG, tag, 1, thread, null, "Message");
+    final long secondSize = encoder.getSize() - firstSize;
+    encoder.close();
+
+    // Type, level, tag id, thread id, source id, time delta, message length and message.
+    assertEquals(6 + 1 + "Message".length(), secondSize);
+    assertTrue(firstSize - secondSize > tag.length() + thread.length());
+
+    final String[] lines = decode(file).split("\n");
+    assertEquals(3, lines.length);
+    assertEquals(lines[1], lines[2]);
+    assertTrue(lines[2].endsWith(" (" + thread + ") D/" + tag + ": Message"));
+  }
+
+  @Test
+  public void test_renamed_thread() throws IOException
+  {
+    final File file = folder.newFile();
+    final BinaryLogEncoder encoder = new BinaryLogEncoder(file, START_WALL_MS, START_MONOTONIC_NS, SYSTEM_INFO);
+    encoder.write(START_MONOTONIC_NS, Log.ERROR, "Tag", 7, "old", null, "Before");
+    encoder.write(START_MONOTONIC_NS, Log.ERROR, "Tag", 7, "new", null, "After");
+    encoder.close();
+
+    final String[] lines = decode(file).split("\n");
+    assertTrue(lines[1].endsWith(" (old) E/Tag: Before"));
+    assertTrue(lines[2].endsWith(" (new) E/Tag: After"));
+  }
+
+  @Test
+  public void test_truncated_segment() throws IOException
+  {
+    final File file = folder.newFile();
+    final BinaryLogEncoder encoder = new BinaryLogEncoder(file, START_WALL_MS, START_MONOTONIC_NS, SYSTEM_INFO);
+    encoder.write(START_MONOTONIC_NS, Log.INFO, "Tag", 1, "main", null, "Complete");
+    encoder.write(START_MONOTONIC_NS, Log.INFO, "Tag", 1, "main", null, "Cut by a crash");
+    encoder.close();
+    final byte[] bytes = Files.readAllBytes(file.toPath());
+    Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+
+    final String[] lines = decode(file).split("\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[1].endsWith(": Complete"));
+    assertEquals("<truncated>", lines[2]);
+  }
+
+  private static long readVarLong(int... bytes)
+  {
+    final byte[] data = new byte[bytes.length];
+    for (int i = 0; i < bytes.length; ++i)
+      data[i] = (byte) bytes[i];
+    try
+    {
+      return BinaryLogDecoder.readVarLong(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+    catch (IOException e)
+    {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static String decode(File file) throws IOException
+  {
+    final StringWriter out = new StringWriter();
+    BinaryLogDecoder.decode(file.getPath(), out);
+    return out.toString();
+  }
+
+  private static String formatTime(long wallMs)
+  {
+    return new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US).format(new Date(wallMs));
+  }
+}
@@ -500,7 +500,7 @@ void Framework::Scroll(double distanceX, double distanceY)
   m_work.Scroll(distanceX, distanceY);
 }
 
-void Framework::Touch(int action, Finger const & f1, Finger const & f2, uint8_t maskedPointer)
+void Framework::Touch(int action, Finger const & f1, Finger const & f2, uint8_t maskedPointer, double timeStamp)
 {
   MultiTouchAction eventType = static_cast<MultiTouchAction>(action);
   df::TouchEvent event;
@@ -533,6 +533,7 @@ void Framework::Touch(int action, Finger const & f1, Finger const & f2, uint8_t
   event.SetSecondTouch(touch);
 
   event.SetFirstMaskedPointer(maskedPointer);
+  event.SetTimeStamp(timeStamp);
   m_work.TouchEvent(event);
 }
 
@@ -805,6 +806,13 @@ void CallRouteProgressListener(shared_ptr<jobject> listener, float progress)
   env->CallVoidMethod(*listener, methodId, progress);
 }
 
+void CallRouteFinishedListener(shared_ptr<jobject> listener)
+{
+  JNIEnv * env = jni::GetEnv();
+  jmethodID const methodId = jni::GetMethodID(env, *listener, "onRouteFinished", "()V");
+  env->CallVoidMethod(*listener, methodId);
+}
+
 void CallRouteRecommendationListener(shared_ptr<jobject> listener,
                                      RoutingManager::Recommendation recommendation)
 {
@@ -940,7 +948,7 @@ Java_app_organicmaps_sdk_Framework_nativePlacePageActivationListener(JNIEnv *env
       auto const & track = frm()->GetBookmarkManager().GetTrack(info.GetTrackId());
       auto const & elevationInfo = track->GetElevationInfo();
       if (elevationInfo.has_value())
-        placePageDataRef.reset(usermark_helper::CreateElevationInfo(env, elevationInfo.value()));
+        placePageDataRef.reset(usermark_helper::CreateElevationInfo(env, *track, elevationInfo.value()));
     }
     if (!placePageDataRef)
       placePageDataRef.reset(usermark_helper::CreateMapObject(env, info));
@@ -1421,6 +1429,14 @@ Java_app_organicmaps_sdk_Framework_nativeSetRouteProgressListener(JNIEnv * env,
       bind(&CallRouteProgressListener, jni::make_global_ref(listener), _1));
 }
 
+JNIEXPORT void JNICALL
+Java_app_organicmaps_sdk_Framework_nativeSetRouteFinishedListener(JNIEnv * env, jclass, jobject listener)
+{
+  CHECK(g_framework, ("Framework isn't created yet!"));
+  frm()->GetRoutingManager().SetRouteFinishedListener(
+      bind(&CallRouteFinishedListener, jni::make_global_ref(listener)));
+}
+
 JNIEXPORT void JNICALL
 Java_app_organicmaps_sdk_Framework_nativeSetRoutingRecommendationListener(JNIEnv * env, jclass,
                                                                           jobject listener)
@@ -141,7 +141,8 @@ namespace android
 
     void Scroll(double distanceX, double distanceY);
 
-    void Touch(int action, Finger const & f1, Finger const & f2, uint8_t maskedPointer);
+    /// @param timeStamp the time of the event in seconds, see base::Timer::LocalTime().
+    void Touch(int action, Finger const & f1, Finger const & f2, uint8_t maskedPointer, double timeStamp);
 
     bool Search(search::EverywhereSearchParams const & params);
     std::string GetLastSearchQuery() { return m_searchQuery; }
@@ -7,9 +7,12 @@
 #include "storage/storage_defines.hpp"
 
 #include "base/logging.hpp"
+#include "base/timer.hpp"
 
 #include "platform/settings.hpp"
 
+#include <vector>
+
 namespace
 {
 void OnRenderingInitializationFinished(std::shared_ptr<jobject> const & listener)
@@ -164,14 +167,24 @@ Java_app_organicmaps_sdk_Map_nativeOnScale(
 }
 
 JNIEXPORT void JNICALL
-Java_app_organicmaps_sdk_Map_nativeOnTouch(JNIEnv *, jclass, jint action,
-                                       jint id1, jfloat x1, jfloat y1,
-                                       jint id2, jfloat x2, jfloat y2,
-                                       jint maskedPointer)
+Java_app_organicmaps_sdk_Map_nativeOnTouch(JNIEnv * env, jclass, jint action, jint id1, jint id2,
+                                       jfloatArray samples, jint sampleCount, jint maskedPointer)
 {
-  g_framework->Touch(action,
-                     android::Framework::Finger(id1, x1, y1),
-                     android::Framework::Finger(id2, x2, y2), maskedPointer);
+  // Every sample is {age in ms, x1, y1, x2, y2}, from the oldest to the newest one.
+  static size_t constexpr kSampleSize = 5;
+  thread_local std::vector<jfloat> buffer;
+  buffer.resize(sampleCount * kSampleSize);
+  env->GetFloatArrayRegion(samples, 0, static_cast<jsize>(buffer.size()), buffer.data());
+
+  double const now = base::Timer::LocalTime();
+  for (size_t i = 0; i < buffer.size(); i += kSampleSize)
+  {
+    jfloat const * sample = &buffer[i];
+    g_framework->Touch(action,
+                       android::Framework::Finger(id1, sample[1], sample[2]),
+                       android::Framework::Finger(id2, sample[3], sample[4]), maskedPointer,
+                       now - sample[0] / 1000.0);
+  }
 }
 
 JNIEXPORT void JNICALL
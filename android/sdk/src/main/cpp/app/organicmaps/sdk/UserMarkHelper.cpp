@@ -4,6 +4,7 @@
 
 #include "map/elevation_info.hpp"
 #include "map/place_page_info.hpp"
+#include "map/track.hpp"
 
 #include "base/string_utils.hpp"
 
@@ -134,47 +135,45 @@ jobject CreateBookmark(JNIEnv *env, const place_page::Info &info,
   return mapObject;
 }
 
-jobject CreateElevationPoint(JNIEnv * env, ElevationInfo::Point const & point)
-{
-  static jclass const pointClass =
-      jni::GetGlobalClassRef(env, "app/organicmaps/sdk/bookmarks/data/ElevationInfo$Point");
-  // public Point(double distance, int altitude)
-  static jmethodID const pointCtorId =
-      jni::GetConstructorID(env, pointClass, "(DI)V");
-  return env->NewObject(pointClass, pointCtorId, static_cast<jdouble >(point.m_distance),
-                        static_cast<jint>(point.m_point.GetAltitude()));
-}
-
-jobjectArray ToElevationPointArray(JNIEnv * env, ElevationInfo::Points const & points)
+void ToElevationArrays(JNIEnv * env, ElevationInfo::Points const & points, jni::TScopedLocalFloatArrayRef & distances,
+                       jni::TScopedLocalFloatArrayRef & altitudes)
 {
   CHECK(!points.empty(), ("Elevation points must be non empty!"));
-  static jclass const pointClass =
-      jni::GetGlobalClassRef(env, "app/organicmaps/sdk/bookmarks/data/ElevationInfo$Point");
-  return jni::ToJavaArray(env, pointClass, points,
-                         [](JNIEnv * env, ElevationInfo::Point const & item)
-                         {
-                           return CreateElevationPoint(env, item);
-                         });
+  std::vector<jfloat> values(points.size());
+  jsize const size = static_cast<jsize>(values.size());
+
+  for (size_t i = 0; i < points.size(); ++i)
+    values[i] = static_cast<jfloat>(points[i].m_distance);
+  distances.reset(env->NewFloatArray(size));
+  env->SetFloatArrayRegion(distances.get(), 0, size, values.data());
+
+  for (size_t i = 0; i < points.size(); ++i)
+    values[i] = static_cast<jfloat>(points[i].m_point.GetAltitude());
+  altitudes.reset(env->NewFloatArray(size));
+  env->SetFloatArrayRegion(altitudes.get(), 0, size, values.data());
 }
 
-jobject CreateElevationInfo(JNIEnv * env, ElevationInfo const & info)
+jobject CreateElevationInfo(JNIEnv * env, Track const & track, ElevationInfo const & info)
 {
-  // public ElevationInfo(long trackId, @NonNull String name, @NonNull Point[] points,
-  //                      int ascent, int descent, int minAltitude, int maxAltitude, int difficulty,
-  //                      long m_duration)
+  // public ElevationInfo(long trackId, @NonNull String name, @NonNull float[] distances,
+  //                      @NonNull float[] altitudes, int ascent, int descent, int minAltitude,
+  //                      int maxAltitude, int difficulty, long m_duration)
   static jmethodID const ctorId =
-      jni::GetConstructorID(env, g_elevationInfoClazz, "(JLjava/lang/String;Ljava/lang/String;"
-                                                       "[Lapp/organicmaps/sdk/bookmarks/data/ElevationInfo$Point;"
-                                                       "IIIIIJ)V");
-  jni::TScopedLocalObjectArrayRef jPoints(env, ToElevationPointArray(env, info.GetPoints()));
-  // TODO (KK): elevation info should have only the elevation data - see the https://github.com/organicmaps/organicmaps/pull/10063
+      jni::GetConstructorID(env, g_elevationInfoClazz, "(JLjava/lang/String;[F[FIIIIIJ)V");
+  jni::TScopedLocalRef jName(env, jni::ToJavaString(env, track.GetName()));
+  jni::TScopedLocalFloatArrayRef jDistances(env, nullptr);
+  jni::TScopedLocalFloatArrayRef jAltitudes(env, nullptr);
+  ToElevationArrays(env, info.GetPoints(), jDistances, jAltitudes);
+  auto const stats = track.GetStatistics();
   return env->NewObject(g_elevationInfoClazz, ctorId,
-                        jPoints.get(),
-//                        static_cast<jint>(info.GetAscent()),
-//                        static_cast<jint>(info.GetDescent()),
-//                        static_cast<jint>(info.GetMinAltitude()),
-//                        static_cast<jint>(info.GetMaxAltitude()),
-                        static_cast<jint>(info.GetDifficulty()));
+                        static_cast<jlong>(track.GetId()), jName.get(),
+                        jDistances.get(), jAltitudes.get(),
+                        static_cast<jint>(stats.m_ascent),
+                        static_cast<jint>(stats.m_descent),
+                        static_cast<jint>(stats.m_minElevation),
+                        static_cast<jint>(stats.m_maxElevation),
+                        static_cast<jint>(info.GetDifficulty()),
+                        static_cast<jlong>(stats.m_duration));
 }
 
 jobject CreateMapObject(JNIEnv * env, place_page::Info const & info)
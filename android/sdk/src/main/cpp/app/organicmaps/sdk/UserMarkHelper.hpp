@@ -7,6 +7,8 @@
 
 #include <vector>
 
+class Track;
+
 namespace place_page
 {
 class Info;
@@ -34,7 +36,7 @@ void InjectMetadata(JNIEnv * env, jclass clazz, jobject const mapObject, feature
 
 jobject CreateMapObject(JNIEnv * env, place_page::Info const & info);
 
-jobject CreateElevationInfo(JNIEnv * env, ElevationInfo const & info);
+jobject CreateElevationInfo(JNIEnv * env, Track const & track, ElevationInfo const & info);
 
 jobjectArray ToRatingArray(JNIEnv * env, std::vector<std::string> const & ratingCategories);
 
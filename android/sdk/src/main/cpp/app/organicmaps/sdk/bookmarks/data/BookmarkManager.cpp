@@ -15,8 +15,10 @@
 #include "base/macros.hpp"
 #include "base/string_utils.hpp"
 
+#include <algorithm>
 #include <limits>
 #include <utility>
+#include <vector>
 
 using namespace jni;
 using namespace std::placeholders;
@@ -422,6 +424,14 @@ Java_app_organicmaps_sdk_bookmarks_data_BookmarkManager_nativeIsVisible(
   return static_cast<jboolean>(frm()->GetBookmarkManager().IsVisible(static_cast<kml::MarkGroupId>(catId)));
 }
 
+JNIEXPORT jstring JNICALL
+Java_app_organicmaps_sdk_bookmarks_data_BookmarkManager_nativeGetCategoryFilePath(
+    JNIEnv * env, jobject, jlong catId)
+{
+  return jni::ToJavaString(env,
+      frm()->GetBookmarkManager().GetCategoryFileName(static_cast<kml::MarkGroupId>(catId)));
+}
+
 JNIEXPORT void JNICALL
 Java_app_organicmaps_sdk_bookmarks_data_BookmarkManager_nativeSetVisibility(
     JNIEnv *, jobject, jlong catId, jboolean isVisible)
@@ -519,6 +529,59 @@ Java_app_organicmaps_sdk_bookmarks_data_BookmarkManager_nativeGetBookmarkIdByPos
   return static_cast<jlong>(*it);
 }
 
+JNIEXPORT jint JNICALL
+Java_app_organicmaps_sdk_bookmarks_data_BookmarkManager_nativeGetBookmarkIdsByPosition(
+        JNIEnv * env, jclass, jlong catId, jint fromPosition, jlongArray bookmarkIds)
+{
+  auto const & ids = frm()->GetBookmarkManager().GetUserMarkIds(static_cast<kml::MarkGroupId>(catId));
+  if (fromPosition >= static_cast<jint>(ids.size()))
+    return 0;
+  auto const count = std::min(env->GetArrayLength(bookmarkIds), static_cast<jsize>(ids.size() - fromPosition));
+  std::vector<jlong> result;
+  result.reserve(count);
+  auto it = ids.begin();
+  std::advance(it, fromPosition);
+  for (; static_cast<jsize>(result.size()) < count; ++it)
+    result.push_back(static_cast<jlong>(*it));
+  env->SetLongArrayRegion(bookmarkIds, 0, count, result.data());
+  return count;
+}
+
+JNIEXPORT void JNICALL
+Java_app_organicmaps_sdk_bookmarks_data_BookmarkManager_nativeGetBookmarkRows(
+        JNIEnv * env, jclass, jlongArray bookmarkIds, jint count, jobjectArray names, jobjectArray featureTypes,
+        jintArray colors, jintArray icons, jdoubleArray mercator)
+{
+  std::vector<jlong> ids(count);
+  env->GetLongArrayRegion(bookmarkIds, 0, count, ids.data());
+  std::vector<jint> colorsVector(count);
+  std::vector<jint> iconsVector(count);
+  std::vector<jdouble> mercatorVector(2 * count);
+
+  auto const & manager = frm()->GetBookmarkManager();
+  for (jint i = 0; i < count; ++i)
+  {
+    // The bookmark could be deleted since its id was taken, leave an empty row for it.
+    auto const * mark = manager.GetBookmark(static_cast<kml::MarkId>(ids[i]));
+    if (mark == nullptr)
+      continue;
+    jni::TScopedLocalRef const name(env, jni::ToJavaString(env, mark->GetPreferredName()));
+    env->SetObjectArrayElement(names, i, name.get());
+    jni::TScopedLocalRef const featureType(
+        env, jni::ToJavaString(env, kml::GetLocalizedFeatureType(mark->GetData().m_featureTypes)));
+    env->SetObjectArrayElement(featureTypes, i, featureType.get());
+    colorsVector[i] = static_cast<jint>(mark->GetColor());
+    iconsVector[i] = static_cast<jint>(mark->GetData().m_icon);
+    auto const pivot = mark->GetPivot();
+    mercatorVector[2 * i] = pivot.x;
+    mercatorVector[2 * i + 1] = pivot.y;
+  }
+
+  env->SetIntArrayRegion(colors, 0, count, colorsVector.data());
+  env->SetIntArrayRegion(icons, 0, count, iconsVector.data());
+  env->SetDoubleArrayRegion(mercator, 0, 2 * count, mercatorVector.data());
+}
+
 static uint32_t shift(uint32_t v, uint8_t bitCount) { return v << bitCount; }
 
 JNIEXPORT jobject JNICALL
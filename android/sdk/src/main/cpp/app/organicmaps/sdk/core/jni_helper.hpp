@@ -71,6 +71,7 @@ using TScopedLocalClassRef = ScopedLocalRef<jclass>;
 using TScopedLocalObjectArrayRef = ScopedLocalRef<jobjectArray>;
 using TScopedLocalIntArrayRef = ScopedLocalRef<jintArray>;
 using TScopedLocalByteArrayRef = ScopedLocalRef<jbyteArray>;
+using TScopedLocalFloatArrayRef = ScopedLocalRef<jfloatArray>;
 
 jobject GetNewParcelablePointD(JNIEnv * env, m2::PointD const & point);
 
@@ -52,8 +52,8 @@ public:
   ~HttpThread()
   {
     JNIEnv * env = jni::GetEnv();
-    static jmethodID const cancelMethodId = env->GetMethodID(m_klass, "cancel", "(Z)Z");
-    env->CallBooleanMethod(m_self, cancelMethodId, false);
+    static jmethodID const releaseMethodId = env->GetMethodID(m_klass, "release", "()V");
+    env->CallVoidMethod(m_self, releaseMethodId);
     env->DeleteGlobalRef(m_self);
   }
 };
@@ -80,23 +80,23 @@ namespace downloader
 extern "C"
 {
 JNIEXPORT jboolean JNICALL
-Java_app_organicmaps_sdk_downloader_ChunkTask_nativeOnWrite(JNIEnv * env, jclass clazz, jlong httpCallbackID, jlong beg, jbyteArray data, jlong size)
+Java_app_organicmaps_sdk_downloader_ChunkTask_nativeOnWrite(JNIEnv * env, jclass clazz, jlong httpCallbackID, jlong beg, jobject data, jint size)
 {
+  // Called from ChunkTask worker threads, calls are serialized on the Java side.
   downloader::IHttpThreadCallback * cb = reinterpret_cast<downloader::IHttpThreadCallback*>(httpCallbackID);
-  jbyte * buf = env->GetByteArrayElements(data, 0);
+  void const * buf = env->GetDirectBufferAddress(data);
   ASSERT(buf, ());
 
   bool ret = false;
   try
   {
-    ret = cb->OnWrite(beg, buf, static_cast<jsize>(size));
+    ret = cb->OnWrite(beg, buf, static_cast<size_t>(size));
   }
   catch (std::exception const & ex)
   {
     LOG(LERROR, ("Failed to write chunk:", ex.what()));
   }
 
-  env->ReleaseByteArrayElements(data, buf, 0);
   return ret;
 }
 
@@ -36,6 +36,8 @@ FeatureID const kEmptyFeatureId;
 // This cache is needed only for showing a specific result on the map after click on the list item.
 // Don't use it with another intentions!
 Results g_results;
+// Timestamp of the query which g_results belong to.
+jlong g_resultsTimestamp;
 
 // Timestamp of last search query. Results with older stamps are ignored.
 jlong g_queryTimestamp;
@@ -166,6 +168,7 @@ void OnResults(Results results, vector<search::ProductInfo> const & productInfo,
   if (!results.IsEndMarker() || results.IsEndedNormal())
   {
     g_results = std::move(results);
+    g_resultsTimestamp = timestamp;
     jni::TScopedLocalObjectArrayRef jResults(env, BuildSearchResults(productInfo, hasPosition, lat, lon));
     env->CallVoidMethod(g_javaListener, g_updateResultsId, jResults.get(), timestamp);
   }
@@ -349,10 +352,18 @@ extern "C"
     return searchStarted;
   }
 
-  JNIEXPORT void JNICALL
-  Java_app_organicmaps_sdk_search_SearchEngine_nativeShowResult(JNIEnv * env, jclass clazz, jint index)
+  JNIEXPORT jboolean JNICALL
+  Java_app_organicmaps_sdk_search_SearchEngine_nativeShowResult(JNIEnv * env, jclass clazz, jint index,
+                                                                  jlong timestamp)
   {
+    // The list item may have been built from the results which are already replaced by a newer search.
+    if (timestamp != g_resultsTimestamp || index < 0 || static_cast<size_t>(index) >= g_results.GetCount())
+    {
+      LOG(LWARNING, ("Ignoring stale search result", index, timestamp, g_resultsTimestamp, g_results.GetCount()));
+      return JNI_FALSE;
+    }
     g_framework->NativeFramework()->ShowSearchResult(g_results[index]);
+    return JNI_TRUE;
   }
 
   JNIEXPORT void JNICALL
@@ -2,85 +2,11 @@
 #include "app/organicmaps/sdk/Framework.hpp"
 #include "platform/settings.hpp"
 
+#include <map>
+#include <string>
+
 extern "C"
 {
-  JNIEXPORT jboolean JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeHasConfigValue(JNIEnv * env, jclass thiz, jstring name)
-  {
-    std::string value;
-    return settings::Get(jni::ToNativeString(env, name), value);
-  }
-
-  JNIEXPORT void JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeDeleteConfigValue(JNIEnv * env, jclass thiz, jstring name)
-  {
-    settings::Delete(jni::ToNativeString(env, name));
-  }
-
-  JNIEXPORT jboolean JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeGetBoolean(JNIEnv * env, jclass thiz, jstring name, jboolean defaultVal)
-  {
-    bool val;
-    if (settings::Get(jni::ToNativeString(env, name), val))
-      return static_cast<jboolean>(val);
-
-    return defaultVal;
-  }
-
-  JNIEXPORT void JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeSetBoolean(JNIEnv * env, jclass thiz, jstring name, jboolean val)
-  {
-    (void)settings::Set(jni::ToNativeString(env, name), static_cast<bool>(val));
-  }
-
-  JNIEXPORT jint JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeGetInt(JNIEnv * env, jclass thiz, jstring name, jint defaultValue)
-  {
-    int32_t value;
-    if (settings::Get(jni::ToNativeString(env, name), value))
-      return static_cast<jint>(value);
-
-    return defaultValue;
-  }
-
-  JNIEXPORT void JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeSetInt(JNIEnv * env, jclass thiz, jstring name, jint value)
-  {
-    (void)settings::Set(jni::ToNativeString(env, name), static_cast<int32_t>(value));
-  }
-
-  JNIEXPORT jlong JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeGetLong(JNIEnv * env, jclass thiz, jstring name, jlong defaultValue)
-  {
-    int64_t value;
-    if (settings::Get(jni::ToNativeString(env, name), value))
-      return static_cast<jlong>(value);
-
-    return defaultValue;
-  }
-
-  JNIEXPORT void JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeSetLong(JNIEnv * env, jclass thiz, jstring name, jlong value)
-  {
-    (void)settings::Set(jni::ToNativeString(env, name), static_cast<int64_t>(value));
-  }
-
-  JNIEXPORT jdouble JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeGetDouble(JNIEnv * env, jclass thiz, jstring name, jdouble defaultValue)
-  {
-    double value;
-    if (settings::Get(jni::ToNativeString(env, name), value))
-      return static_cast<jdouble>(value);
-
-    return defaultValue;
-  }
-
-  JNIEXPORT void JNICALL
-  Java_app_organicmaps_sdk_util_Config_nativeSetDouble(JNIEnv * env, jclass thiz, jstring name, jdouble value)
-  {
-    (void)settings::Set(jni::ToNativeString(env, name), static_cast<double>(value));
-  }
-
   JNIEXPORT jstring JNICALL
   Java_app_organicmaps_sdk_util_Config_nativeGetString(JNIEnv * env, jclass thiz, jstring name, jstring defaultValue)
   {
@@ -91,12 +17,6 @@ extern "C"
     return defaultValue;
   }
 
-    JNIEXPORT void JNICALL
-    Java_app_organicmaps_sdk_util_Config_nativeSetString(JNIEnv * env, jclass thiz, jstring name, jstring value)
-    {
-      (void)settings::Set(jni::ToNativeString(env, name), jni::ToNativeString(env, value));
-    }
-
     JNIEXPORT jboolean JNICALL
     Java_app_organicmaps_sdk_util_Config_nativeGetLargeFontsSize(JNIEnv * env, jclass thiz)
     {
@@ -123,4 +43,39 @@ extern "C"
       frm()->SaveTransliteration(value);
       frm()->AllowTransliteration(value);
     }
+
+  JNIEXPORT jobjectArray JNICALL
+  Java_app_organicmaps_sdk_util_ConfigCache_nativeGetValues(JNIEnv * env, jclass, jobjectArray names)
+  {
+    jsize const count = env->GetArrayLength(names);
+    jobjectArray values = env->NewObjectArray(count, jni::GetStringClass(env), nullptr);
+    std::string value;
+    for (jsize i = 0; i < count; ++i)
+    {
+      jni::TScopedLocalRef const name(env, env->GetObjectArrayElement(names, i));
+      if (!settings::Get(jni::ToNativeString(env, static_cast<jstring>(name.get())), value))
+        continue;
+      jni::TScopedLocalRef const jValue(env, jni::ToJavaString(env, value));
+      env->SetObjectArrayElement(values, i, jValue.get());
+    }
+    return values;
+  }
+
+  JNIEXPORT void JNICALL
+  Java_app_organicmaps_sdk_util_ConfigCache_nativeSetValues(JNIEnv * env, jclass, jobjectArray names,
+                                                            jobjectArray values)
+  {
+    std::map<std::string, std::string> batch;
+    jsize const count = env->GetArrayLength(names);
+    for (jsize i = 0; i < count; ++i)
+    {
+      jni::TScopedLocalRef const name(env, env->GetObjectArrayElement(names, i));
+      jni::TScopedLocalRef const value(env, env->GetObjectArrayElement(values, i));
+      // Empty values are removed by the storage.
+      batch[jni::ToNativeString(env, static_cast<jstring>(name.get()))] =
+          value.get() ? jni::ToNativeString(env, static_cast<jstring>(value.get())) : std::string();
+    }
+    // Saves the settings file once for the whole batch.
+    settings::Update(batch);
+  }
 } // extern "C"
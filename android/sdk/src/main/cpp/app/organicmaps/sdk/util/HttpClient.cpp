@@ -33,6 +33,7 @@ SOFTWARE.
 #include "base/exception.hpp"
 #include "base/logging.hpp"
 
+#include <algorithm>
 #include <string>
 #include <iterator>
 #include <unordered_map>
@@ -82,6 +83,12 @@ void SetInt(ScopedEnv & env, jobject params, jfieldID const fieldId, int const v
   RethrowOnJniException(env);
 }
 
+void SetLong(ScopedEnv & env, jobject params, jfieldID const fieldId, jlong const value)
+{
+  env->SetLongField(params, fieldId, value);
+  RethrowOnJniException(env);
+}
+
 // Get string value from HttpClient.Params object, throws JniException.
 void GetString(ScopedEnv & env, jobject const params, jfieldID const fieldId, std::string & result)
 {
@@ -143,7 +150,8 @@ public:
     {"followRedirects", GetHttpParamsFieldId(env, "followRedirects", "Z")},
     {"loadHeaders", GetHttpParamsFieldId(env, "loadHeaders", "Z")},
     {"httpResponseCode", GetHttpParamsFieldId(env, "httpResponseCode", "I")},
-    {"timeoutMillisec", GetHttpParamsFieldId(env, "timeoutMillisec", "I")}};
+    {"timeoutMillisec", GetHttpParamsFieldId(env, "timeoutMillisec", "I")},
+    {"bodySink", GetHttpParamsFieldId(env, "bodySink", "J")}};
   }
 
   jfieldID GetId(std::string const & fieldName) const
@@ -218,6 +226,9 @@ bool HttpClient::RunHttpRequest()
     SetBoolean(env, httpParamsObject.get(), ids.GetId("loadHeaders"), m_loadHeaders);
     SetInt(env, httpParamsObject.get(), ids.GetId("timeoutMillisec"),
            static_cast<int>(m_timeoutSec * 1000));
+    // The response body is streamed right into m_serverResponse, see nativeWriteBody.
+    m_serverResponse.clear();
+    SetLong(env, httpParamsObject.get(), ids.GetId("bodySink"), reinterpret_cast<jlong>(&m_serverResponse));
 
     SetHeaders(env, httpParamsObject.get(), m_headers);
   }
@@ -233,7 +244,11 @@ bool HttpClient::RunHttpRequest()
   jni::ScopedLocalRef<jobject> const response(env.get(), env->CallStaticObjectMethod(g_httpClientClazz,
                                               httpClientClassRun, httpParamsObject.get()));
   if (jni::HandleJavaException(env.get()))
+  {
+    // A part of the body could be streamed before the request failed.
+    m_serverResponse.clear();
     return false;
+  }
 
   try
   {
@@ -263,3 +278,32 @@ bool HttpClient::RunHttpRequest()
   return true;
 }
 }  // namespace platform
+
+extern "C"
+{
+JNIEXPORT void JNICALL
+Java_app_organicmaps_sdk_util_HttpClient_nativeReserveBody(JNIEnv *, jclass, jlong sink, jlong size)
+{
+  // Content-Length comes from the server, so it is not trusted with the whole allocation.
+  // A bigger body grows the string in nativeWriteBody.
+  jlong constexpr kMaxReserve = 4 * 1024 * 1024;
+  if (size > 0)
+    reinterpret_cast<std::string *>(sink)->reserve(static_cast<size_t>(std::min(size, kMaxReserve)));
+}
+
+JNIEXPORT void JNICALL
+Java_app_organicmaps_sdk_util_HttpClient_nativeWriteBody(JNIEnv * env, jclass, jlong sink, jbyteArray data,
+                                                         jint offset, jint size)
+{
+  auto & body = *reinterpret_cast<std::string *>(sink);
+  size_t const oldSize = body.size();
+  body.resize(oldSize + static_cast<size_t>(size));
+  env->GetByteArrayRegion(data, offset, size, reinterpret_cast<jbyte *>(&body[oldSize]));
+}
+
+JNIEXPORT void JNICALL
+Java_app_organicmaps_sdk_util_HttpClient_nativeClearBody(JNIEnv *, jclass, jlong sink)
+{
+  reinterpret_cast<std::string *>(sink)->clear();
+}
+}  // extern "C"
@@ -359,6 +359,18 @@ RoutingManager::RoutingManager(Callbacks && callbacks, Delegate & delegate)
     });
   });
 
+  m_routingSession.SetChangeSessionStateCallback([this](SessionState /* previous */, SessionState current)
+  {
+    if (current != SessionState::RouteFinished)
+      return;
+    // The state is changed while the location is processed, let it finish before notifying clients.
+    GetPlatform().RunTask(Platform::Thread::Gui, [this]()
+    {
+      if (m_routeFinishedCallback)
+        m_routeFinishedCallback();
+    });
+  });
+
   m_routingSession.SetSpeedCamShowCallback([this](m2::PointD const & point, double cameraSpeedKmPH)
   {
     GetPlatform().RunTask(Platform::Thread::Gui, [this, point, cameraSpeedKmPH]()
@@ -106,6 +106,7 @@ public:
       std::function<void(m2::PointD const &, double)>;
   using RouteSpeedCamsClearCallback =
       std::function<void()>;
+  using RouteFinishedCallback = std::function<void()>;
 
   using RouteStartBuildCallback = std::function<void(std::vector<RouteMarkData> const & points)>;
 
@@ -168,6 +169,11 @@ public:
   {
     m_routeRecommendCallback = recommendCallback;
   }
+  /// Called on the GUI thread when the destination is reached, so that clients needn't poll IsRouteFinished().
+  void SetRouteFinishedListener(RouteFinishedCallback const & finishedCallback)
+  {
+    m_routeFinishedCallback = finishedCallback;
+  }
   void FollowRoute();
   void CloseRouting(bool removeRoutePoints);
   void GetRouteFollowingInfo(routing::FollowingInfo & info) const
@@ -372,6 +378,7 @@ private:
   RouteSpeedCamShowCallback m_routeSpeedCamShowCallback;
   RouteSpeedCamsClearCallback m_routeSpeedCamsClearCallback;
   RouteRecommendCallback m_routeRecommendCallback;
+  RouteFinishedCallback m_routeFinishedCallback;
   Callbacks m_callbacks;
   df::DrapeEngineSafePtr m_drapeEngine;
   routing::RouterType m_currentRouterType = routing::RouterType::Count;
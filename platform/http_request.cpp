@@ -178,13 +178,10 @@ class FileHttpRequest : public HttpRequest, public IHttpThreadCallback
       LOG(LERROR, ("Tried to remove invalid thread for position", begRange));
   }
 
+  // Android writes chunks directly from its download threads, so OnWrite may be called from
+  // different threads. Platform implementations guarantee that the calls never overlap.
   virtual bool OnWrite(int64_t offset, void const * buffer, size_t size)
   {
-#ifdef DEBUG
-    static threads::ThreadID const id = threads::GetCurrentThreadID();
-    ASSERT_EQUAL(id, threads::GetCurrentThreadID(), ("OnWrite called from different threads"));
-#endif
-
     try
     {
       m_writer->Seek(offset);